@@ -0,0 +1,323 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.paywise.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Upgrades a seeded version 1 database (the original schema, with REAL money and
+ * TEXT dates) through each migration step and through DatabaseHelper, and checks
+ * that no ledger data is lost or changed and that the upgrade stays within budget.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String TAG = "MigrationTest";
+    private static final String DB_NAME = "migration-test.db";
+    private static final String FRESH_DB_NAME = "migration-test-fresh.db";
+
+    private static final int VAULTS = 5;
+    private static final int TRANSACTIONS = 20_000;
+    private static final int SERVICE_LOGS = 1_000;
+
+    // Generous for CI emulators; a mid-range device takes well under a second
+    private static final long UPGRADE_BUDGET_MS = 15_000;
+
+    private static final String[] VAULT_TYPES = {"Food", "Travel", "Lifestyle", "Business", "Emergency"};
+
+    private Context context;
+    private File dbFile;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        context.deleteDatabase(FRESH_DB_NAME);
+        dbFile = context.getDatabasePath(DB_NAME);
+        dbFile.getParentFile().mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+        context.deleteDatabase(FRESH_DB_NAME);
+    }
+
+    @Test
+    public void stepsCoverEveryVersion() {
+        assertEquals(Constants.DATABASE_VERSION, Migrations.latestVersion());
+        for (int version = 2; version <= Constants.DATABASE_VERSION; version++) {
+            assertEquals(version, Migrations.get(version).version);
+        }
+    }
+
+    @Test
+    public void integerMoney_convertsRupeesToPaise() {
+        SQLiteDatabase db = createSeededV1();
+        applyStep(db, 2);
+        applyStep(db, 3);
+
+        assertEquals(TRANSACTIONS, count(db, "transactions"));
+        assertEquals(0, count(db, "transactions WHERE typeof(amount) != 'integer'"));
+
+        // Every row converted exactly, not just the totals
+        Cursor cursor = db.rawQuery("SELECT transaction_id, amount FROM transactions ORDER BY transaction_id", null);
+        while (cursor.moveToNext()) {
+            assertEquals(seededAmount(cursor.getInt(0)), cursor.getLong(1));
+        }
+        cursor.close();
+
+        cursor = db.rawQuery("SELECT vault_id, monthly_limit, current_spent FROM vaults ORDER BY vault_id", null);
+        while (cursor.moveToNext()) {
+            assertEquals(seededLimit(cursor.getInt(0)), cursor.getLong(1));
+            assertEquals(seededSpent(cursor.getInt(0)), cursor.getLong(2));
+        }
+        cursor.close();
+        db.close();
+    }
+
+    @Test
+    public void epochMillisDates_convertsLocalTextDates() {
+        SQLiteDatabase db = createSeededV1();
+        applyStep(db, 2);
+        applyStep(db, 3);
+        applyStep(db, 4);
+
+        assertEquals(0, count(db, "transactions WHERE typeof(transaction_date) != 'integer'"));
+        assertEquals(0, count(db, "vaults WHERE typeof(created_at) != 'integer' OR typeof(reset_date) != 'integer'"));
+        assertEquals(SERVICE_LOGS, count(db, "service_logs WHERE typeof(timestamp) = 'integer'"));
+
+        // The old text was local time, which is ambiguous in the repeated hour when DST ends,
+        // so check that each instant still reads as the same local time
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        Cursor cursor = db.rawQuery("SELECT transaction_id, transaction_date FROM transactions ORDER BY transaction_id", null);
+        while (cursor.moveToNext()) {
+            assertEquals(format.format(seededDate(cursor.getInt(0))), format.format(cursor.getLong(1)));
+        }
+        cursor.close();
+        db.close();
+    }
+
+    @Test
+    public void helperUpgrade_preservesLedgerAndMatchesFreshSchema() {
+        createSeededV1().close();
+
+        DatabaseHelper helper = new DatabaseHelper(context, DB_NAME, StorageProfile.defaultProfile());
+        long started = SystemClock.elapsedRealtime();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long elapsed = SystemClock.elapsedRealtime() - started;
+        Log.d(TAG, "Upgrade of " + TRANSACTIONS + " transactions took " + elapsed + " ms");
+
+        assertEquals(Constants.DATABASE_VERSION, db.getVersion());
+        assertTrue("Upgrade took " + elapsed + " ms", elapsed < UPGRADE_BUDGET_MS);
+
+        assertEquals(1, count(db, "users"));
+        assertEquals(VAULTS, count(db, "vaults"));
+        assertEquals(TRANSACTIONS, count(db, "transactions"));
+        assertEquals(SERVICE_LOGS, count(db, "service_logs"));
+
+        // Spend totals rebuilt from the migrated ledger
+        long expectedSpent = 0;
+        for (int id = 1; id <= TRANSACTIONS; id++) {
+            if (isSuccessfulDebit(id)) {
+                expectedSpent += seededAmount(id);
+            }
+        }
+        assertEquals(expectedSpent, queryLong(db, "SELECT SUM(total_spent) FROM " + Constants.TABLE_VAULT_SPEND_TOTALS));
+        assertEquals(0, mismatchedSpendTotals(db));
+
+        // AUTOINCREMENT continues after the migrated rows
+        db.execSQL("INSERT INTO transactions (vault_id, merchant_name, amount, transaction_type, " +
+                "transaction_date, status) VALUES (1, 'After upgrade', 100, 'debit', 0, 'success')");
+        assertEquals(TRANSACTIONS + 1, queryLong(db, "SELECT MAX(transaction_id) FROM transactions"));
+
+        DatabaseHelper freshHelper = new DatabaseHelper(context, FRESH_DB_NAME, StorageProfile.defaultProfile());
+        assertEquals(describeSchema(freshHelper.getWritableDatabase()), describeSchema(db));
+
+        freshHelper.close();
+        helper.close();
+    }
+
+    // --- seeded version 1 database ---
+
+    private SQLiteDatabase createSeededV1() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(dbFile, null);
+        db.beginTransaction();
+        try {
+            // Schema as shipped in version 1
+            db.execSQL("CREATE TABLE users (user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "full_name TEXT NOT NULL, email TEXT, phone TEXT NOT NULL, profile_image_path TEXT, " +
+                    "created_at TEXT NOT NULL, updated_at TEXT NOT NULL)");
+            db.execSQL("CREATE TABLE vaults (vault_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "user_id INTEGER NOT NULL, vault_name TEXT NOT NULL, " +
+                    "vault_type TEXT NOT NULL CHECK(vault_type IN ('Food','Travel','Lifestyle','Business','Emergency')), " +
+                    "monthly_limit REAL NOT NULL, current_spent REAL DEFAULT 0, vault_color TEXT NOT NULL, " +
+                    "is_active INTEGER DEFAULT 1, created_at TEXT NOT NULL, reset_date TEXT NOT NULL, " +
+                    "FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE)");
+            db.execSQL("CREATE TABLE transactions (transaction_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "vault_id INTEGER NOT NULL, merchant_name TEXT NOT NULL, amount REAL NOT NULL, " +
+                    "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                    "description TEXT, transaction_date TEXT NOT NULL, " +
+                    "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                    "FOREIGN KEY(vault_id) REFERENCES vaults(vault_id) ON DELETE CASCADE)");
+            db.execSQL("CREATE TABLE service_logs (log_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "service_name TEXT NOT NULL, action_type TEXT NOT NULL, message TEXT, timestamp TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX idx_vault_user ON vaults(user_id)");
+            db.execSQL("CREATE INDEX idx_transaction_vault ON transactions(vault_id)");
+            db.execSQL("CREATE INDEX idx_transaction_date ON transactions(transaction_date)");
+
+            db.execSQL("INSERT INTO users (full_name, phone, created_at, updated_at) " +
+                    "VALUES ('Test User', '9999999999', '2025-01-01 09:00:00', '2025-01-01 09:00:00')");
+
+            for (int id = 1; id <= VAULTS; id++) {
+                db.execSQL("INSERT INTO vaults (user_id, vault_name, vault_type, monthly_limit, current_spent, " +
+                                "vault_color, created_at, reset_date) VALUES (1, ?, ?, ?, ?, '#4CAF50', ?, ?)",
+                        new Object[]{VAULT_TYPES[id - 1] + " vault", VAULT_TYPES[id - 1],
+                                seededLimit(id) / 100.0, seededSpent(id) / 100.0,
+                                "2025-01-01 09:00:00", "2026-02-01"});
+            }
+
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+            for (int id = 1; id <= TRANSACTIONS; id++) {
+                db.execSQL("INSERT INTO transactions (vault_id, merchant_name, amount, transaction_type, " +
+                                "description, transaction_date, status) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        new Object[]{1 + id % VAULTS, "Merchant " + id % 97, seededAmount(id) / 100.0,
+                                id % 50 == 0 ? "credit" : "debit", id % 3 == 0 ? null : "Note " + id,
+                                format.format(seededDate(id)), seededStatus(id)});
+            }
+
+            for (int id = 1; id <= SERVICE_LOGS; id++) {
+                db.execSQL("INSERT INTO service_logs (service_name, action_type, message, timestamp) " +
+                                "VALUES ('VaultMonitorService', 'CHECK', ?, ?)",
+                        new Object[]{"Check " + id, format.format(seededDate(id))});
+            }
+
+            db.setVersion(1);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return db;
+    }
+
+    private static long seededAmount(int transactionId) {
+        return 100 + (transactionId * 7919L) % 250_000; // paise, with every possible fraction
+    }
+
+    private static long seededLimit(int vaultId) {
+        return vaultId * 1_000_000L + 10; // e.g. 10000.10 rupees
+    }
+
+    private static long seededSpent(int vaultId) {
+        return vaultId * 12_345L + 1;
+    }
+
+    private static String seededStatus(int transactionId) {
+        return transactionId % 17 == 0 ? "failed" : transactionId % 29 == 0 ? "pending" : "success";
+    }
+
+    private static boolean isSuccessfulDebit(int transactionId) {
+        return transactionId % 50 != 0 && "success".equals(seededStatus(transactionId));
+    }
+
+    /**
+     * One transaction every 23 minutes through 2025, whole seconds, in local time
+     */
+    private static long seededDate(int transactionId) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2025, Calendar.JANUARY, 1, 0, 0, 0);
+        calendar.add(Calendar.MINUTE, transactionId * 23);
+        return calendar.getTimeInMillis();
+    }
+
+    // --- helpers ---
+
+    private static void applyStep(SQLiteDatabase db, int version) {
+        db.beginTransaction();
+        try {
+            Migrations.get(version).migrate(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static long count(SQLiteDatabase db, String tableAndWhere) {
+        return queryLong(db, "SELECT COUNT(*) FROM " + tableAndWhere);
+    }
+
+    private static long queryLong(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        long value = cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        cursor.close();
+        return value;
+    }
+
+    /**
+     * Columns of every table plus index and trigger names, independent of the
+     * CREATE text (which SQLite rewrites when a table is renamed)
+     */
+    private static String describeSchema(SQLiteDatabase db) {
+        TreeMap<String, String> objects = new TreeMap<>();
+        List<String[]> entries = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT type, name FROM sqlite_master " +
+                "WHERE name NOT LIKE 'sqlite_%' AND name != 'android_metadata'", null);
+        while (cursor.moveToNext()) {
+            entries.add(new String[]{cursor.getString(0), cursor.getString(1)});
+        }
+        cursor.close();
+
+        for (String[] entry : entries) {
+            StringBuilder sb = new StringBuilder(entry[0]);
+            if ("table".equals(entry[0])) {
+                Cursor columns = db.rawQuery("PRAGMA table_info(" + entry[1] + ")", null);
+                while (columns.moveToNext()) {
+                    sb.append(' ').append(columns.getString(1)).append(':').append(columns.getString(2))
+                            .append(columns.getInt(3) == 1 ? " NOT NULL" : "")
+                            .append(columns.getInt(5) > 0 ? " PK" : "");
+                }
+                columns.close();
+            }
+            objects.put(entry[1], sb.toString());
+        }
+        return objects.toString();
+    }
+
+    /**
+     * Number of (vault, month) groups whose stored spend total differs from the ledger
+     */
+    private static long mismatchedSpendTotals(SQLiteDatabase db) {
+        String period = Schema.periodOf("t.transaction_date");
+        return queryLong(db, "SELECT COUNT(*) FROM (" +
+                "SELECT t.vault_id, " + period + " AS period, SUM(t.amount) AS spent FROM transactions t " +
+                "WHERE t.transaction_type = 'debit' AND t.status = 'success' " +
+                "GROUP BY t.vault_id, period) l " +
+                "LEFT JOIN " + Constants.TABLE_VAULT_SPEND_TOTALS + " s " +
+                "ON s.vault_id = l.vault_id AND s.period = l.period " +
+                "WHERE s.total_spent IS NULL OR s.total_spent != l.spent");
+    }
+}
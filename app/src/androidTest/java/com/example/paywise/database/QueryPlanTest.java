@@ -0,0 +1,166 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs EXPLAIN QUERY PLAN for the DAO queries against a freshly created schema
+ * and fails when one of them falls back to a full table scan or sorts through a
+ * temp B-tree, or stops using the index it was tuned for. Guards the indexes in
+ * {@link Schema} against query and schema changes that quietly break them.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String TAG = "QueryPlanTest";
+    private static final String DB_NAME = "query-plan-test.db";
+
+    private static final String ID = "1";
+    private static final String DATE = "1767225600000";
+    private static final String FIRST_DATE = String.valueOf(TransactionDao.FIRST_PAGE_DATE);
+    private static final String FIRST_ID = String.valueOf(TransactionDao.FIRST_PAGE_ID);
+
+    private Context context;
+    private DatabaseHelper helper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        helper = new DatabaseHelper(context, DB_NAME, StorageProfile.defaultProfile());
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void transactionQueries_useIndexes() {
+        assertIndexed(TransactionDao.SQL_PAGE_BY_USER, "idx_transaction_date",
+                ID, FIRST_DATE, FIRST_DATE, FIRST_ID, "20");
+        assertIndexed(TransactionDao.SQL_PAGE_BY_USER, "idx_transaction_date",
+                ID, DATE, DATE, "500", "20");
+        assertIndexed(TransactionDao.SQL_PAGE_BY_VAULT, "idx_transaction_vault_date",
+                ID, FIRST_DATE, FIRST_DATE, FIRST_ID, "20");
+        assertIndexed(TransactionDao.SQL_PAGE_BY_VAULT, "idx_transaction_vault_date",
+                ID, DATE, DATE, "500", "20");
+        assertIndexed(TransactionDao.SQL_FULL_PAGE_BY_USER, "idx_archive_date",
+                ID, DATE, "500", "20");
+        assertIndexed(TransactionDao.SQL_FULL_PAGE_BY_VAULT, "idx_archive_vault_date",
+                ID, DATE, "500", "20");
+        assertIndexed(TransactionDao.SQL_COUNT_ALL_BY_USER, "COVERING INDEX idx_archive_vault_date", ID);
+        assertIndexed(TransactionDao.SQL_BETWEEN, "idx_transaction_date", DATE, DATE);
+        assertIndexed(TransactionDao.SQL_BY_ID, null, ID);
+        assertIndexed(TransactionDao.SQL_COUNT_SINCE, "COVERING INDEX idx_transaction_vault_date", ID, DATE);
+        assertIndexed(TransactionDao.SQL_RECENT_DEBIT, "idx_transaction_successful_debit",
+                ID, DATE, "500", "Cafe");
+    }
+
+    @Test
+    public void vaultQueries_useIndexes() {
+        assertIndexed(VaultDao.SQL_ACTIVE_BY_USER, "idx_vault_user_active", ID);
+        assertIndexed(VaultDao.SQL_AVAILABLE_BALANCE, "idx_vault_user_active", ID);
+        assertIndexed(VaultDao.SQL_BY_ID, null, ID);
+        assertIndexed(UserDao.SQL_BY_ID, null, ID);
+        assertIndexed(VaultDao.SQL_TYPE_EXISTS, "COVERING INDEX idx_vault_user_type", ID, "Food");
+        assertIndexed(DebitEngine.SQL_DEBIT_VAULT, null, "100", ID, "100");
+        assertIndexed(VaultDao.SQL_EARLIEST_RESET, "idx_vault_active_reset");
+        assertIndexed(VaultDao.SQL_USERS_DUE_FOR_RESET, "idx_vault_active_reset", DATE);
+        assertIndexed(VaultDao.SQL_ADVANCE_STALE_RESETS, "idx_vault_user_active", DATE, ID, DATE);
+        assertIndexed(VaultDao.SQL_COMPLETE_RESET_RUN, null, "3", ID, DATE);
+    }
+
+    @Test
+    public void spendTotalsQueries_useIndexes() {
+        assertIndexed(SpendTotalsDao.SQL_LEDGER_GROUP, "COVERING INDEX idx_transaction_successful_debit",
+                ID, "2026-01");
+        assertIndexed(SpendTotalsDao.SQL_TOUCHED_GROUPS, null, "500");
+        assertIndexed(SpendTotalsDao.SQL_STORED_GROUP, null, ID, "2026-01");
+        assertIndexed(SpendTotalsDao.SQL_TOTAL_SPENT, null, ID);
+        assertIndexed(SpendTotalsDao.SQL_MAX_TRANSACTION_ID, null);
+        assertIndexed(SpendTotalsDao.SQL_RECONCILE_CURRENT_SPENT, "idx_transaction_successful_debit",
+                DATE, DATE, DATE);
+        assertIndexed(SpendTotalsDao.SQL_RECONCILE_CURRENT_SPENT, "idx_vault_active_reset", DATE, DATE, DATE);
+    }
+
+    @Test
+    public void archiverQueries_useIndexes() {
+        assertIndexed(TransactionArchiver.SQL_ARCHIVE_CANDIDATES, "idx_transaction_unsettled", DATE, "500");
+    }
+
+    @Test
+    public void logRetentionQueries_useIndexes() {
+        assertIndexed(ServiceLogRetention.SQL_NEXT_SERVICE, "idx_service_log_name_time", "");
+        assertIndexed(ServiceLogRetention.SQL_ROW_LIMIT_BOUNDARY, "idx_service_log_name_time",
+                "PaymentAlertReceiver", "10000");
+        assertIndexed(ServiceLogRetention.SQL_DELETE_CHUNK, "idx_service_log_name_time",
+                "PaymentAlertReceiver", DATE, ID, "500");
+    }
+
+    @Test
+    public void intentionalFullReads_doNotSort() {
+        // These read a whole (small) table or stop at its first row, so a scan is
+        // expected; they must still not build a temp B-tree
+        assertNoTempBTree(VaultDao.SQL_ALL_NAMES);
+        assertNoTempBTree(TransactionDao.SQL_EXPORT_BY_USER, ID);
+        assertNoTempBTree(UserDao.SQL_ANY_USER);
+        assertNoTempBTree(UserDao.SQL_FIRST_USER);
+    }
+
+    /**
+     * Assert that no step of the plan scans a table or uses a temp B-tree
+     * @param expectedIndex Text some step must contain, e.g. an index name; null to skip
+     */
+    private void assertIndexed(String sql, String expectedIndex, String... args) {
+        List<String> plan = explain(sql, args);
+        boolean usesExpected = expectedIndex == null;
+        for (String step : plan) {
+            // "SCAN CONSTANT ROW" is the outer SELECT of scalar subqueries, not a table
+            boolean tableScan = step.startsWith("SCAN ") && !step.equals("SCAN CONSTANT ROW");
+            if (tableScan || step.contains("TEMP B-TREE")) {
+                fail("Unindexed step \"" + step + "\" in plan " + plan + " for " + sql);
+            }
+            usesExpected |= expectedIndex != null && step.contains(expectedIndex);
+        }
+        assertTrue("Plan " + plan + " does not use " + expectedIndex + " for " + sql, usesExpected);
+    }
+
+    private void assertNoTempBTree(String sql, String... args) {
+        List<String> plan = explain(sql, args);
+        for (String step : plan) {
+            assertTrue("Temp B-tree in plan " + plan + " for " + sql, !step.contains("TEMP B-TREE"));
+        }
+    }
+
+    private List<String> explain(String sql, String[] args) {
+        List<String> plan = new ArrayList<>();
+        Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args.length == 0 ? null : args);
+        while (cursor.moveToNext()) {
+            // Columns are id, parent, notused, detail
+            plan.add(cursor.getString(3));
+        }
+        cursor.close();
+        Log.d(TAG, plan + " <- " + sql);
+        return plan;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.utils.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Imports statements into a scratch user and vault of the app database and
+ * checks that importing the same or an overlapping statement again adds no
+ * rows. The scratch rows are removed afterwards.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ImportManagerTest {
+
+    private static final String CSV =
+            "Date,Narration,Withdrawal,Deposit,Notes\n" +
+                    "01/01/2024 10:00,Coffee,50.00,0.00,\n" +
+                    "01/01/2024 10:00,Coffee,50.00,0.00,\n" +
+                    "02/01/2024,\"Books, new\",450.00,0.00,gift\n" +
+                    "03/01/2024,Salary,0.00,\"90,000.00\",\n" +
+                    "bad,row,x,,\n";
+
+    private static final String OFX =
+            "OFXHEADER:100\nDATA:OFXSGML\n<OFX><BANKTRANLIST>\n" +
+                    "<STMTTRN><DTPOSTED>20240105120000.000[+5.30:IST]<TRNAMT>-1234.50<FITID>A1<NAME>Tom &amp; Co\n" +
+                    "</STMTTRN>\n<STMTTRN><DTPOSTED>20240106<TRNAMT>99.99<FITID>A2<NAME>Refund\n</STMTTRN>\n" +
+                    "</BANKTRANLIST></OFX>";
+
+    private Context context;
+    private SQLiteDatabase db;
+    private long userId;
+    private int vaultId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = DatabaseManager.getInstance(context).getWritableDatabase();
+        db.execSQL("INSERT INTO " + Constants.TABLE_USERS + " (full_name, phone, created_at, updated_at)" +
+                " VALUES ('Import test', '0', '', '')");
+        userId = lastInsertId();
+        db.execSQL("INSERT INTO " + Constants.TABLE_VAULTS + " (user_id, vault_name, vault_type, monthly_limit," +
+                " vault_color, created_at, reset_date) VALUES (?, 'Import test', 'Food', 100000, '#000000', 0, 0)",
+                new Object[]{userId});
+        vaultId = (int) lastInsertId();
+    }
+
+    @After
+    public void tearDown() {
+        db.execSQL("DELETE FROM " + Constants.TABLE_TRANSACTIONS + " WHERE vault_id = ?", new Object[]{vaultId});
+        db.execSQL("DELETE FROM " + Constants.TABLE_VAULTS + " WHERE vault_id = ?", new Object[]{vaultId});
+        db.execSQL("DELETE FROM " + Constants.TABLE_USERS + " WHERE user_id = ?", new Object[]{userId});
+    }
+
+    @Test
+    public void reimportingACsvStatement_isANoOp() throws IOException {
+        ImportManager importManager = new ImportManager(context);
+
+        ImportManager.Result first = importManager.importStatement(stream(CSV), ImportManager.Format.CSV, vaultId);
+        assertEquals(4, first.imported);
+        assertEquals(0, first.duplicates);
+        assertEquals(1, first.rejected);
+        assertEquals(4, countRows());
+
+        ImportManager.Result again = importManager.importStatement(stream(CSV), ImportManager.Format.CSV, vaultId);
+        assertEquals(0, again.imported);
+        assertEquals(4, again.duplicates);
+        assertEquals(4, countRows());
+    }
+
+    @Test
+    public void overlappingStatement_onlyAddsNewRows() throws IOException {
+        ImportManager importManager = new ImportManager(context);
+        importManager.importStatement(stream(CSV), ImportManager.Format.CSV, vaultId);
+
+        String later = "Date,Narration,Withdrawal,Deposit,Notes\n" +
+                "02/01/2024,\"Books, new\",450.00,0.00,gift\n" +
+                "04/01/2024,Rent,20000.00,0.00,\n";
+        ImportManager.Result result = importManager.importStatement(stream(later), ImportManager.Format.CSV, vaultId);
+        assertEquals(1, result.imported);
+        assertEquals(1, result.duplicates);
+        assertEquals(5, countRows());
+    }
+
+    @Test
+    public void reimportingAnOfxStatement_isANoOp() throws IOException {
+        ImportManager importManager = new ImportManager(context);
+
+        assertEquals(2, importManager.importStatement(stream(OFX), ImportManager.Format.OFX, vaultId).imported);
+        ImportManager.Result again = importManager.importStatement(stream(OFX), ImportManager.Format.OFX, vaultId);
+        assertEquals(0, again.imported);
+        assertEquals(2, again.duplicates);
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    public void importIntoMissingVault_endsTheTransaction() throws IOException {
+        ImportManager importManager = new ImportManager(context);
+        try {
+            importManager.importStatement(stream(CSV), ImportManager.Format.CSV, -vaultId);
+            fail("Imported into a vault that does not exist");
+        } catch (SQLiteException expected) {
+            // Foreign key violation on the first row
+        }
+        assertFalse(db.inTransaction());
+        assertEquals(0, queryForLong("SELECT COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS +
+                " WHERE vault_id = " + -vaultId));
+    }
+
+    private long countRows() {
+        return queryForLong("SELECT COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS + " WHERE vault_id = " + vaultId);
+    }
+
+    private long lastInsertId() {
+        return queryForLong("SELECT last_insert_rowid()");
+    }
+
+    private long queryForLong(String sql) {
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            return statement.simpleQueryForLong();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
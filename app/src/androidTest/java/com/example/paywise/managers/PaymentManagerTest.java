@@ -0,0 +1,97 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.SpendTotalsDao;
+import com.example.paywise.models.PaymentRequest;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Batch payments against a scratch user and vault of the app database, checked
+ * against the daily current_spent reconciliation. The scratch rows are removed
+ * afterwards.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PaymentManagerTest {
+
+    private static final long LIMIT = 100_000;
+
+    private Context context;
+    private SQLiteDatabase db;
+    private long userId;
+    private int vaultId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = DatabaseManager.getInstance(context).getWritableDatabase();
+        db.execSQL("INSERT INTO " + Constants.TABLE_USERS + " (full_name, phone, created_at, updated_at)" +
+                " VALUES ('Payment test', '0', '', '')");
+        userId = lastInsertId();
+        db.execSQL("INSERT INTO " + Constants.TABLE_VAULTS + " (user_id, vault_name, vault_type, monthly_limit," +
+                " vault_color, created_at, reset_date) VALUES (?, 'Payment test', 'Food', ?, '#000000', 0, ?)",
+                new Object[]{userId, LIMIT, DateUtils.getNextMonthResetDate()});
+        vaultId = (int) lastInsertId();
+    }
+
+    @After
+    public void tearDown() {
+        db.execSQL("DELETE FROM " + Constants.TABLE_TRANSACTIONS + " WHERE vault_id = ?", new Object[]{vaultId});
+        db.execSQL("DELETE FROM " + Constants.TABLE_VAULT_SPEND_TOTALS + " WHERE vault_id = ?",
+                new Object[]{vaultId});
+        db.execSQL("DELETE FROM " + Constants.TABLE_VAULTS + " WHERE vault_id = ?", new Object[]{vaultId});
+        db.execSQL("DELETE FROM " + Constants.TABLE_USERS + " WHERE user_id = ?", new Object[]{userId});
+    }
+
+    @Test
+    public void backdatedBatchPayment_isNotChargedOrReconciledAway() {
+        long lastMonth = DateUtils.getMonthStart(System.currentTimeMillis()) - 1;
+        List<Transaction> results = new PaymentManager(context).processPayments(Arrays.asList(
+                new PaymentRequest(vaultId, "Grocer", 30_000, null, 0),
+                // Over this month's remaining limit, but charged to last month
+                new PaymentRequest(vaultId, "Late entry", 90_000, null, lastMonth)));
+
+        assertEquals(Constants.TRANSACTION_STATUS_SUCCESS, results.get(0).getStatus());
+        assertEquals(Constants.TRANSACTION_STATUS_SUCCESS, results.get(1).getStatus());
+        assertEquals(lastMonth, results.get(1).getTransactionDate());
+        assertEquals(30_000, currentSpent());
+
+        new SpendTotalsDao(context).reconcileCurrentSpent(System.currentTimeMillis());
+        assertEquals(30_000, currentSpent());
+    }
+
+    private long currentSpent() {
+        return queryForLong("SELECT current_spent FROM " + Constants.TABLE_VAULTS + " WHERE vault_id = " + vaultId);
+    }
+
+    private long lastInsertId() {
+        return queryForLong("SELECT last_insert_rowid()");
+    }
+
+    private long queryForLong(String sql) {
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            return statement.simpleQueryForLong();
+        } finally {
+            statement.close();
+        }
+    }
+}
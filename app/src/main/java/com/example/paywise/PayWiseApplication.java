@@ -0,0 +1,98 @@
+package com.example.paywise;
+
+import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.res.Configuration;
+
+import androidx.annotation.NonNull;
+
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.ServiceLogWriter;
+import com.example.paywise.database.TransactionArchiver;
+import com.example.paywise.managers.VaultResetScheduler;
+import com.example.paywise.services.LogRetentionWorker;
+import com.example.paywise.utils.AppExecutors;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.DateUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application class - owns process-wide resources such as the shared database
+ */
+public class PayWiseApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Open the shared database once for the lifetime of the process. Opening may run
+        // schema migrations over the whole ledger, so it happens on the writer thread;
+        // anything needing the database meanwhile waits on the helper, not the UI thread.
+        DatabaseManager.initialize(this);
+        final DatabaseManager databaseManager = DatabaseManager.getInstance(this);
+        Executor writer = AppExecutors.getInstance().writeIO();
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                databaseManager.open();
+            }
+        });
+
+        // Make sure the monthly reset and the daily log retention are scheduled;
+        // both are no-ops while a run is pending
+        final Context appContext = this;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                VaultResetScheduler.schedule(appContext);
+                LogRetentionWorker.schedule(appContext);
+            }
+        });
+
+        // Then move old failed and pending payments out of the ledger, a chunk at a time
+        long archiveCutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(Constants.ARCHIVE_AFTER_DAYS);
+        new TransactionArchiver(this).archiveInBackground(writer, archiveCutoff);
+
+        // The shared date formatter is bound to the time zone it was built in
+        registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DateUtils.resetFormatter();
+            }
+        }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // Month names and AM/PM markers are cached per locale
+        DateUtils.resetFormatter();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Once in the background the process can be killed without warning:
+        // write out the buffered service logs
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            final ServiceLogWriter serviceLogWriter = DatabaseManager.getInstance(this).getServiceLogWriter();
+            AppExecutors.getInstance().writeIO().execute(new Runnable() {
+                @Override
+                public void run() {
+                    serviceLogWriter.flush();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onTerminate() {
+        DatabaseManager.getInstance(this).close();
+        super.onTerminate();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.paywise.activities;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.Menu;
@@ -15,9 +16,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.paywise.R;
 import com.example.paywise.adapters.VaultAdapter;
-import com.example.paywise.managers.VaultManager;
+import com.example.paywise.managers.BalanceTracker;
+import com.example.paywise.models.BalanceSnapshot;
 import com.example.paywise.models.Vault;
+import com.example.paywise.repository.RepositoryCallback;
+import com.example.paywise.repository.VaultRepository;
 import com.example.paywise.utils.ImageUtils;
+import com.example.paywise.utils.Money;
 import com.example.paywise.utils.PreferenceManager;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +36,7 @@ public class MainActivity extends AppCompatActivity implements VaultAdapter.OnVa
     private RecyclerView rvVaults;
 
     private PreferenceManager preferenceManager;
-    private VaultManager vaultManager;
+    private VaultRepository vaultRepository;
     private VaultAdapter vaultAdapter;
     private List<Vault> vaultList;
 
@@ -44,7 +49,7 @@ public class MainActivity extends AppCompatActivity implements VaultAdapter.OnVa
         setupToolbar();
 
         preferenceManager = new PreferenceManager(this);
-        vaultManager = new VaultManager(this);
+        vaultRepository = new VaultRepository(this);
 
         loadUserProfile();
         setupRecyclerView();
@@ -96,14 +101,31 @@ public class MainActivity extends AppCompatActivity implements VaultAdapter.OnVa
 
     private void loadVaults() {
         int userId = preferenceManager.getUserId();
-        vaultList = vaultManager.getUserVaults(userId);
-        vaultAdapter.updateVaults(vaultList);
+        vaultRepository.getUserVaults(userId, new RepositoryCallback<List<Vault>>() {
+            @Override
+            public void onResult(List<Vault> vaults) {
+                vaultList = vaults;
+                vaultAdapter.updateVaults(vaultList);
+            }
+        });
     }
 
     private void updateTotalBalance() {
         int userId = preferenceManager.getUserId();
-        double totalBalance = vaultManager.getTotalBalance(userId);
-        tvBalanceAmount.setText(String.format("₹%.2f", totalBalance));
+
+        // Totals are kept in memory once loaded, so no query is needed on resume
+        BalanceSnapshot snapshot = BalanceTracker.getInstance().getSnapshot(userId);
+        if (snapshot != null) {
+            tvBalanceAmount.setText(Money.format(snapshot.getAvailableBalance()));
+            return;
+        }
+
+        vaultRepository.getTotalBalance(userId, new RepositoryCallback<Long>() {
+            @Override
+            public void onResult(Long totalBalance) {
+                tvBalanceAmount.setText(Money.format(totalBalance));
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -148,6 +170,9 @@ public class MainActivity extends AppCompatActivity implements VaultAdapter.OnVa
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        // The metrics screen is for debuggable builds only
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        menu.findItem(R.id.action_metrics).setVisible(debuggable);
         return true;
     }
 
@@ -162,6 +187,9 @@ public class MainActivity extends AppCompatActivity implements VaultAdapter.OnVa
             Intent intent = new Intent(MainActivity.this, TransactionHistoryActivity.class);
             startActivity(intent);
             return true;
+        } else if (id == R.id.action_metrics) {
+            startActivity(new Intent(MainActivity.this, MetricsActivity.class));
+            return true;
         }
 
         return super.onOptionsItemSelected(item);
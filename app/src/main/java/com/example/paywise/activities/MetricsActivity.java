@@ -0,0 +1,95 @@
+package com.example.paywise.activities;
+
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+import com.example.paywise.R;
+import com.example.paywise.utils.AppExecutors;
+import com.example.paywise.utils.Metrics;
+import com.example.paywise.utils.MetricsExporter;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Debug screen showing the {@link Metrics} registry: p50/p90/p99/max of every
+ * latency histogram, counters and gauges. The report can be exported to a
+ * file or reset before reproducing a scenario.
+ */
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView tvMetrics;
+    private AppExecutors executors;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+        tvMetrics = findViewById(R.id.tvMetrics);
+        executors = AppExecutors.getInstance();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_metrics, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
+            finish();
+            return true;
+        } else if (id == R.id.action_refresh) {
+            refresh();
+            return true;
+        } else if (id == R.id.action_reset) {
+            Metrics.reset();
+            refresh();
+            return true;
+        } else if (id == R.id.action_export) {
+            export();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void refresh() {
+        // Gauges may take locks; build the report off the main thread
+        executors.diskIO().execute(() -> {
+            final String report = Metrics.report();
+            executors.mainThread().execute(() -> tvMetrics.setText(report));
+        });
+    }
+
+    private void export() {
+        executors.diskIO().execute(() -> {
+            String message;
+            try {
+                File file = MetricsExporter.dump(getApplicationContext());
+                message = getString(R.string.metrics_exported, file.getAbsolutePath());
+            } catch (IOException e) {
+                message = getString(R.string.metrics_export_failed);
+            }
+            final String toast = message;
+            executors.mainThread().execute(() ->
+                    Toast.makeText(MetricsActivity.this, toast, Toast.LENGTH_LONG).show());
+        });
+    }
+}
@@ -21,15 +21,20 @@ import androidx.appcompat.widget.Toolbar;
 import androidx.cardview.widget.CardView;
 import com.example.paywise.R;
 import com.example.paywise.managers.PaymentManager;
-import com.example.paywise.managers.VaultManager;
 import com.example.paywise.models.Transaction;
 import com.example.paywise.models.Vault;
+import com.example.paywise.repository.PaymentRepository;
+import com.example.paywise.repository.RepositoryCallback;
+import com.example.paywise.repository.VaultRepository;
 import com.example.paywise.services.PaymentValidationService;
+import com.example.paywise.utils.AppExecutors;
 import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.Money;
 import com.example.paywise.utils.PreferenceManager;
 import com.google.android.material.textfield.TextInputEditText;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class PaymentActivity extends AppCompatActivity {
 
@@ -41,8 +46,8 @@ public class PaymentActivity extends AppCompatActivity {
     private Button btnPayNow;
 
     private PreferenceManager preferenceManager;
-    private VaultManager vaultManager;
-    private PaymentManager paymentManager;
+    private VaultRepository vaultRepository;
+    private PaymentRepository paymentRepository;
 
     private List<Vault> vaultList;
     private Vault selectedVault;
@@ -56,11 +61,10 @@ public class PaymentActivity extends AppCompatActivity {
         setupToolbar();
 
         preferenceManager = new PreferenceManager(this);
-        vaultManager = new VaultManager(this);
-        paymentManager = new PaymentManager(this);
+        vaultRepository = new VaultRepository(this);
+        paymentRepository = new PaymentRepository(this);
 
         loadVaults();
-        setupSpinner();
         setupClickListeners();
     }
 
@@ -86,7 +90,13 @@ public class PaymentActivity extends AppCompatActivity {
 
     private void loadVaults() {
         int userId = preferenceManager.getUserId();
-        vaultList = vaultManager.getUserVaults(userId);
+        vaultRepository.getUserVaults(userId, new RepositoryCallback<List<Vault>>() {
+            @Override
+            public void onResult(List<Vault> vaults) {
+                vaultList = vaults;
+                setupSpinner();
+            }
+        });
     }
 
     private void setupSpinner() {
@@ -128,11 +138,11 @@ public class PaymentActivity extends AppCompatActivity {
         if (selectedVault != null) {
             cvVaultInfo.setVisibility(View.VISIBLE);
 
-            tvVaultLimit.setText(String.format("Monthly Limit: ₹%.2f", selectedVault.getMonthlyLimit()));
-            tvVaultSpent.setText(String.format("Spent: ₹%.2f", selectedVault.getCurrentSpent()));
+            tvVaultLimit.setText("Monthly Limit: " + Money.format(selectedVault.getMonthlyLimit()));
+            tvVaultSpent.setText("Spent: " + Money.format(selectedVault.getCurrentSpent()));
 
-            double remaining = selectedVault.getRemainingBalance();
-            tvVaultRemaining.setText(String.format("Remaining: ₹%.2f", remaining));
+            long remaining = selectedVault.getRemainingBalance();
+            tvVaultRemaining.setText("Remaining: " + Money.format(remaining));
 
             // Change color based on remaining balance
             if (remaining <= 0) {
@@ -173,9 +183,9 @@ public class PaymentActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        long amount;
         try {
-            amount = Double.parseDouble(amountStr);
+            amount = Money.parse(amountStr);
             if (amount <= 0) {
                 etAmount.setError("Invalid amount");
                 etAmount.requestFocus();
@@ -200,7 +210,7 @@ public class PaymentActivity extends AppCompatActivity {
         }
     }
 
-    private void showEmergencyConfirmationDialog(final String merchantName, final double amount, final String description) {
+    private void showEmergencyConfirmationDialog(final String merchantName, final long amount, final String description) {
         new AlertDialog.Builder(this)
                 .setTitle(R.string.emergency_warning_title)
                 .setMessage(R.string.emergency_warning_message)
@@ -215,25 +225,71 @@ public class PaymentActivity extends AppCompatActivity {
                 .show();
     }
 
-    private void performPayment(String merchantName, double amount, String description) {
-        // Start foreground service for payment validation
-        Intent serviceIntent = new Intent(this, PaymentValidationService.class);
+    private void performPayment(final String merchantName, final long amount, final String description) {
+        // Foreground notification for as long as the payment is being worked on
+        final Intent serviceIntent = new Intent(this, PaymentValidationService.class);
         serviceIntent.putExtra("merchant_name", merchantName);
         serviceIntent.putExtra("amount", amount);
         startService(serviceIntent);
 
-        // Process payment
-        Transaction transaction = paymentManager.processPayment(
-                selectedVault.getVaultId(),
-                merchantName,
-                amount,
-                description
-        );
+        // Prevent double submission while the payment is in flight
+        btnPayNow.setEnabled(false);
+
+        final int vaultId = selectedVault.getVaultId();
+        paymentRepository.validatePayment(vaultId, merchantName, amount)
+                .thenAcceptAsync(new Consumer<PaymentManager.PaymentValidationResult>() {
+                    @Override
+                    public void accept(PaymentManager.PaymentValidationResult result) {
+                        // Don't start a payment for a screen the user has already left
+                        if (!result.isValid() || isGone()) {
+                            stopService(serviceIntent);
+                            if (!isGone()) {
+                                btnPayNow.setEnabled(true);
+                                Toast.makeText(PaymentActivity.this, result.getMessage(),
+                                        Toast.LENGTH_SHORT).show();
+                            }
+                            return;
+                        }
+
+                        // Process payment on the writer thread
+                        paymentRepository.processPayment(
+                                vaultId,
+                                merchantName,
+                                amount,
+                                description,
+                                new RepositoryCallback<Transaction>() {
+                                    @Override
+                                    public void onResult(Transaction transaction) {
+                                        stopService(serviceIntent);
+                                        if (!isGone()) {
+                                            showPaymentResult(transaction);
+                                        }
+                                    }
+
+                                    @Override
+                                    public void onError(Exception error) {
+                                        stopService(serviceIntent);
+                                        if (!isGone()) {
+                                            btnPayNow.setEnabled(true);
+                                            Toast.makeText(PaymentActivity.this, R.string.error_payment_failed,
+                                                    Toast.LENGTH_SHORT).show();
+                                        }
+                                    }
+                                });
+                    }
+                }, AppExecutors.getInstance().mainThread());
+    }
+
+    /**
+     * True once the activity is finishing or destroyed and its views must not be touched
+     */
+    private boolean isGone() {
+        return isFinishing() || isDestroyed();
+    }
 
-        // Stop foreground service
-        stopService(serviceIntent);
+    private void showPaymentResult(Transaction transaction) {
+        btnPayNow.setEnabled(true);
 
-        // Show result
         if (transaction.getStatus().equals(Constants.TRANSACTION_STATUS_SUCCESS)) {
             Toast.makeText(this, getString(R.string.payment_success), Toast.LENGTH_SHORT).show();
             finish();
@@ -15,8 +15,9 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.paywise.R;
-import com.example.paywise.database.UserDao;
 import com.example.paywise.models.User;
+import com.example.paywise.repository.RepositoryCallback;
+import com.example.paywise.repository.UserRepository;
 import com.example.paywise.utils.Constants;
 import com.example.paywise.utils.DateUtils;
 import com.example.paywise.utils.ImageUtils;
@@ -32,7 +33,7 @@ public class ProfileSetupActivity extends AppCompatActivity {
     private Uri selectedImageUri;
     private String savedImagePath;
     private PreferenceManager preferenceManager;
-    private UserDao userDao;
+    private UserRepository userRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -41,7 +42,7 @@ public class ProfileSetupActivity extends AppCompatActivity {
 
         initializeViews();
         preferenceManager = new PreferenceManager(this);
-        userDao = new UserDao(this);
+        userRepository = new UserRepository(this);
 
         setupClickListeners();
     }
@@ -100,7 +101,7 @@ public class ProfileSetupActivity extends AppCompatActivity {
     }
 
     private void validateAndSaveProfile() {
-        String fullName = etFullName.getText().toString().trim();
+        final String fullName = etFullName.getText().toString().trim();
         String email = etEmail.getText().toString().trim();
         String phone = etPhone.getText().toString().trim();
 
@@ -137,8 +138,23 @@ public class ProfileSetupActivity extends AppCompatActivity {
         );
 
         // Insert user into database
-        long userId = userDao.insertUser(user);
+        btnContinue.setEnabled(false);
+        userRepository.insertUser(user, new RepositoryCallback<Long>() {
+            @Override
+            public void onResult(Long userId) {
+                btnContinue.setEnabled(true);
+                onProfileSaved(userId, fullName);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                btnContinue.setEnabled(true);
+                Toast.makeText(ProfileSetupActivity.this, "Failed to create profile", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 
+    private void onProfileSaved(long userId, String fullName) {
         if (userId != -1) {
             preferenceManager.saveUserId((int) userId);
             preferenceManager.saveUserName(fullName);
@@ -10,8 +10,9 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.paywise.R;
 import com.example.paywise.adapters.TransactionAdapter;
-import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.TransactionPagingSource;
 import com.example.paywise.models.Transaction;
+import com.example.paywise.repository.TransactionRepository;
 import com.example.paywise.utils.Constants;
 import com.example.paywise.utils.PreferenceManager;
 import java.util.ArrayList;
@@ -23,12 +24,13 @@ public class TransactionHistoryActivity extends AppCompatActivity {
     private RecyclerView rvTransactions;
     private TextView tvEmptyState;
 
-    private TransactionDao transactionDao;
+    private TransactionRepository transactionRepository;
     private TransactionAdapter transactionAdapter;
     private PreferenceManager preferenceManager;
 
     private List<Transaction> transactionList;
     private int vaultId = -1;
+    private boolean fullHistory;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,12 +41,14 @@ public class TransactionHistoryActivity extends AppCompatActivity {
         setupToolbar();
 
         preferenceManager = new PreferenceManager(this);
-        transactionDao = new TransactionDao(this);
+        transactionRepository = new TransactionRepository(this);
 
         // Check if specific vault ID was passed
         if (getIntent().hasExtra(Constants.EXTRA_VAULT_ID)) {
             vaultId = getIntent().getIntExtra(Constants.EXTRA_VAULT_ID, -1);
         }
+        // Archived failed and pending payments are only shown when asked for
+        fullHistory = getIntent().getBooleanExtra(Constants.EXTRA_FULL_HISTORY, false);
 
         setupRecyclerView();
         loadTransactions();
@@ -74,22 +78,21 @@ public class TransactionHistoryActivity extends AppCompatActivity {
     private void loadTransactions() {
         int userId = preferenceManager.getUserId();
 
-        if (vaultId != -1) {
-            // Load transactions for specific vault
-            transactionList = transactionDao.getTransactionsByVault(vaultId);
-        } else {
-            // Load all transactions for user
-            transactionList = transactionDao.getAllTransactionsByUser(userId);
-        }
-
-        if (transactionList.isEmpty()) {
-            tvEmptyState.setVisibility(View.VISIBLE);
-            rvTransactions.setVisibility(View.GONE);
-        } else {
-            tvEmptyState.setVisibility(View.GONE);
-            rvTransactions.setVisibility(View.VISIBLE);
-            transactionAdapter.updateTransactions(transactionList);
-        }
+        // vaultId == -1 pages all transactions for the user
+        TransactionPagingSource pagingSource = transactionRepository.createPagingSource(userId, vaultId, fullHistory);
+
+        transactionAdapter.setPagingSource(pagingSource, new TransactionAdapter.OnPageLoadedListener() {
+            @Override
+            public void onPageLoaded(int itemCount, boolean endReached) {
+                if (itemCount == 0) {
+                    tvEmptyState.setVisibility(View.VISIBLE);
+                    rvTransactions.setVisibility(View.GONE);
+                } else {
+                    tvEmptyState.setVisibility(View.GONE);
+                    rvTransactions.setVisibility(View.VISIBLE);
+                }
+            }
+        });
     }
 
     @Override
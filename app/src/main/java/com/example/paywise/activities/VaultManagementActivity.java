@@ -12,8 +12,10 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import com.example.paywise.R;
-import com.example.paywise.managers.VaultManager;
+import com.example.paywise.repository.RepositoryCallback;
+import com.example.paywise.repository.VaultRepository;
 import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.Money;
 import com.example.paywise.utils.PreferenceManager;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -25,7 +27,7 @@ public class VaultManagementActivity extends AppCompatActivity {
     private Button btnSaveVault;
 
     private PreferenceManager preferenceManager;
-    private VaultManager vaultManager;
+    private VaultRepository vaultRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,7 +38,7 @@ public class VaultManagementActivity extends AppCompatActivity {
         setupToolbar();
 
         preferenceManager = new PreferenceManager(this);
-        vaultManager = new VaultManager(this);
+        vaultRepository = new VaultRepository(this);
 
         setupSpinner();
         setupClickListeners();
@@ -104,9 +106,9 @@ public class VaultManagementActivity extends AppCompatActivity {
             return;
         }
 
-        double monthlyLimit;
+        long monthlyLimit;
         try {
-            monthlyLimit = Double.parseDouble(monthlyLimitStr);
+            monthlyLimit = Money.parse(monthlyLimitStr);
             if (monthlyLimit <= 0) {
                 etMonthlyLimit.setError(getString(R.string.error_invalid_limit));
                 etMonthlyLimit.requestFocus();
@@ -123,8 +125,25 @@ public class VaultManagementActivity extends AppCompatActivity {
 
         // Save vault
         int userId = preferenceManager.getUserId();
-        long vaultId = vaultManager.createVault(userId, vaultName, vaultType, monthlyLimit, vaultColor);
+        btnSaveVault.setEnabled(false);
+        vaultRepository.createVault(userId, vaultName, vaultType, monthlyLimit, vaultColor,
+                new RepositoryCallback<Long>() {
+                    @Override
+                    public void onResult(Long vaultId) {
+                        btnSaveVault.setEnabled(true);
+                        onVaultSaved(vaultId);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        btnSaveVault.setEnabled(true);
+                        Toast.makeText(VaultManagementActivity.this, "Failed to create vault",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
 
+    private void onVaultSaved(long vaultId) {
         if (vaultId == -2) {
             Toast.makeText(this, "Vault type already exists", Toast.LENGTH_SHORT).show();
         } else if (vaultId != -1) {
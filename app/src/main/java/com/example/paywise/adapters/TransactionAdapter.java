@@ -6,25 +6,64 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.paywise.R;
-import com.example.paywise.database.VaultDao;
+import com.example.paywise.database.TransactionPagingSource;
+import com.example.paywise.database.VaultNameCache;
 import com.example.paywise.models.Transaction;
-import com.example.paywise.models.Vault;
 import com.example.paywise.utils.Constants;
 import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
+import com.example.paywise.utils.Money;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.TransactionViewHolder> {
+public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.TransactionViewHolder>
+        implements TransactionPagingSource.PageCallback {
+
+    private static final LatencyHistogram BIND = Metrics.histogram("ui.transaction.bind");
 
     private Context context;
-    private List<Transaction> transactionList;
-    private VaultDao vaultDao;
+    private AsyncListDiffer<Transaction> differ;
+    private TransactionPagingSource pagingSource;
+    private OnPageLoadedListener pageLoadedListener;
+    // Every page loaded from pagingSource, in order. The differ's current list
+    // can lag behind while a diff is running, so pages are appended here.
+    private final List<Transaction> pagedItems = new ArrayList<>();
+
+    /**
+     * Transactions are the same item when their IDs match, and need a rebind
+     * only when a displayed field changed
+     */
+    private static final DiffUtil.ItemCallback<Transaction> DIFF_CALLBACK = new DiffUtil.ItemCallback<Transaction>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Transaction oldItem, @NonNull Transaction newItem) {
+            return oldItem.getTransactionId() == newItem.getTransactionId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Transaction oldItem, @NonNull Transaction newItem) {
+            return oldItem.getVaultId() == newItem.getVaultId()
+                    && oldItem.getAmount() == newItem.getAmount()
+                    && oldItem.getTransactionDate() == newItem.getTransactionDate()
+                    && Objects.equals(oldItem.getMerchantName(), newItem.getMerchantName())
+                    && Objects.equals(oldItem.getTransactionType(), newItem.getTransactionType())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+
+    public interface OnPageLoadedListener {
+        void onPageLoaded(int itemCount, boolean endReached);
+    }
 
     public TransactionAdapter(Context context, List<Transaction> transactionList) {
         this.context = context;
-        this.transactionList = transactionList;
-        this.vaultDao = new VaultDao(context);
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        differ.submitList(new ArrayList<>(transactionList));
     }
 
     @NonNull
@@ -36,19 +75,23 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position) {
-        Transaction transaction = transactionList.get(position);
+        long started = Metrics.now();
+        Transaction transaction = differ.getCurrentList().get(position);
+
+        // Pull the next page before the user reaches the end of the list
+        if (pagingSource != null && position >= getItemCount() - Constants.TRANSACTION_PREFETCH_DISTANCE) {
+            pagingSource.loadNextPage(this);
+        }
 
         // Set merchant name
         holder.tvMerchantName.setText(transaction.getMerchantName());
 
-        // Get and set vault name
-        Vault vault = vaultDao.getVaultById(transaction.getVaultId());
-        if (vault != null) {
-            holder.tvVaultName.setText(vault.getVaultName());
-        }
+        // Set vault name from the in-memory cache (no query per row)
+        String vaultName = VaultNameCache.getVaultName(transaction.getVaultId());
+        holder.tvVaultName.setText(vaultName != null ? vaultName : "");
 
-        // Format and set transaction date
-        String formattedDate = DateUtils.formatDateForDisplay(transaction.getTransactionDate());
+        // Format and set transaction date (cached per day, no formatter allocation per row)
+        String formattedDate = DateUtils.formatRelativeDateForDisplay(transaction.getTransactionDate());
         holder.tvTransactionDate.setText(formattedDate);
 
         // Set amount with appropriate sign
@@ -56,10 +99,10 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
         int amountColor;
 
         if (transaction.getTransactionType().equals(Constants.TRANSACTION_TYPE_DEBIT)) {
-            amountText = String.format("- ₹%.2f", transaction.getAmount());
+            amountText = "- " + Money.format(transaction.getAmount());
             amountColor = context.getResources().getColor(R.color.statusFailed);
         } else {
-            amountText = String.format("+ ₹%.2f", transaction.getAmount());
+            amountText = "+ " + Money.format(transaction.getAmount());
             amountColor = context.getResources().getColor(R.color.statusSuccess);
         }
 
@@ -85,16 +128,50 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
                 statusColor = context.getResources().getColor(R.color.textSecondary);
         }
         holder.tvStatus.setTextColor(statusColor);
+        BIND.recordSince(started);
     }
 
     @Override
     public int getItemCount() {
-        return transactionList.size();
+        return differ.getCurrentList().size();
     }
 
+    /**
+     * Diff the new list against the current one on a background thread and
+     * dispatch only the changed rows. Pass a new list instance each time.
+     */
     public void updateTransactions(List<Transaction> newTransactionList) {
-        this.transactionList = newTransactionList;
-        notifyDataSetChanged();
+        differ.submitList(newTransactionList);
+    }
+
+    /**
+     * Page the list from a source instead of a fully loaded list.
+     * Clears the current items and loads the first page.
+     */
+    public void setPagingSource(TransactionPagingSource pagingSource, OnPageLoadedListener listener) {
+        this.pagingSource = pagingSource;
+        this.pageLoadedListener = listener;
+        pagedItems.clear();
+        differ.submitList(null);
+
+        pagingSource.reset();
+        pagingSource.loadNextPage(this);
+    }
+
+    @Override
+    public void onPageLoaded(List<Transaction> page, boolean isFirstPage, boolean endReached) {
+        pagedItems.addAll(page);
+        final List<Transaction> combined = new ArrayList<>(pagedItems);
+
+        final boolean reachedEnd = endReached;
+        differ.submitList(combined, new Runnable() {
+            @Override
+            public void run() {
+                if (pageLoadedListener != null) {
+                    pageLoadedListener.onPageLoaded(combined.size(), reachedEnd);
+                }
+            }
+        });
     }
 
     static class TransactionViewHolder extends RecyclerView.ViewHolder {
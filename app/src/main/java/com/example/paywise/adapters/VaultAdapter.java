@@ -9,18 +9,44 @@ import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.paywise.R;
 import com.example.paywise.models.Vault;
 import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.Money;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class VaultAdapter extends RecyclerView.Adapter<VaultAdapter.VaultViewHolder> {
 
     private Context context;
-    private List<Vault> vaultList;
+    private AsyncListDiffer<Vault> differ;
     private OnVaultClickListener listener;
 
+    /**
+     * Vaults are the same item when their IDs match, and need a rebind only
+     * when a displayed field changed
+     */
+    private static final DiffUtil.ItemCallback<Vault> DIFF_CALLBACK = new DiffUtil.ItemCallback<Vault>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Vault oldItem, @NonNull Vault newItem) {
+            return oldItem.getVaultId() == newItem.getVaultId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Vault oldItem, @NonNull Vault newItem) {
+            return oldItem.getMonthlyLimit() == newItem.getMonthlyLimit()
+                    && oldItem.getCurrentSpent() == newItem.getCurrentSpent()
+                    && oldItem.isActive() == newItem.isActive()
+                    && Objects.equals(oldItem.getVaultName(), newItem.getVaultName())
+                    && Objects.equals(oldItem.getVaultType(), newItem.getVaultType())
+                    && Objects.equals(oldItem.getVaultColor(), newItem.getVaultColor());
+        }
+    };
+
     public interface OnVaultClickListener {
         void onVaultClick(Vault vault);
         void onVaultLongClick(Vault vault);
@@ -28,8 +54,9 @@ public class VaultAdapter extends RecyclerView.Adapter<VaultAdapter.VaultViewHol
 
     public VaultAdapter(Context context, List<Vault> vaultList, OnVaultClickListener listener) {
         this.context = context;
-        this.vaultList = vaultList;
         this.listener = listener;
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        differ.submitList(new ArrayList<>(vaultList));
     }
 
     @NonNull
@@ -41,14 +68,14 @@ public class VaultAdapter extends RecyclerView.Adapter<VaultAdapter.VaultViewHol
 
     @Override
     public void onBindViewHolder(@NonNull VaultViewHolder holder, int position) {
-        Vault vault = vaultList.get(position);
+        Vault vault = differ.getCurrentList().get(position);
 
         // Set vault name
         holder.tvVaultName.setText(vault.getVaultName());
 
         // Set spent and limit
-        holder.tvVaultSpent.setText(String.format("₹%.0f", vault.getCurrentSpent()));
-        holder.tvVaultLimit.setText(String.format("₹%.0f", vault.getMonthlyLimit()));
+        holder.tvVaultSpent.setText(Money.formatWhole(vault.getCurrentSpent()));
+        holder.tvVaultLimit.setText(Money.formatWhole(vault.getMonthlyLimit()));
 
         // Set progress bar
         int percentage = vault.getSpendingPercentage();
@@ -89,12 +116,15 @@ public class VaultAdapter extends RecyclerView.Adapter<VaultAdapter.VaultViewHol
 
     @Override
     public int getItemCount() {
-        return vaultList.size();
+        return differ.getCurrentList().size();
     }
 
+    /**
+     * Diff the new list against the current one on a background thread and
+     * dispatch only the changed rows. Pass a new list instance each time.
+     */
     public void updateVaults(List<Vault> newVaultList) {
-        this.vaultList = newVaultList;
-        notifyDataSetChanged();
+        differ.submitList(newVaultList);
     }
 
     private void setVaultIcon(ImageView imageView, String vaultType) {
@@ -0,0 +1,81 @@
+package com.example.paywise.database;
+
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
+
+/**
+ * Times DAO methods into their histograms:
+ *
+ * <pre>
+ * return DaoTimer.time(GET_VAULT_BY_ID, () -> { ...query... });
+ * </pre>
+ *
+ * Only the outermost DAO call on a thread is recorded. A DAO method built on
+ * another one (resetAllVaultsOnce on resetAllVaults, getTotalSpentByVault on
+ * SpendTotalsDao) is counted once, under its own name, so nested calls do not
+ * add samples to the inner method's percentiles.
+ */
+final class DaoTimer {
+
+    interface Call<T> {
+        T run();
+    }
+
+    interface IntCall {
+        int run();
+    }
+
+    interface LongCall {
+        long run();
+    }
+
+    // DAO calls in progress on this thread
+    private static final ThreadLocal<int[]> DEPTH = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    private DaoTimer() {}
+
+    static <T> T time(LatencyHistogram histogram, Call<T> call) {
+        int[] depth = DEPTH.get();
+        long started = enter(depth);
+        try {
+            return call.run();
+        } finally {
+            exit(depth, histogram, started);
+        }
+    }
+
+    static int timeInt(LatencyHistogram histogram, IntCall call) {
+        int[] depth = DEPTH.get();
+        long started = enter(depth);
+        try {
+            return call.run();
+        } finally {
+            exit(depth, histogram, started);
+        }
+    }
+
+    static long timeLong(LatencyHistogram histogram, LongCall call) {
+        int[] depth = DEPTH.get();
+        long started = enter(depth);
+        try {
+            return call.run();
+        } finally {
+            exit(depth, histogram, started);
+        }
+    }
+
+    private static long enter(int[] depth) {
+        return depth[0]++ == 0 ? Metrics.now() : 0;
+    }
+
+    private static void exit(int[] depth, LatencyHistogram histogram, long started) {
+        if (--depth[0] == 0) {
+            histogram.recordSince(started);
+        }
+    }
+}
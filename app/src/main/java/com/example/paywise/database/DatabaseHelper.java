@@ -1,112 +1,122 @@
 package com.example.paywise.database;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
 import com.example.paywise.utils.Constants;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     private static final String TAG = "DB_CHECK";
 
-    // Constructor
-    public DatabaseHelper(Context context) {
-        super(context, Constants.DATABASE_NAME, null, Constants.DATABASE_VERSION);
+    // Pragmas reported by getPragmaState()
+    private static final String[] REPORTED_PRAGMAS = {
+            "journal_mode", "synchronous", "cache_size", "mmap_size",
+            "temp_store", "page_size", "page_count", "freelist_count",
+            "wal_autocheckpoint", "foreign_keys", "auto_vacuum"
+    };
+
+    static final String AUTO_VACUUM_INCREMENTAL = "2";
+
+    private final StorageProfile storageProfile;
+
+    // Constructor - use DatabaseManager.getInstance() instead of creating helpers directly
+    DatabaseHelper(Context context, StorageProfile storageProfile) {
+        this(context, Constants.DATABASE_NAME, storageProfile);
+    }
+
+    // Helper for a database file other than the app's own (e.g. migration tests)
+    DatabaseHelper(Context context, String name, StorageProfile storageProfile) {
+        super(context, name, null, Constants.DATABASE_VERSION);
+        this.storageProfile = storageProfile;
+        setWriteAheadLoggingEnabled(storageProfile.isWalEnabled());
 
         // 🔍 DEBUG: Confirm DB path
         Log.d(TAG, "DB path = " +
-                context.getDatabasePath(Constants.DATABASE_NAME).getAbsolutePath());
+                context.getDatabasePath(name).getAbsolutePath());
     }
 
     @Override
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
-        // Enable foreign key constraints
-        db.setForeignKeyConstraintsEnabled(true);
+
+        // Storage profile (applies to the primary connection, which serves all writes)
+        setPragma(db, "synchronous", storageProfile.getSynchronous());
+        // Negative cache_size is in KiB rather than pages
+        setPragma(db, "cache_size", String.valueOf(-storageProfile.getCacheSizeKb()));
+        setPragma(db, "mmap_size", String.valueOf(storageProfile.getMmapSizeBytes()));
+        setPragma(db, "temp_store", storageProfile.getTempStore());
+        // Lets ServiceLogRetention hand freed pages back to the file system. Takes
+        // effect on a new database; existing files are converted once by a VACUUM.
+        setPragma(db, "auto_vacuum", AUTO_VACUUM_INCREMENTAL);
+    }
+
+    /**
+     * Storage profile this helper was configured with
+     */
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+
+    /**
+     * Read back the current pragma values of a connection
+     * @param db Open database
+     * @return pragma name to value, in a stable order
+     */
+    public static Map<String, String> getPragmaState(SQLiteDatabase db) {
+        Map<String, String> state = new LinkedHashMap<>();
+        for (String pragma : REPORTED_PRAGMAS) {
+            Cursor cursor = db.rawQuery("PRAGMA " + pragma, null);
+            String value = null;
+            if (cursor != null) {
+                if (cursor.moveToFirst()) {
+                    value = cursor.getString(0);
+                }
+                cursor.close();
+            }
+            state.put(pragma, value);
+        }
+        return state;
+    }
+
+    /**
+     * Set a pragma through rawQuery, since some pragmas (e.g. mmap_size)
+     * return a row and are rejected by execSQL
+     */
+    static void setPragma(SQLiteDatabase db, String pragma, String value) {
+        Cursor cursor = db.rawQuery("PRAGMA " + pragma + " = " + value, null);
+        if (cursor != null) {
+            cursor.moveToFirst();
+            cursor.close();
+        }
     }
 
     @Override
-    public void onCreate(SQLiteDatabase db) {
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Enable foreign key constraints. Done here rather than in onConfigure so that
+        // table rebuilds in onUpgrade (drop + rename) do not cascade-delete child rows.
+        if (!db.isReadOnly()) {
+            db.setForeignKeyConstraintsEnabled(true);
+        }
+    }
 
-        // USERS TABLE
-        String CREATE_USERS_TABLE =
-                "CREATE TABLE " + Constants.TABLE_USERS + " (" +
-                        "user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "full_name TEXT NOT NULL, " +
-                        "email TEXT, " +
-                        "phone TEXT NOT NULL, " +
-                        "profile_image_path TEXT, " +
-                        "created_at TEXT NOT NULL, " +
-                        "updated_at TEXT NOT NULL" +
-                        ")";
-        db.execSQL(CREATE_USERS_TABLE);
-
-        // VAULTS TABLE
-        String CREATE_VAULTS_TABLE =
-                "CREATE TABLE " + Constants.TABLE_VAULTS + " (" +
-                        "vault_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "user_id INTEGER NOT NULL, " +
-                        "vault_name TEXT NOT NULL, " +
-                        "vault_type TEXT NOT NULL CHECK(vault_type IN " +
-                        "('Food','Travel','Lifestyle','Business','Emergency')), " +
-                        "monthly_limit REAL NOT NULL, " +
-                        "current_spent REAL DEFAULT 0, " +
-                        "vault_color TEXT NOT NULL, " +
-                        "is_active INTEGER DEFAULT 1, " +
-                        "created_at TEXT NOT NULL, " +
-                        "reset_date TEXT NOT NULL, " +
-                        "FOREIGN KEY(user_id) REFERENCES " +
-                        Constants.TABLE_USERS + "(user_id) ON DELETE CASCADE" +
-                        ")";
-        db.execSQL(CREATE_VAULTS_TABLE);
-
-        // TRANSACTIONS TABLE
-        String CREATE_TRANSACTIONS_TABLE =
-                "CREATE TABLE " + Constants.TABLE_TRANSACTIONS + " (" +
-                        "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "vault_id INTEGER NOT NULL, " +
-                        "merchant_name TEXT NOT NULL, " +
-                        "amount REAL NOT NULL, " +
-                        "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
-                        "description TEXT, " +
-                        "transaction_date TEXT NOT NULL, " +
-                        "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
-                        "FOREIGN KEY(vault_id) REFERENCES " +
-                        Constants.TABLE_VAULTS + "(vault_id) ON DELETE CASCADE" +
-                        ")";
-        db.execSQL(CREATE_TRANSACTIONS_TABLE);
-
-        // SERVICE LOGS TABLE
-        String CREATE_SERVICE_LOGS_TABLE =
-                "CREATE TABLE " + Constants.TABLE_SERVICE_LOGS + " (" +
-                        "log_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                        "service_name TEXT NOT NULL, " +
-                        "action_type TEXT NOT NULL, " +
-                        "message TEXT, " +
-                        "timestamp TEXT NOT NULL" +
-                        ")";
-        db.execSQL(CREATE_SERVICE_LOGS_TABLE);
-
-        // INDEXES
-        db.execSQL("CREATE INDEX idx_vault_user ON " +
-                Constants.TABLE_VAULTS + "(user_id)");
-        db.execSQL("CREATE INDEX idx_transaction_vault ON " +
-                Constants.TABLE_TRANSACTIONS + "(vault_id)");
-        db.execSQL("CREATE INDEX idx_transaction_date ON " +
-                Constants.TABLE_TRANSACTIONS + "(transaction_date)");
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        Migrations.execAll(db, Schema.createAll());
 
         Log.d(TAG, "All tables created successfully");
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_SERVICE_LOGS);
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_TRANSACTIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_VAULTS);
-        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_USERS);
-
-        onCreate(db);
+        // Ordered, incremental steps; user data is never dropped
+        Migrations.migrate(db, oldVersion, newVersion);
     }
 }
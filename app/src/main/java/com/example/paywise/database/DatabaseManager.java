@@ -0,0 +1,151 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import com.example.paywise.utils.AppExecutors;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.Metrics;
+import java.util.Map;
+
+/**
+ * Process-wide owner of the PayWise database.
+ * All DAOs share the single DatabaseHelper held here, so the app keeps one
+ * primary (writer) connection to paywise.db and lets SQLite's connection pool
+ * hand out reader connections, instead of every DAO opening its own helper.
+ * The database runs with the {@link StorageProfile} default profile (WAL) and
+ * a {@link WalCheckpointScheduler} while it is open. Service logs are written
+ * in batches through the shared {@link ServiceLogWriter}.
+ *
+ * Lifecycle: {@link #initialize(Context)} is called from the Application,
+ * {@link #open()} / {@link #close()} are reference counted so a component that
+ * needs the database to stay open can hold it explicitly.
+ */
+public class DatabaseManager {
+
+    private static final String TAG = "DB_CHECK";
+
+    private static DatabaseManager instance;
+
+    private final DatabaseHelper dbHelper;
+    private final WalCheckpointScheduler checkpointScheduler;
+    private final ServiceLogWriter serviceLogWriter;
+    private int openCount;
+
+    private DatabaseManager(Context context) {
+        // Always hold the application context so no Activity is leaked
+        Context appContext = context.getApplicationContext();
+        StorageProfile profile = StorageProfile.defaultProfile();
+
+        dbHelper = new DatabaseHelper(appContext, profile);
+        checkpointScheduler = new WalCheckpointScheduler(dbHelper,
+                appContext.getDatabasePath(Constants.DATABASE_NAME), profile);
+        serviceLogWriter = new ServiceLogWriter(dbHelper, AppExecutors.getInstance().writeIO());
+
+        Metrics.gauge("log.queued", new Metrics.Gauge() {
+            @Override
+            public long getValue() {
+                return serviceLogWriter.getQueuedCount();
+            }
+        });
+        Metrics.gauge("log.dropped", new Metrics.Gauge() {
+            @Override
+            public long getValue() {
+                return serviceLogWriter.getDroppedCount();
+            }
+        });
+    }
+
+    /**
+     * Create the shared instance. Safe to call more than once.
+     * @param context Any context, the application context is retained
+     */
+    public static synchronized void initialize(Context context) {
+        if (instance == null) {
+            instance = new DatabaseManager(context);
+        }
+    }
+
+    /**
+     * Get the shared instance, initializing it on first use
+     * @param context Any context, the application context is retained
+     * @return DatabaseManager singleton
+     */
+    public static synchronized DatabaseManager getInstance(Context context) {
+        initialize(context);
+        return instance;
+    }
+
+    /**
+     * Shared helper used by all DAOs
+     */
+    public DatabaseHelper getHelper() {
+        return dbHelper;
+    }
+
+    /**
+     * Open the database and keep it open until the matching {@link #close()}
+     * @return Writable database
+     */
+    public synchronized SQLiteDatabase open() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        if (openCount++ == 0) {
+            checkpointScheduler.start();
+        }
+        return db;
+    }
+
+    /**
+     * Release one reference taken by {@link #open()}.
+     * The underlying connections are closed once the last reference is released.
+     */
+    public synchronized void close() {
+        if (openCount == 0) {
+            Log.w(TAG, "close() called without matching open()");
+            return;
+        }
+        openCount--;
+        if (openCount == 0) {
+            checkpointScheduler.stop();
+            serviceLogWriter.flush();
+            dbHelper.close();
+            Log.d(TAG, "Database connections closed");
+        }
+    }
+
+    /**
+     * Writer connection shared by all mutations
+     */
+    public SQLiteDatabase getWritableDatabase() {
+        return dbHelper.getWritableDatabase();
+    }
+
+    /**
+     * Database handle for queries, served from the reader connection pool
+     */
+    public SQLiteDatabase getReadableDatabase() {
+        return dbHelper.getReadableDatabase();
+    }
+
+    /**
+     * Report the pragma state of the writer connection (journal mode, sync level, caches...)
+     * @return pragma name to current value
+     */
+    public Map<String, String> getPragmaState() {
+        return DatabaseHelper.getPragmaState(dbHelper.getWritableDatabase());
+    }
+
+    /**
+     * Shared buffered writer for service_logs
+     */
+    public ServiceLogWriter getServiceLogWriter() {
+        return serviceLogWriter;
+    }
+
+    /**
+     * Scheduler that checkpoints the WAL in the background
+     */
+    public WalCheckpointScheduler getCheckpointScheduler() {
+        return checkpointScheduler;
+    }
+}
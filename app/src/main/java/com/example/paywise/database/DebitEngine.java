@@ -0,0 +1,218 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import com.example.paywise.models.PaymentRequest;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.DateUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies debits to vaults atomically.
+ * The balance check and the current_spent increment are one conditional UPDATE,
+ * and the ledger row is written in the same SQLite transaction, so concurrent
+ * payments can never overspend a vault or lose an update.
+ *
+ * current_spent only holds the current month: a batch payment dated in another
+ * month is written to the ledger without charging the vault, which is what
+ * SpendTotalsDao.reconcileCurrentSpent recomputes it from.
+ */
+public class DebitEngine {
+
+    static final String SQL_DEBIT_VAULT =
+            "UPDATE " + Constants.TABLE_VAULTS +
+                    " SET current_spent = current_spent + ?" +
+                    " WHERE vault_id = ? AND is_active = 1 AND monthly_limit - current_spent >= ?";
+
+    static final String SQL_INSERT_TRANSACTION =
+            "INSERT INTO " + Constants.TABLE_TRANSACTIONS +
+                    " (vault_id, merchant_name, amount, transaction_type, description, transaction_date, status)" +
+                    " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private DatabaseHelper dbHelper;
+
+    public DebitEngine(Context context) {
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
+    }
+
+    /**
+     * Debit a vault and record the ledger entry in one transaction
+     * @param vaultId Vault ID
+     * @param merchantName Merchant name
+     * @param amount Payment amount in paise
+     * @param description Optional description
+     * @param transactionDate Transaction timestamp in epoch millis
+     * @return Transaction with status success, or failed if the vault is missing,
+     *         inactive or has insufficient balance
+     * @throws SQLiteException if the ledger entry cannot be written; the debit is rolled back
+     */
+    public Transaction debit(int vaultId, String merchantName, long amount,
+                             String description, long transactionDate) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement debitStatement = db.compileStatement(SQL_DEBIT_VAULT);
+        SQLiteStatement insertStatement = db.compileStatement(SQL_INSERT_TRANSACTION);
+
+        db.beginTransactionNonExclusive();
+        try {
+            Transaction transaction = debit(db, debitStatement, insertStatement,
+                    vaultId, merchantName, amount, description, transactionDate, true);
+            db.setTransactionSuccessful();
+            return transaction;
+        } finally {
+            db.endTransaction();
+            debitStatement.close();
+            insertStatement.close();
+        }
+    }
+
+    /**
+     * Debit a list of payments, committing every chunkSize items as one transaction.
+     * The UPDATE and INSERT statements are compiled once and reused for every item.
+     * @param requests Payments to apply, in order
+     * @param chunkSize Number of payments per transaction
+     * @param defaultDate Timestamp (epoch millis) for requests without their own transaction date;
+     *                    requests dated outside its month are recorded without charging the vault
+     * @return One Transaction per request, in the same order
+     * @throws SQLiteException if a ledger entry cannot be written; its chunk is rolled back,
+     *         earlier chunks stay committed
+     */
+    public List<Transaction> debitAll(List<PaymentRequest> requests, int chunkSize, long defaultDate) {
+        List<Transaction> results = new ArrayList<>(requests.size());
+        if (requests.isEmpty()) {
+            return results;
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement debitStatement = db.compileStatement(SQL_DEBIT_VAULT);
+        SQLiteStatement insertStatement = db.compileStatement(SQL_INSERT_TRANSACTION);
+
+        try {
+            int size = requests.size();
+            for (int start = 0; start < size; start += chunkSize) {
+                int end = Math.min(start + chunkSize, size);
+
+                db.beginTransactionNonExclusive();
+                try {
+                    for (int i = start; i < end; i++) {
+                        PaymentRequest request = requests.get(i);
+                        long date = request.getTransactionDate() != 0
+                                ? request.getTransactionDate() : defaultDate;
+                        results.add(debit(db, debitStatement, insertStatement,
+                                request.getVaultId(), request.getMerchantName(),
+                                request.getAmount(), request.getDescription(), date,
+                                chargesVault(date, defaultDate)));
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            debitStatement.close();
+            insertStatement.close();
+        }
+
+        return results;
+    }
+
+    /**
+     * Whether a payment dated transactionDate, processed at now, is charged to
+     * the vault's current_spent, i.e. falls in the current month
+     */
+    public static boolean chargesVault(long transactionDate, long now) {
+        return transactionDate >= DateUtils.getMonthStart(now)
+                && transactionDate < DateUtils.getNextMonthStart(now);
+    }
+
+    /**
+     * Debit using already compiled statements. Must be called inside a transaction.
+     * @param chargeVault false for a payment dated outside the current month: it is
+     *                    recorded if the vault is active, with no balance check and
+     *                    no change to current_spent
+     */
+    Transaction debit(SQLiteDatabase db, SQLiteStatement debitStatement, SQLiteStatement insertStatement,
+                      int vaultId, String merchantName, long amount,
+                      String description, long transactionDate, boolean chargeVault) {
+        boolean debited = false;
+        boolean succeeded;
+        if (chargeVault) {
+            // Balance check and increment in a single statement
+            debitStatement.clearBindings();
+            debitStatement.bindLong(1, amount);
+            debitStatement.bindLong(2, vaultId);
+            debitStatement.bindLong(3, amount);
+            debited = debitStatement.executeUpdateDelete() == 1;
+            succeeded = debited;
+        } else {
+            succeeded = isVaultActive(db, vaultId);
+        }
+
+        String status = succeeded ? Constants.TRANSACTION_STATUS_SUCCESS : Constants.TRANSACTION_STATUS_FAILED;
+        if (!succeeded && (!chargeVault || !isVaultActive(db, vaultId))) {
+            String reason = "Vault not found or inactive";
+            description = description != null ? description + " (Failed: " + reason + ")" : "Failed: " + reason;
+        }
+
+        Transaction transaction = new Transaction(
+                vaultId,
+                merchantName,
+                amount,
+                Constants.TRANSACTION_TYPE_DEBIT,
+                description,
+                transactionDate,
+                status
+        );
+
+        insertStatement.clearBindings();
+        insertStatement.bindLong(1, vaultId);
+        insertStatement.bindString(2, merchantName);
+        insertStatement.bindLong(3, amount);
+        insertStatement.bindString(4, Constants.TRANSACTION_TYPE_DEBIT);
+        if (description != null) {
+            insertStatement.bindString(5, description);
+        } else {
+            insertStatement.bindNull(5);
+        }
+        insertStatement.bindLong(6, transactionDate);
+        insertStatement.bindString(7, status);
+
+        long transactionId;
+        try {
+            transactionId = insertStatement.executeInsert();
+        } catch (SQLiteException e) {
+            if (debited) {
+                // The vault is already charged: fail the whole transaction so it rolls back
+                throw e;
+            }
+            // Nothing was charged, e.g. foreign key violation for an unknown vault
+            transactionId = -1;
+        }
+        transaction.setTransactionId(Math.toIntExact(transactionId));
+
+        return transaction;
+    }
+
+    /**
+     * Only consulted when a debit is rejected, to tell a missing or inactive
+     * vault apart from an insufficient balance
+     */
+    private boolean isVaultActive(SQLiteDatabase db, int vaultId) {
+        Cursor cursor = db.rawQuery(
+                "SELECT is_active FROM " + Constants.TABLE_VAULTS + " WHERE vault_id = ?",
+                new String[]{String.valueOf(vaultId)});
+
+        boolean active = false;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                active = cursor.getInt(0) == 1;
+            }
+            cursor.close();
+        }
+        return active;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import java.io.Closeable;
+
+/**
+ * Bulk insert of imported statement rows.
+ * Rows go through one compiled INSERT OR IGNORE and are committed every
+ * batchSize rows, so an import of years of history is a handful of SQLite
+ * transactions. A row whose import_hash is already in the ledger is skipped by
+ * the unique index, which makes re-importing an overlapping statement a no-op.
+ *
+ * Imported rows are history: they feed the spend totals through the ledger
+ * triggers but do not change vaults.current_spent. Use on the writer thread.
+ */
+public class ImportWriter implements Closeable {
+
+    static final String SQL_INSERT_IMPORTED =
+            "INSERT OR IGNORE INTO " + Constants.TABLE_TRANSACTIONS +
+                    " (vault_id, merchant_name, amount, transaction_type, description, transaction_date," +
+                    " status, import_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final SQLiteDatabase db;
+    private final SQLiteStatement insertStatement;
+    private final int batchSize;
+
+    private int pending;
+    // A batch transaction is open; set before the first insert so a failing
+    // insert still leaves it to be ended by rollback()
+    private boolean inTransaction;
+    private long inserted;
+    private long duplicates;
+
+    /**
+     * @param context Context
+     * @param batchSize Rows per SQLite transaction, see Constants.IMPORT_BATCH_SIZE
+     */
+    public ImportWriter(Context context, int batchSize) {
+        this.db = DatabaseManager.getInstance(context).getHelper().getWritableDatabase();
+        this.insertStatement = db.compileStatement(SQL_INSERT_IMPORTED);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert a row unless one with the same hash was imported before
+     * @param transaction Row to insert; only read, so it may be reused by the caller
+     * @param importHash Content hash identifying the statement row
+     * @return true if inserted, false if it was a duplicate
+     */
+    public boolean add(Transaction transaction, long importHash) {
+        if (!inTransaction) {
+            db.beginTransactionNonExclusive();
+            inTransaction = true;
+        }
+
+        insertStatement.clearBindings();
+        insertStatement.bindLong(1, transaction.getVaultId());
+        insertStatement.bindString(2, transaction.getMerchantName());
+        insertStatement.bindLong(3, transaction.getAmount());
+        insertStatement.bindString(4, transaction.getTransactionType());
+        if (transaction.getDescription() != null) {
+            insertStatement.bindString(5, transaction.getDescription());
+        }
+        insertStatement.bindLong(6, transaction.getTransactionDate());
+        insertStatement.bindString(7, transaction.getStatus());
+        insertStatement.bindLong(8, importHash);
+        boolean added = insertStatement.executeInsert() != -1;
+
+        if (added) {
+            inserted++;
+        } else {
+            duplicates++;
+        }
+
+        if (++pending == batchSize) {
+            commit();
+        }
+        return added;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Commit the current batch
+     */
+    public void commit() {
+        if (inTransaction) {
+            db.setTransactionSuccessful();
+            endTransaction();
+        }
+    }
+
+    /**
+     * Roll back the rows added since the last commit
+     */
+    public void rollback() {
+        if (inTransaction) {
+            endTransaction();
+        }
+    }
+
+    private void endTransaction() {
+        inTransaction = false;
+        pending = 0;
+        db.endTransaction();
+    }
+
+    /**
+     * Commit the last batch and release the statement
+     */
+    @Override
+    public void close() {
+        try {
+            commit();
+        } finally {
+            insertStatement.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+/**
+ * One step of the schema history, upgrading the database from
+ * {@code version - 1} to {@code version}.
+ *
+ * Steps only change tables and their data. Indexes, triggers and the spend
+ * totals are derived from the current {@link Schema} and are recreated once by
+ * {@link Migrations} after the last step, so a step that rebuilds a table
+ * returns true from {@link #rebuildsTables()} instead of recreating them itself.
+ *
+ * A step must not depend on {@link Schema}, which always describes the latest
+ * version: table definitions used by a step are frozen in the step.
+ */
+abstract class Migration {
+
+    private static final String TAG = "DB_MIGRATION";
+
+    final int version;
+    final String description;
+
+    Migration(int version, String description) {
+        this.version = version;
+        this.description = description;
+    }
+
+    /**
+     * Apply the step. Called inside the upgrade's transaction.
+     */
+    abstract void migrate(SQLiteDatabase db);
+
+    /**
+     * Whether the step dropped or rebuilt tables, so derived objects
+     * (indexes, triggers, spend totals) have to be recreated afterwards
+     */
+    boolean rebuildsTables() {
+        return false;
+    }
+
+    /**
+     * Copy a table into a rebuilt copy with one INSERT ... SELECT. The upgrade
+     * is a single transaction (see {@link Migrations}), so splitting the copy
+     * into rowid ranges would only add statements, not commit points.
+     * @param db Database
+     * @param sourceTable Table to copy from
+     * @param targetTable Table to copy into
+     * @param targetColumns Column list of the target, e.g. "a, b, c"
+     * @param selectList Expressions over the source producing those columns
+     * @return number of rows copied
+     */
+    static long copyTable(SQLiteDatabase db, String sourceTable, String targetTable,
+                          String targetColumns, String selectList) {
+        db.execSQL("INSERT INTO " + targetTable + " (" + targetColumns + ") " +
+                "SELECT " + selectList + " FROM " + sourceTable);
+
+        long copied = queryLong(db, "SELECT COUNT(*) FROM " + targetTable);
+        Log.d(TAG, "Copied " + copied + " rows " + sourceTable + " -> " + targetTable);
+        return copied;
+    }
+
+    /**
+     * Swap a rebuilt table in for the original. Foreign keys are off while
+     * migrating (see DatabaseHelper.onOpen), so dropping a parent table does not cascade.
+     */
+    static void replaceTable(SQLiteDatabase db, String tableName, String rebuiltTableName) {
+        db.execSQL("DROP TABLE " + tableName);
+        db.execSQL("ALTER TABLE " + rebuiltTableName + " RENAME TO " + tableName);
+    }
+
+    static long queryLong(SQLiteDatabase db, String sql) {
+        long value = 0;
+        Cursor cursor = db.rawQuery(sql, null);
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                value = cursor.getLong(0);
+            }
+            cursor.close();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.paywise.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered schema history and the runner that applies it.
+ * All steps run in one transaction, which SQLiteOpenHelper already holds
+ * around onUpgrade: a failed upgrade leaves the database at its old version
+ * with nothing half-migrated. The upgrade runs when the writer thread first
+ * opens the database at startup, so it delays database work but never the
+ * UI thread. When any step rebuilt tables, the
+ * derived objects (indexes, triggers, spend totals) are recreated from
+ * {@link Schema} once at the end instead of after every step. Otherwise only
+ * the Schema indexes are ensured, so a step that just drops an index can leave
+ * its replacement to Schema.
+ *
+ * To change the schema: bump Constants.DATABASE_VERSION, update {@link Schema},
+ * and append a step here with the table changes frozen in it.
+ */
+final class Migrations {
+
+    private static final String TAG = "DB_MIGRATION";
+
+    private static final Migration[] STEPS = {
+            new SpendTotals(),
+            new IntegerMoney(),
+            new EpochMillisDates(),
+            new QueryIndexes(),
+            new TransactionsArchive(),
+            new ImportHash(),
+            new ResetRuns(),
+            new ServiceLogRetention(),
+    };
+
+    private Migrations() {}
+
+    /**
+     * Upgrade a database from one version to another
+     * @param db Database, opened with foreign keys disabled
+     * @param fromVersion Current version of the database
+     * @param toVersion Target version, normally Constants.DATABASE_VERSION
+     * @throws IllegalStateException if the history has no step for some version
+     */
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        long started = SystemClock.elapsedRealtime();
+        boolean rebuildDerived = false;
+
+        // Already inside SQLiteOpenHelper's transaction when called from onUpgrade,
+        // where this nests into it; the upgrade commits or rolls back as a whole
+        db.beginTransaction();
+        try {
+            for (int version = fromVersion + 1; version <= toVersion; version++) {
+                Migration step = get(version);
+                long stepStarted = SystemClock.elapsedRealtime();
+                step.migrate(db);
+                rebuildDerived |= step.rebuildsTables();
+                Log.d(TAG, "v" + version + " (" + step.description + ") took " +
+                        (SystemClock.elapsedRealtime() - stepStarted) + " ms");
+            }
+
+            long derivedStarted = SystemClock.elapsedRealtime();
+            if (rebuildDerived) {
+                recreateDerivedObjects(db);
+            } else {
+                ensureIndexes(db);
+            }
+            Log.d(TAG, "Derived objects took " + (SystemClock.elapsedRealtime() - derivedStarted) + " ms");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        Log.d(TAG, "Upgrade v" + fromVersion + " -> v" + toVersion + " took " +
+                (SystemClock.elapsedRealtime() - started) + " ms");
+    }
+
+    /**
+     * Step upgrading to the given version
+     * @throws IllegalStateException if there is none
+     */
+    static Migration get(int version) {
+        for (Migration step : STEPS) {
+            if (step.version == version) {
+                return step;
+            }
+        }
+        throw new IllegalStateException("No migration to database version " + version);
+    }
+
+    /**
+     * Version the last step upgrades to
+     */
+    static int latestVersion() {
+        return STEPS[STEPS.length - 1].version;
+    }
+
+    /**
+     * Drop all triggers and the spend totals, then recreate indexes, triggers
+     * and totals from the current Schema
+     */
+    static void recreateDerivedObjects(SQLiteDatabase db) {
+        List<String> triggers = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'trigger'", null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                triggers.add(cursor.getString(0));
+            }
+            cursor.close();
+        }
+        for (String trigger : triggers) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_VAULT_SPEND_TOTALS);
+        db.execSQL("DROP TABLE IF EXISTS " + Constants.TABLE_LEDGER_CHECKPOINTS);
+
+        ensureIndexes(db);
+        execAll(db, Schema.spendTotalsTables());
+        execAll(db, Schema.spendTotalsTriggers());
+        SpendTotalsDao.rebuild(db);
+    }
+
+    /**
+     * Create any missing index of the current Schema
+     */
+    static void ensureIndexes(SQLiteDatabase db) {
+        execAll(db, Schema.vaultIndexes());
+        execAll(db, Schema.transactionIndexes());
+        execAll(db, Schema.archiveIndexes());
+        execAll(db, Schema.serviceLogIndexes());
+    }
+
+    static void execAll(SQLiteDatabase db, String[] statements) {
+        for (String sql : statements) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * v2: per-vault monthly spend totals. The table, its triggers and its
+     * contents are derived objects, so the step itself has no table changes.
+     */
+    static final class SpendTotals extends Migration {
+        SpendTotals() {
+            super(2, "spend totals");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+        }
+
+        @Override
+        boolean rebuildsTables() {
+            return true;
+        }
+    }
+
+    /**
+     * v3: money columns move from REAL rupees to INTEGER paise. SQLite cannot
+     * change a column type in place, so vaults and transactions are rebuilt.
+     */
+    static final class IntegerMoney extends Migration {
+        IntegerMoney() {
+            super(3, "integer paise");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE vaults_v3 (" +
+                    "vault_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "user_id INTEGER NOT NULL, " +
+                    "vault_name TEXT NOT NULL, " +
+                    "vault_type TEXT NOT NULL CHECK(vault_type IN " +
+                    "('Food','Travel','Lifestyle','Business','Emergency')), " +
+                    "monthly_limit INTEGER NOT NULL, " +
+                    "current_spent INTEGER DEFAULT 0, " +
+                    "vault_color TEXT NOT NULL, " +
+                    "is_active INTEGER DEFAULT 1, " +
+                    "created_at TEXT NOT NULL, " +
+                    "reset_date TEXT NOT NULL, " +
+                    "FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE" +
+                    ")");
+            copyTable(db, "vaults", "vaults_v3",
+                    "vault_id, user_id, vault_name, vault_type, monthly_limit, current_spent, " +
+                            "vault_color, is_active, created_at, reset_date",
+                    "vault_id, user_id, vault_name, vault_type, " +
+                            "CAST(ROUND(monthly_limit * 100) AS INTEGER), " +
+                            "CAST(ROUND(COALESCE(current_spent, 0) * 100) AS INTEGER), " +
+                            "vault_color, is_active, created_at, reset_date");
+            replaceTable(db, "vaults", "vaults_v3");
+
+            db.execSQL("CREATE TABLE transactions_v3 (" +
+                    "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "vault_id INTEGER NOT NULL, " +
+                    "merchant_name TEXT NOT NULL, " +
+                    "amount INTEGER NOT NULL, " +
+                    "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                    "description TEXT, " +
+                    "transaction_date TEXT NOT NULL, " +
+                    "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                    "FOREIGN KEY(vault_id) REFERENCES vaults(vault_id) ON DELETE CASCADE" +
+                    ")");
+            copyTable(db, "transactions", "transactions_v3",
+                    "transaction_id, vault_id, merchant_name, amount, transaction_type, " +
+                            "description, transaction_date, status",
+                    "transaction_id, vault_id, merchant_name, " +
+                            "CAST(ROUND(amount * 100) AS INTEGER), transaction_type, " +
+                            "description, transaction_date, status");
+            replaceTable(db, "transactions", "transactions_v3");
+        }
+
+        @Override
+        boolean rebuildsTables() {
+            return true;
+        }
+    }
+
+    /**
+     * v4: dates move from local "yyyy-MM-dd HH:mm:ss" TEXT to INTEGER epoch millis
+     * in vaults, transactions and service_logs
+     */
+    static final class EpochMillisDates extends Migration {
+        EpochMillisDates() {
+            super(4, "epoch millis dates");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE vaults_v4 (" +
+                    "vault_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "user_id INTEGER NOT NULL, " +
+                    "vault_name TEXT NOT NULL, " +
+                    "vault_type TEXT NOT NULL CHECK(vault_type IN " +
+                    "('Food','Travel','Lifestyle','Business','Emergency')), " +
+                    "monthly_limit INTEGER NOT NULL, " +
+                    "current_spent INTEGER DEFAULT 0, " +
+                    "vault_color TEXT NOT NULL, " +
+                    "is_active INTEGER DEFAULT 1, " +
+                    "created_at INTEGER NOT NULL, " +
+                    "reset_date INTEGER NOT NULL, " +
+                    "FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE" +
+                    ")");
+            copyTable(db, "vaults", "vaults_v4",
+                    "vault_id, user_id, vault_name, vault_type, monthly_limit, current_spent, " +
+                            "vault_color, is_active, created_at, reset_date",
+                    "vault_id, user_id, vault_name, vault_type, monthly_limit, current_spent, " +
+                            "vault_color, is_active, " + toEpochMillis("created_at") + ", " +
+                            toEpochMillis("reset_date"));
+            replaceTable(db, "vaults", "vaults_v4");
+
+            db.execSQL("CREATE TABLE transactions_v4 (" +
+                    "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "vault_id INTEGER NOT NULL, " +
+                    "merchant_name TEXT NOT NULL, " +
+                    "amount INTEGER NOT NULL, " +
+                    "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                    "description TEXT, " +
+                    "transaction_date INTEGER NOT NULL, " +
+                    "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                    "FOREIGN KEY(vault_id) REFERENCES vaults(vault_id) ON DELETE CASCADE" +
+                    ")");
+            copyTable(db, "transactions", "transactions_v4",
+                    "transaction_id, vault_id, merchant_name, amount, transaction_type, " +
+                            "description, transaction_date, status",
+                    "transaction_id, vault_id, merchant_name, amount, transaction_type, " +
+                            "description, " + toEpochMillis("transaction_date") + ", status");
+            replaceTable(db, "transactions", "transactions_v4");
+
+            db.execSQL("CREATE TABLE service_logs_v4 (" +
+                    "log_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "service_name TEXT NOT NULL, " +
+                    "action_type TEXT NOT NULL, " +
+                    "message TEXT, " +
+                    "timestamp INTEGER NOT NULL" +
+                    ")");
+            copyTable(db, "service_logs", "service_logs_v4",
+                    "log_id, service_name, action_type, message, timestamp",
+                    "log_id, service_name, action_type, message, " + toEpochMillis("timestamp"));
+            replaceTable(db, "service_logs", "service_logs_v4");
+        }
+
+        @Override
+        boolean rebuildsTables() {
+            return true;
+        }
+
+        /**
+         * SQL converting a local-time "yyyy-MM-dd[ HH:mm:ss]" TEXT column to epoch millis.
+         * Values that are already integers are kept; unparseable values become 0.
+         */
+        private static String toEpochMillis(String column) {
+            return "CASE WHEN typeof(" + column + ") = 'integer' THEN " + column +
+                    " ELSE COALESCE(CAST(strftime('%s', " + column + ", 'utc') AS INTEGER) * 1000, 0) END";
+        }
+    }
+
+    /**
+     * v5: single-column indexes replaced by composite ones matching the DAO
+     * queries. Only the old indexes are dropped here; the new ones come from Schema.
+     */
+    static final class QueryIndexes extends Migration {
+        QueryIndexes() {
+            super(5, "query indexes");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS idx_vault_user");
+            db.execSQL("DROP INDEX IF EXISTS idx_transaction_vault");
+        }
+    }
+
+    /**
+     * v6: archive table for old failed and pending transactions. The covering
+     * spend index is replaced by a partial one over successful debits only.
+     */
+    static final class TransactionsArchive extends Migration {
+        TransactionsArchive() {
+            super(6, "transactions archive");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE transactions_archive (" +
+                    "transaction_id INTEGER PRIMARY KEY, " +
+                    "vault_id INTEGER NOT NULL, " +
+                    "merchant_name TEXT NOT NULL, " +
+                    "amount INTEGER NOT NULL, " +
+                    "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                    "description TEXT, " +
+                    "transaction_date INTEGER NOT NULL, " +
+                    "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                    "archived_at INTEGER NOT NULL, " +
+                    "FOREIGN KEY(vault_id) REFERENCES vaults(vault_id) ON DELETE CASCADE" +
+                    ")");
+            db.execSQL("DROP INDEX IF EXISTS idx_transaction_vault_spend");
+        }
+    }
+
+    /**
+     * v7: content hash column for deduplicating imported statements. Adding a
+     * nullable column needs no rebuild; its unique index comes from Schema.
+     */
+    static final class ImportHash extends Migration {
+        ImportHash() {
+            super(7, "import hash");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE transactions ADD COLUMN import_hash INTEGER");
+        }
+    }
+
+    /**
+     * v8: run ledger of the monthly vault reset. Its index on the vaults'
+     * reset dates comes from Schema.
+     */
+    static final class ResetRuns extends Migration {
+        ResetRuns() {
+            super(8, "reset runs");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE reset_runs (" +
+                    "user_id INTEGER NOT NULL, " +
+                    "period TEXT NOT NULL, " +
+                    "vaults_reset INTEGER NOT NULL DEFAULT 0, " +
+                    "completed_at INTEGER NOT NULL, " +
+                    "PRIMARY KEY(user_id, period)" +
+                    ") WITHOUT ROWID");
+        }
+    }
+
+    /**
+     * v9: retention of service_logs. Nothing changes in the tables: the index
+     * the retention deletes use comes from Schema, and auto_vacuum cannot be
+     * switched inside a transaction, so the retention job converts the file.
+     */
+    static final class ServiceLogRetention extends Migration {
+        ServiceLogRetention() {
+            super(9, "service log retention");
+        }
+
+        @Override
+        void migrate(SQLiteDatabase db) {
+            // idx_service_log_name_time is created by ensureIndexes
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.paywise.database;
+
+/**
+ * Receives rows streamed out of a query one at a time, see {@link Rows#stream}
+ *
+ * @param <T> Model type
+ */
+public interface RowConsumer<T> {
+
+    /**
+     * @param row The current row. When streaming with reuse, the same object is
+     *            refilled for every row and must not be kept after returning.
+     * @return true to continue with the next row, false to stop reading
+     */
+    boolean accept(T row);
+}
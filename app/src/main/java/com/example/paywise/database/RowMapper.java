@@ -0,0 +1,28 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+
+/**
+ * Maps the current row of a cursor to a model object.
+ * A mapper is bound to one cursor: column indices are resolved once, when it is
+ * created by its {@link Factory}, instead of by name for every column of every row.
+ *
+ * @param <T> Model type
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Creates a mapper for a cursor, resolving its column indices
+     */
+    interface Factory<T> {
+        RowMapper<T> bind(Cursor cursor);
+    }
+
+    /**
+     * Map the row the cursor is positioned on
+     * @param cursor Cursor the mapper was bound to
+     * @param reuse Object to fill in and return, or null to create a new one
+     * @return the mapped row
+     */
+    T map(Cursor cursor, T reuse);
+}
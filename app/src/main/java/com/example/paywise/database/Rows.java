@@ -0,0 +1,75 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads query results through a {@link RowMapper}. Every method closes the cursor.
+ */
+public final class Rows {
+
+    private Rows() {}
+
+    /**
+     * Map every row into a new list
+     */
+    public static <T> List<T> toList(Cursor cursor, RowMapper.Factory<T> factory) {
+        if (cursor == null) {
+            return new ArrayList<>();
+        }
+        try {
+            List<T> rows = new ArrayList<>(cursor.getCount());
+            RowMapper<T> mapper = factory.bind(cursor);
+            while (cursor.moveToNext()) {
+                rows.add(mapper.map(cursor, null));
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Map the first row
+     * @return the row, or null if there is none
+     */
+    public static <T> T first(Cursor cursor, RowMapper.Factory<T> factory) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return cursor.moveToFirst() ? factory.bind(cursor).map(cursor, null) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Stream rows into a consumer without collecting them
+     * @param reuse true to refill a single object for every row instead of
+     *              allocating one per row; the consumer must then not keep rows
+     * @return number of rows passed to the consumer
+     */
+    public static <T> int stream(Cursor cursor, RowMapper.Factory<T> factory,
+                                 RowConsumer<T> consumer, boolean reuse) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            RowMapper<T> mapper = factory.bind(cursor);
+            T row = null;
+            int count = 0;
+            while (cursor.moveToNext()) {
+                row = mapper.map(cursor, reuse ? row : null);
+                count++;
+                if (!consumer.accept(row)) {
+                    break;
+                }
+            }
+            return count;
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.paywise.database;
+
+import com.example.paywise.utils.Constants;
+
+/**
+ * DDL for the current PayWise schema.
+ * Plain SQL strings with no Android dependencies, shared by
+ * {@link DatabaseHelper#onCreate}, the {@link Migrations} that rebuild tables,
+ * and anything else that needs to create the schema outside the app.
+ */
+public final class Schema {
+
+    /**
+     * WHERE terms of the partial indexes. A query can only use a partial index
+     * when its own WHERE clause contains the same terms, so the DAOs use these too.
+     */
+    public static final String SUCCESSFUL_DEBIT =
+            "transaction_type = '" + Constants.TRANSACTION_TYPE_DEBIT + "' AND " +
+                    "status = '" + Constants.TRANSACTION_STATUS_SUCCESS + "'";
+
+    public static final String UNSETTLED =
+            "status != '" + Constants.TRANSACTION_STATUS_SUCCESS + "'";
+
+    private Schema() {}
+
+    /**
+     * All statements creating the schema from scratch, in order
+     */
+    public static String[] createAll() {
+        return concat(
+                new String[]{
+                        createUsersTable(),
+                        createVaultsTable(Constants.TABLE_VAULTS),
+                        createTransactionsTable(Constants.TABLE_TRANSACTIONS),
+                        createTransactionsArchiveTable(Constants.TABLE_TRANSACTIONS_ARCHIVE),
+                        createServiceLogsTable(Constants.TABLE_SERVICE_LOGS),
+                        createResetRunsTable()
+                },
+                vaultIndexes(),
+                transactionIndexes(),
+                archiveIndexes(),
+                serviceLogIndexes(),
+                spendTotalsTables(),
+                spendTotalsTriggers());
+    }
+
+    public static String createUsersTable() {
+        return "CREATE TABLE " + Constants.TABLE_USERS + " (" +
+                "user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "full_name TEXT NOT NULL, " +
+                "email TEXT, " +
+                "phone TEXT NOT NULL, " +
+                "profile_image_path TEXT, " +
+                "created_at TEXT NOT NULL, " +
+                "updated_at TEXT NOT NULL" +
+                ")";
+    }
+
+    public static String createVaultsTable(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                "vault_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id INTEGER NOT NULL, " +
+                "vault_name TEXT NOT NULL, " +
+                "vault_type TEXT NOT NULL CHECK(vault_type IN " +
+                "('Food','Travel','Lifestyle','Business','Emergency')), " +
+                "monthly_limit INTEGER NOT NULL, " +
+                "current_spent INTEGER DEFAULT 0, " +
+                "vault_color TEXT NOT NULL, " +
+                "is_active INTEGER DEFAULT 1, " +
+                "created_at INTEGER NOT NULL, " +
+                "reset_date INTEGER NOT NULL, " +
+                "FOREIGN KEY(user_id) REFERENCES " +
+                Constants.TABLE_USERS + "(user_id) ON DELETE CASCADE" +
+                ")";
+    }
+
+    public static String createTransactionsTable(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                "transaction_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "vault_id INTEGER NOT NULL, " +
+                "merchant_name TEXT NOT NULL, " +
+                "amount INTEGER NOT NULL, " +
+                "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                "description TEXT, " +
+                "transaction_date INTEGER NOT NULL, " +
+                "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                "import_hash INTEGER, " +
+                "FOREIGN KEY(vault_id) REFERENCES " +
+                Constants.TABLE_VAULTS + "(vault_id) ON DELETE CASCADE" +
+                ")";
+    }
+
+    /**
+     * Cold tier for failed and pending transactions moved out of the ledger by
+     * TransactionArchiver. Rows keep their transaction_id, so ids stay unique
+     * across both tables.
+     */
+    public static String createTransactionsArchiveTable(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                "transaction_id INTEGER PRIMARY KEY, " +
+                "vault_id INTEGER NOT NULL, " +
+                "merchant_name TEXT NOT NULL, " +
+                "amount INTEGER NOT NULL, " +
+                "transaction_type TEXT NOT NULL CHECK(transaction_type IN ('debit','credit')), " +
+                "description TEXT, " +
+                "transaction_date INTEGER NOT NULL, " +
+                "status TEXT NOT NULL CHECK(status IN ('success','failed','pending')), " +
+                "archived_at INTEGER NOT NULL, " +
+                "FOREIGN KEY(vault_id) REFERENCES " +
+                Constants.TABLE_VAULTS + "(vault_id) ON DELETE CASCADE" +
+                ")";
+    }
+
+    public static String createServiceLogsTable(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                "log_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "service_name TEXT NOT NULL, " +
+                "action_type TEXT NOT NULL, " +
+                "message TEXT, " +
+                "timestamp INTEGER NOT NULL" +
+                ")";
+    }
+
+    /**
+     * One row per user and period whose monthly reset has run, so a reset is
+     * applied at most once per period however often the reset job runs
+     */
+    public static String createResetRunsTable() {
+        return "CREATE TABLE " + Constants.TABLE_RESET_RUNS + " (" +
+                "user_id INTEGER NOT NULL, " +
+                "period TEXT NOT NULL, " +
+                "vaults_reset INTEGER NOT NULL DEFAULT 0, " +
+                "completed_at INTEGER NOT NULL, " +
+                "PRIMARY KEY(user_id, period)" +
+                ") WITHOUT ROWID";
+    }
+
+    /**
+     * Indexes shaped after the VaultDao queries, which all filter on a user's
+     * active vaults, plus the active vaults by reset date for the reset job;
+     * QueryPlanTest keeps them honest
+     */
+    public static String[] vaultIndexes() {
+        return new String[]{
+                "CREATE INDEX IF NOT EXISTS idx_vault_user_active ON " +
+                        Constants.TABLE_VAULTS + "(user_id, is_active)",
+                "CREATE INDEX IF NOT EXISTS idx_vault_user_type ON " +
+                        Constants.TABLE_VAULTS + "(user_id, vault_type, is_active)",
+                "CREATE INDEX IF NOT EXISTS idx_vault_active_reset ON " +
+                        Constants.TABLE_VAULTS + "(reset_date) WHERE is_active = 1"
+        };
+    }
+
+    /**
+     * Indexes for the transaction history: per-vault pages by date and the
+     * global date order. Two partial indexes only hold the rows their queries
+     * want: successful debits, covering the spend aggregates, and unsettled
+     * (failed or pending) rows, which the archiver looks for by date. Imported
+     * rows are deduplicated by a unique index on their content hash.
+     */
+    public static String[] transactionIndexes() {
+        return new String[]{
+                "CREATE INDEX IF NOT EXISTS idx_transaction_vault_date ON " +
+                        Constants.TABLE_TRANSACTIONS + "(vault_id, transaction_date)",
+                "CREATE INDEX IF NOT EXISTS idx_transaction_date ON " +
+                        Constants.TABLE_TRANSACTIONS + "(transaction_date)",
+                "CREATE INDEX IF NOT EXISTS idx_transaction_successful_debit ON " +
+                        Constants.TABLE_TRANSACTIONS + "(vault_id, transaction_date, amount) " +
+                        "WHERE " + SUCCESSFUL_DEBIT,
+                "CREATE INDEX IF NOT EXISTS idx_transaction_unsettled ON " +
+                        Constants.TABLE_TRANSACTIONS + "(transaction_date) " +
+                        "WHERE " + UNSETTLED,
+                // Content hash of imported statement rows; only imported rows have one
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_transaction_import_hash ON " +
+                        Constants.TABLE_TRANSACTIONS + "(import_hash) " +
+                        "WHERE import_hash IS NOT NULL"
+        };
+    }
+
+    public static String[] archiveIndexes() {
+        return new String[]{
+                "CREATE INDEX IF NOT EXISTS idx_archive_vault_date ON " +
+                        Constants.TABLE_TRANSACTIONS_ARCHIVE + "(vault_id, transaction_date)",
+                "CREATE INDEX IF NOT EXISTS idx_archive_date ON " +
+                        Constants.TABLE_TRANSACTIONS_ARCHIVE + "(transaction_date)"
+        };
+    }
+
+    /**
+     * Logs by service and age, for ServiceLogRetention
+     */
+    public static String[] serviceLogIndexes() {
+        return new String[]{
+                "CREATE INDEX IF NOT EXISTS idx_service_log_name_time ON " +
+                        Constants.TABLE_SERVICE_LOGS + "(service_name, timestamp)"
+        };
+    }
+
+    /**
+     * Per-vault, per-month running totals of successful debits, maintained by
+     * triggers on the transactions table so every write path keeps them in sync
+     */
+    public static String[] spendTotalsTables() {
+        return new String[]{
+                "CREATE TABLE " + Constants.TABLE_VAULT_SPEND_TOTALS + " (" +
+                        "vault_id INTEGER NOT NULL, " +
+                        "period TEXT NOT NULL, " +
+                        "total_spent INTEGER NOT NULL DEFAULT 0, " +
+                        "transaction_count INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY(vault_id, period), " +
+                        "FOREIGN KEY(vault_id) REFERENCES " +
+                        Constants.TABLE_VAULTS + "(vault_id) ON DELETE CASCADE" +
+                        ") WITHOUT ROWID",
+                "CREATE TABLE " + Constants.TABLE_LEDGER_CHECKPOINTS + " (" +
+                        "name TEXT PRIMARY KEY, " +
+                        "last_transaction_id INTEGER NOT NULL, " +
+                        "updated_at INTEGER NOT NULL" +
+                        ")"
+        };
+    }
+
+    public static String[] spendTotalsTriggers() {
+        String watchedColumns = "amount, status, transaction_type, vault_id, transaction_date";
+        return new String[]{
+                "CREATE TRIGGER trg_spend_totals_insert AFTER INSERT ON " +
+                        Constants.TABLE_TRANSACTIONS + " WHEN " + isSuccessfulDebit("NEW") + " BEGIN " +
+                        addToTotals("NEW") +
+                        " END",
+                "CREATE TRIGGER trg_spend_totals_update_old AFTER UPDATE OF " + watchedColumns + " ON " +
+                        Constants.TABLE_TRANSACTIONS + " WHEN " + isSuccessfulDebit("OLD") + " BEGIN " +
+                        subtractFromTotals("OLD") +
+                        " END",
+                "CREATE TRIGGER trg_spend_totals_update_new AFTER UPDATE OF " + watchedColumns + " ON " +
+                        Constants.TABLE_TRANSACTIONS + " WHEN " + isSuccessfulDebit("NEW") + " BEGIN " +
+                        addToTotals("NEW") +
+                        " END",
+                "CREATE TRIGGER trg_spend_totals_delete AFTER DELETE ON " +
+                        Constants.TABLE_TRANSACTIONS + " WHEN " + isSuccessfulDebit("OLD") + " BEGIN " +
+                        subtractFromTotals("OLD") +
+                        " END"
+        };
+    }
+
+    /**
+     * SQL for the yyyy-MM period (local time) of an epoch-millis column.
+     * Used by the triggers and by SpendTotalsDao so both agree on month boundaries.
+     */
+    public static String periodOf(String dateColumn) {
+        return "strftime('%Y-%m', " + dateColumn + " / 1000, 'unixepoch', 'localtime')";
+    }
+
+    /**
+     * SQL for the first epoch millis of a yyyy-MM period (local time)
+     * @param period SQL expression or parameter holding the period
+     */
+    public static String periodStart(String period) {
+        return "(strftime('%s', " + period + " || '-01', 'utc') * 1000)";
+    }
+
+    /**
+     * SQL for the first epoch millis after a yyyy-MM period (local time)
+     * @param period SQL expression or parameter holding the period
+     */
+    public static String periodEnd(String period) {
+        return "(strftime('%s', " + period + " || '-01', '+1 month', 'utc') * 1000)";
+    }
+
+    private static String isSuccessfulDebit(String row) {
+        return row + ".transaction_type = '" + Constants.TRANSACTION_TYPE_DEBIT + "' AND " +
+                row + ".status = '" + Constants.TRANSACTION_STATUS_SUCCESS + "'";
+    }
+
+    private static String addToTotals(String row) {
+        String period = periodOf(row + ".transaction_date");
+        return "INSERT OR IGNORE INTO " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                " (vault_id, period) VALUES (" + row + ".vault_id, " + period + "); " +
+                "UPDATE " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                " SET total_spent = total_spent + " + row + ".amount, " +
+                "transaction_count = transaction_count + 1 " +
+                "WHERE vault_id = " + row + ".vault_id AND period = " + period + ";";
+    }
+
+    private static String subtractFromTotals(String row) {
+        String period = periodOf(row + ".transaction_date");
+        return "UPDATE " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                " SET total_spent = total_spent - " + row + ".amount, " +
+                "transaction_count = transaction_count - 1 " +
+                "WHERE vault_id = " + row + ".vault_id AND period = " + period + ";";
+    }
+
+    private static String[] concat(String[]... parts) {
+        int length = 0;
+        for (String[] part : parts) {
+            length += part.length;
+        }
+        String[] all = new String[length];
+        int offset = 0;
+        for (String[] part : parts) {
+            System.arraycopy(part, 0, all, offset, part.length);
+            offset += part.length;
+        }
+        return all;
+    }
+}
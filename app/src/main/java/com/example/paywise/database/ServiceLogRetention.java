@@ -0,0 +1,280 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+import com.example.paywise.utils.Constants;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps service_logs bounded: per service_name, rows older than a maximum age
+ * and rows beyond a maximum count are deleted, oldest first. Deletes run in
+ * chunks of SERVICE_LOG_RETENTION_CHUNK rows, each a short transaction posted
+ * to the writer executor, so payments queued meanwhile wait for one chunk at
+ * most. Freed pages are then returned to the file system with
+ * incremental_vacuum, also in steps.
+ *
+ * Files created before auto_vacuum was enabled are converted by one VACUUM on
+ * the first run. Blocking: call from a background job.
+ */
+public class ServiceLogRetention {
+
+    private static final String TAG = "DB_RETENTION";
+
+    // Next service name in index order: one seek per service, no scan
+    static final String SQL_NEXT_SERVICE =
+            "SELECT MIN(service_name) FROM " + Constants.TABLE_SERVICE_LOGS + " WHERE service_name > ?";
+
+    // Newest row past the row limit, through the index in descending order
+    static final String SQL_ROW_LIMIT_BOUNDARY =
+            "SELECT timestamp, log_id FROM " + Constants.TABLE_SERVICE_LOGS +
+                    " WHERE service_name = ? ORDER BY timestamp DESC, log_id DESC LIMIT 1 OFFSET ?";
+
+    // A chunk of the oldest rows up to a (timestamp, log_id) position
+    static final String SQL_DELETE_CHUNK =
+            "DELETE FROM " + Constants.TABLE_SERVICE_LOGS + " WHERE log_id IN (" +
+                    "SELECT log_id FROM " + Constants.TABLE_SERVICE_LOGS +
+                    " WHERE service_name = ?1 AND timestamp <= ?2 AND (timestamp < ?2 OR log_id <= ?3)" +
+                    " ORDER BY timestamp LIMIT ?4)";
+
+    /**
+     * How much of one service's log to keep
+     */
+    public static final class Limits {
+        final int maxRows;
+        final long maxAgeMillis;
+
+        public Limits(int maxRows, long maxAgeMillis) {
+            this.maxRows = maxRows;
+            this.maxAgeMillis = maxAgeMillis;
+        }
+    }
+
+    /**
+     * Outcome of a run
+     */
+    public static final class Report {
+        public final Map<String, Long> deletedByService;
+        public final long rowsDeleted;
+        public final long bytesReclaimed;
+        public final boolean converted;
+        public final long durationMillis;
+
+        Report(Map<String, Long> deletedByService, long rowsDeleted, long bytesReclaimed,
+               boolean converted, long durationMillis) {
+            this.deletedByService = Collections.unmodifiableMap(deletedByService);
+            this.rowsDeleted = rowsDeleted;
+            this.bytesReclaimed = bytesReclaimed;
+            this.converted = converted;
+            this.durationMillis = durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Deleted " + rowsDeleted + " log rows " + deletedByService +
+                    ", reclaimed " + (bytesReclaimed / 1024) + " KB" +
+                    (converted ? " (file converted to incremental auto_vacuum)" : "") +
+                    " in " + durationMillis + " ms";
+        }
+    }
+
+    private final DatabaseHelper dbHelper;
+    private final Executor writer;
+    private final Limits defaultLimits;
+    private final Map<String, Limits> serviceLimits;
+
+    /**
+     * Retention with the default limits: SERVICE_LOG_MAX_ROWS and
+     * SERVICE_LOG_MAX_AGE_DAYS, tighter for the chatty broadcast log
+     */
+    public ServiceLogRetention(Context context, Executor writer) {
+        this(DatabaseManager.getInstance(context).getHelper(), writer,
+                new Limits(Constants.SERVICE_LOG_MAX_ROWS,
+                        TimeUnit.DAYS.toMillis(Constants.SERVICE_LOG_MAX_AGE_DAYS)),
+                Collections.singletonMap("PaymentAlertReceiver",
+                        new Limits(Constants.SERVICE_LOG_MAX_ROWS / 5,
+                                TimeUnit.DAYS.toMillis(Constants.SERVICE_LOG_MAX_AGE_DAYS / 3))));
+    }
+
+    /**
+     * @param dbHelper Database helper
+     * @param writer Executor serialising database writes
+     * @param defaultLimits Limits of services without their own
+     * @param serviceLimits Limits by service_name
+     */
+    ServiceLogRetention(DatabaseHelper dbHelper, Executor writer, Limits defaultLimits,
+                        Map<String, Limits> serviceLimits) {
+        this.dbHelper = dbHelper;
+        this.writer = writer;
+        this.defaultLimits = defaultLimits;
+        this.serviceLimits = new HashMap<>(serviceLimits);
+    }
+
+    /**
+     * Apply the limits to every service, then compact the file
+     * @param now Current time in epoch millis
+     * @return what was deleted and reclaimed
+     */
+    public Report run(long now) {
+        long started = SystemClock.elapsedRealtime();
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long pageSize = queryLong(db, "PRAGMA page_size", null);
+        long pagesBefore = queryLong(db, "PRAGMA page_count", null);
+
+        Map<String, Long> deletedByService = new LinkedHashMap<>();
+        long rowsDeleted = 0;
+        String service = "";
+        while ((service = nextService(db, service)) != null) {
+            Limits limits = serviceLimits.containsKey(service) ? serviceLimits.get(service) : defaultLimits;
+            long deleted = deleteUpTo(service, now - limits.maxAgeMillis, Long.MAX_VALUE);
+            long[] boundary = rowLimitBoundary(db, service, limits.maxRows);
+            if (boundary != null) {
+                deleted += deleteUpTo(service, boundary[0], boundary[1]);
+            }
+            if (deleted > 0) {
+                deletedByService.put(service, deleted);
+                rowsDeleted += deleted;
+            }
+        }
+
+        boolean converted = false;
+        if (!DatabaseHelper.AUTO_VACUUM_INCREMENTAL.equals(queryString(db, "PRAGMA auto_vacuum"))) {
+            convertToIncrementalVacuum();
+            converted = true;
+        } else {
+            while (queryLong(db, "PRAGMA freelist_count", null) > 0) {
+                onWriter(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        DatabaseHelper.setPragma(dbHelper.getWritableDatabase(), "incremental_vacuum",
+                                String.valueOf(Constants.INCREMENTAL_VACUUM_PAGES));
+                        return null;
+                    }
+                });
+            }
+        }
+
+        long bytesReclaimed = Math.max(0, pagesBefore - queryLong(db, "PRAGMA page_count", null)) * pageSize;
+        Report report = new Report(deletedByService, rowsDeleted, bytesReclaimed, converted,
+                SystemClock.elapsedRealtime() - started);
+        Log.d(TAG, report.toString());
+        return report;
+    }
+
+    /**
+     * Delete a service's rows up to a (timestamp, log_id) position, one chunk
+     * per writer task
+     * @return number of rows deleted
+     */
+    private long deleteUpTo(final String service, final long timestamp, final long logId) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = onWriter(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    SQLiteDatabase db = dbHelper.getWritableDatabase();
+                    db.beginTransactionNonExclusive();
+                    try {
+                        db.execSQL(SQL_DELETE_CHUNK, new Object[]{service, timestamp, logId,
+                                Constants.SERVICE_LOG_RETENTION_CHUNK});
+                        int changes = (int) queryLong(db, "SELECT changes()", null);
+                        db.setTransactionSuccessful();
+                        return changes;
+                    } finally {
+                        db.endTransaction();
+                    }
+                }
+            });
+            deleted += chunk;
+        } while (chunk == Constants.SERVICE_LOG_RETENTION_CHUNK);
+        return deleted;
+    }
+
+    /**
+     * One-time switch of an existing file to incremental auto_vacuum; VACUUM
+     * rewrites the file and also returns all free pages
+     */
+    private void convertToIncrementalVacuum() {
+        onWriter(new Callable<Void>() {
+            @Override
+            public Void call() {
+                SQLiteDatabase db = dbHelper.getWritableDatabase();
+                long started = SystemClock.elapsedRealtime();
+                DatabaseHelper.setPragma(db, "auto_vacuum", DatabaseHelper.AUTO_VACUUM_INCREMENTAL);
+                db.execSQL("VACUUM");
+                Log.d(TAG, "VACUUM to incremental auto_vacuum took " +
+                        (SystemClock.elapsedRealtime() - started) + " ms");
+                return null;
+            }
+        });
+    }
+
+    private static String nextService(SQLiteDatabase db, String after) {
+        return queryString(db, SQL_NEXT_SERVICE, after);
+    }
+
+    /**
+     * Position of the newest row beyond the service's row limit
+     * @return {timestamp, log_id}, or null if the service is within its limit
+     */
+    private static long[] rowLimitBoundary(SQLiteDatabase db, String service, int maxRows) {
+        Cursor cursor = db.rawQuery(SQL_ROW_LIMIT_BOUNDARY, new String[]{service, String.valueOf(maxRows)});
+        long[] boundary = null;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                boundary = new long[]{cursor.getLong(0), cursor.getLong(1)};
+            }
+            cursor.close();
+        }
+        return boundary;
+    }
+
+    private <T> T onWriter(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        writer.execute(future);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the writer", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    private static long queryLong(SQLiteDatabase db, String sql, String[] args) {
+        Cursor cursor = db.rawQuery(sql, args);
+        long value = 0;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                value = cursor.getLong(0);
+            }
+            cursor.close();
+        }
+        return value;
+    }
+
+    private static String queryString(SQLiteDatabase db, String sql, String... args) {
+        Cursor cursor = db.rawQuery(sql, args.length == 0 ? null : args);
+        String value = null;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                value = cursor.getString(0);
+            }
+            cursor.close();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.paywise.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+import com.example.paywise.utils.Constants;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffered writer for service_logs.
+ * Logging only offers an entry to a bounded lock-free queue; entries are
+ * written on the writer executor in one transaction per flush. A flush runs
+ * when SERVICE_LOG_BATCH_SIZE entries are waiting or SERVICE_LOG_FLUSH_MS
+ * after the first entry of a batch, whichever comes first.
+ *
+ * When the queue is full new entries are dropped rather than blocking the
+ * caller; the next flush records how many were lost. {@link #flush()} writes
+ * everything synchronously, for shutdown.
+ */
+public class ServiceLogWriter {
+
+    private static final String TAG = "DB_SERVICE_LOG";
+
+    static final String SQL_INSERT_LOG =
+            "INSERT INTO " + Constants.TABLE_SERVICE_LOGS +
+                    " (service_name, action_type, message, timestamp) VALUES (?, ?, ?, ?)";
+
+    private static final class Entry {
+        final String serviceName;
+        final String actionType;
+        final String message;
+        final long timestamp;
+
+        Entry(String serviceName, String actionType, String message, long timestamp) {
+            this.serviceName = serviceName;
+            this.actionType = actionType;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final DatabaseHelper dbHelper;
+    private final Executor writer;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushDelayMillis;
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // Size of the queue; ConcurrentLinkedQueue.size() walks the whole list
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // A flush task is waiting on the writer executor
+    private final AtomicBoolean flushPosted = new AtomicBoolean();
+    private final ScheduledExecutorService timer;
+
+    // Drops not yet recorded in the table
+    private long unreportedDrops;
+
+    ServiceLogWriter(DatabaseHelper dbHelper, Executor writer) {
+        this(dbHelper, writer, Constants.SERVICE_LOG_CAPACITY, Constants.SERVICE_LOG_BATCH_SIZE,
+                Constants.SERVICE_LOG_FLUSH_MS);
+    }
+
+    ServiceLogWriter(DatabaseHelper dbHelper, Executor writer, int capacity, int batchSize,
+                     long flushDelayMillis) {
+        this.dbHelper = dbHelper;
+        this.writer = writer;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushDelayMillis = flushDelayMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "paywise-log-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Queue a log entry stamped with the current time
+     * @return false if the queue was full and the entry was dropped
+     */
+    public boolean log(String serviceName, String actionType, String message) {
+        return log(serviceName, actionType, message, System.currentTimeMillis());
+    }
+
+    /**
+     * Queue a log entry
+     * @param serviceName Name of the service
+     * @param actionType Type of action performed
+     * @param message Log message
+     * @param timestamp Timestamp in epoch millis
+     * @return false if the queue was full and the entry was dropped
+     */
+    public boolean log(String serviceName, String actionType, String message, long timestamp) {
+        int size;
+        do {
+            size = queued.get();
+            if (size >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!queued.compareAndSet(size, size + 1));
+
+        queue.offer(new Entry(serviceName, actionType, message, timestamp));
+
+        if (size + 1 >= batchSize) {
+            postFlush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    postFlush();
+                }
+            }, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Entries waiting to be written
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Entries dropped because the queue was full, since the process started
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Write every queued entry now, on the calling thread
+     */
+    public void flush() {
+        writeQueued();
+    }
+
+    /**
+     * Post one flush to the writer executor. Every log() past the batch size
+     * lands here; while a flush is already waiting it will pick up the new
+     * entries too, so nothing more is posted ahead of payments on the writer.
+     */
+    private void postFlush() {
+        if (!flushPosted.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // Clear before draining so entries queued during the write post a new flush
+                    flushPosted.set(false);
+                    writeQueued();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Writer shut down; whatever is queued waits for flush()
+            flushPosted.set(false);
+            flushScheduled.set(false);
+        }
+    }
+
+    private synchronized void writeQueued() {
+        flushScheduled.set(false);
+        long drops = dropped.get();
+        if (queued.get() == 0 && drops == unreportedDrops) {
+            return;
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT_LOG);
+        int written = 0;
+        db.beginTransactionNonExclusive();
+        try {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                bind(insert, entry.serviceName, entry.actionType, entry.message, entry.timestamp);
+                insert.executeInsert();
+                written++;
+            }
+            if (drops > unreportedDrops) {
+                bind(insert, "ServiceLogWriter", "DROPPED",
+                        "Dropped " + (drops - unreportedDrops) + " log entries, queue full",
+                        System.currentTimeMillis());
+                insert.executeInsert();
+                unreportedDrops = drops;
+            }
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Lost " + written + " log entries", e);
+        } finally {
+            db.endTransaction();
+            insert.close();
+        }
+    }
+
+    private static void bind(SQLiteStatement insert, String serviceName, String actionType,
+                             String message, long timestamp) {
+        insert.clearBindings();
+        insert.bindString(1, serviceName);
+        insert.bindString(2, actionType);
+        if (message != null) {
+            insert.bindString(3, message);
+        }
+        insert.bindLong(4, timestamp);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Access to vault_spend_totals, the per-vault, per-month running totals of
+ * successful debits. The table is maintained by triggers on transactions;
+ * this DAO reads it and verifies it, and vaults.current_spent, against the ledger.
+ */
+public class SpendTotalsDao {
+
+    // Same terms as idx_transaction_successful_debit, so the aggregates can use it
+    private static final String SUCCESSFUL_DEBIT = Schema.SUCCESSFUL_DEBIT;
+
+    // Groups touched since the checkpoint: a rowid range scan, deduplicated in Java
+    // rather than with DISTINCT, which would need a temp B-tree
+    static final String SQL_TOUCHED_GROUPS =
+            "SELECT vault_id, " + Schema.periodOf("transaction_date") + " FROM " +
+                    Constants.TABLE_TRANSACTIONS + " WHERE transaction_id > ?";
+
+    // One group recomputed from the ledger. The month is turned into a date range
+    // so the whole query is answered from idx_transaction_successful_debit.
+    static final String SQL_LEDGER_GROUP =
+            "SELECT COALESCE(SUM(amount), 0), COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = ?1 AND " + SUCCESSFUL_DEBIT +
+                    " AND transaction_date >= " + Schema.periodStart("?2") +
+                    " AND transaction_date < " + Schema.periodEnd("?2");
+
+    static final String SQL_STORED_GROUP =
+            "SELECT total_spent, transaction_count FROM " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                    " WHERE vault_id = ? AND period = ?";
+
+    static final String SQL_TOTAL_SPENT =
+            "SELECT SUM(total_spent) FROM " + Constants.TABLE_VAULT_SPEND_TOTALS + " WHERE vault_id = ?";
+
+    // Payments made this period, i.e. the ledger rows the debit path added to
+    // current_spent. Imported statement rows are history and never counted there,
+    // so this is not the period's vault_spend_totals row, which includes them.
+    private static final String SQL_LEDGER_CURRENT_SPENT =
+            "SELECT COALESCE(SUM(amount), 0) FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = " + Constants.TABLE_VAULTS + ".vault_id AND " + SUCCESSFUL_DEBIT +
+                    " AND transaction_date >= ?1 AND transaction_date < ?2 AND import_hash IS NULL";
+
+    // Only active vaults already reset for this period (a vault still due carries
+    // last period's spend), found through idx_vault_active_reset
+    static final String SQL_RECONCILE_CURRENT_SPENT =
+            "UPDATE " + Constants.TABLE_VAULTS + " SET current_spent = (" + SQL_LEDGER_CURRENT_SPENT + ")" +
+                    " WHERE is_active = 1 AND reset_date > ?3 AND current_spent != (" + SQL_LEDGER_CURRENT_SPENT + ")";
+
+    static final String SQL_MAX_TRANSACTION_ID =
+            "SELECT MAX(transaction_id) FROM " + Constants.TABLE_TRANSACTIONS;
+
+    // Latency of each public method, see Metrics
+    private static final LatencyHistogram GET_TOTAL_SPENT = Metrics.histogram("dao.spendTotals.getTotalSpent");
+    private static final LatencyHistogram VERIFY = Metrics.histogram("dao.spendTotals.verify");
+    private static final LatencyHistogram RECONCILE_CURRENT_SPENT =
+            Metrics.histogram("dao.spendTotals.reconcileCurrentSpent");
+
+    private DatabaseHelper dbHelper;
+
+    public SpendTotalsDao(Context context) {
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
+    }
+
+    /**
+     * Get total spent by a vault across all periods
+     * @param vaultId Vault ID
+     * @return Total spent amount in paise
+     */
+    public long getTotalSpent(int vaultId) {
+        return DaoTimer.timeLong(GET_TOTAL_SPENT, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            return queryLong(db, SQL_TOTAL_SPENT, new String[]{String.valueOf(vaultId)});
+        });
+    }
+
+    /**
+     * Verify the running totals against the ledger, incrementally.
+     * Only (vault, month) groups that received ledger rows since the last
+     * checkpoint are recomputed; groups that disagree are corrected.
+     * @return number of groups that had to be corrected
+     */
+    public int verify() {
+        return DaoTimer.timeInt(VERIFY, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            int corrected = 0;
+
+            db.beginTransactionNonExclusive();
+            try {
+                long lastId = getCheckpoint(db);
+                long maxId = queryLong(db, SQL_MAX_TRANSACTION_ID, null);
+
+                // vault_id + "|" + period of every group touched since the checkpoint
+                Set<String> groups = new LinkedHashSet<>();
+                Cursor cursor = db.rawQuery(SQL_TOUCHED_GROUPS, new String[]{String.valueOf(lastId)});
+                if (cursor != null) {
+                    while (cursor.moveToNext()) {
+                        groups.add(cursor.getString(0) + "|" + cursor.getString(1));
+                    }
+                    cursor.close();
+                }
+
+                for (String group : groups) {
+                    int separator = group.indexOf('|');
+                    if (verifyGroup(db, group.substring(0, separator), group.substring(separator + 1))) {
+                        corrected++;
+                    }
+                }
+
+                setCheckpoint(db, maxId);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            return corrected;
+        });
+    }
+
+    /**
+     * Correct vaults.current_spent where it drifted from the ledger: set it to
+     * the successful debits since the start of the current month, for every
+     * active vault whose monthly reset has already run. Answered per vault from
+     * idx_transaction_successful_debit over one month of rows.
+     * @param now Current time, epoch millis
+     * @return number of vaults corrected
+     */
+    public int reconcileCurrentSpent(long now) {
+        return DaoTimer.timeInt(RECONCILE_CURRENT_SPENT, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            SQLiteStatement statement = db.compileStatement(SQL_RECONCILE_CURRENT_SPENT);
+            try {
+                statement.bindLong(1, DateUtils.getMonthStart(now));
+                statement.bindLong(2, DateUtils.getNextMonthStart(now));
+                statement.bindLong(3, now);
+                return statement.executeUpdateDelete();
+            } finally {
+                statement.close();
+            }
+        });
+    }
+
+    /**
+     * Recompute one (vault, month) group from the ledger and fix it if it drifted
+     * @return true if the stored totals were wrong
+     */
+    private boolean verifyGroup(SQLiteDatabase db, String vaultId, String period) {
+        long ledgerTotal = 0;
+        long ledgerCount = 0;
+        Cursor cursor = db.rawQuery(SQL_LEDGER_GROUP, new String[]{vaultId, period});
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                ledgerTotal = cursor.getLong(0);
+                ledgerCount = cursor.getLong(1);
+            }
+            cursor.close();
+        }
+
+        long storedTotal = 0;
+        long storedCount = 0;
+        cursor = db.rawQuery(SQL_STORED_GROUP, new String[]{vaultId, period});
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                storedTotal = cursor.getLong(0);
+                storedCount = cursor.getLong(1);
+            }
+            cursor.close();
+        }
+
+        if (storedCount == ledgerCount && storedTotal == ledgerTotal) {
+            return false;
+        }
+
+        db.execSQL("INSERT OR REPLACE INTO " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                        " (vault_id, period, total_spent, transaction_count) VALUES (?, ?, ?, ?)",
+                new Object[]{vaultId, period, ledgerTotal, ledgerCount});
+        return true;
+    }
+
+    /**
+     * Rebuild all running totals from the ledger with one aggregate query and
+     * move the checkpoint to the newest transaction. Used when the table is
+     * first created.
+     */
+    static void rebuild(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + Constants.TABLE_VAULT_SPEND_TOTALS);
+        db.execSQL("INSERT INTO " + Constants.TABLE_VAULT_SPEND_TOTALS +
+                " (vault_id, period, total_spent, transaction_count) " +
+                "SELECT vault_id, " + Schema.periodOf("transaction_date") + ", SUM(amount), COUNT(*) FROM " +
+                Constants.TABLE_TRANSACTIONS + " WHERE " + SUCCESSFUL_DEBIT +
+                " GROUP BY vault_id, " + Schema.periodOf("transaction_date"));
+        setCheckpoint(db, queryLong(db, SQL_MAX_TRANSACTION_ID, null));
+    }
+
+    private static long getCheckpoint(SQLiteDatabase db) {
+        return queryLong(db,
+                "SELECT last_transaction_id FROM " + Constants.TABLE_LEDGER_CHECKPOINTS + " WHERE name = ?",
+                new String[]{Constants.CHECKPOINT_SPEND_TOTALS});
+    }
+
+    private static void setCheckpoint(SQLiteDatabase db, long transactionId) {
+        db.execSQL("INSERT OR REPLACE INTO " + Constants.TABLE_LEDGER_CHECKPOINTS +
+                        " (name, last_transaction_id, updated_at) VALUES (?, ?, ?)",
+                new Object[]{Constants.CHECKPOINT_SPEND_TOTALS, transactionId, System.currentTimeMillis()});
+    }
+
+    private static long queryLong(SQLiteDatabase db, String sql, String[] args) {
+        long value = 0;
+        Cursor cursor = db.rawQuery(sql, args);
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                value = cursor.getLong(0);
+            }
+            cursor.close();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.paywise.database;
+
+/**
+ * Storage tuning applied to paywise.db when a connection is configured.
+ * Values map directly onto SQLite pragmas, plus the thresholds used by
+ * {@link WalCheckpointScheduler} to decide when to checkpoint the WAL.
+ */
+public class StorageProfile {
+
+    // synchronous levels
+    public static final String SYNCHRONOUS_OFF = "OFF";
+    public static final String SYNCHRONOUS_NORMAL = "NORMAL";
+    public static final String SYNCHRONOUS_FULL = "FULL";
+
+    // temp_store values
+    public static final String TEMP_STORE_DEFAULT = "DEFAULT";
+    public static final String TEMP_STORE_FILE = "FILE";
+    public static final String TEMP_STORE_MEMORY = "MEMORY";
+
+    private final boolean walEnabled;
+    private final String synchronous;
+    private final int cacheSizeKb;
+    private final long mmapSizeBytes;
+    private final String tempStore;
+    private final long checkpointWalSizeBytes;
+    private final long checkpointIdleMillis;
+    private final long checkpointPollMillis;
+
+    public StorageProfile(boolean walEnabled, String synchronous, int cacheSizeKb, long mmapSizeBytes,
+                          String tempStore, long checkpointWalSizeBytes, long checkpointIdleMillis,
+                          long checkpointPollMillis) {
+        this.walEnabled = walEnabled;
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStore = tempStore;
+        this.checkpointWalSizeBytes = checkpointWalSizeBytes;
+        this.checkpointIdleMillis = checkpointIdleMillis;
+        this.checkpointPollMillis = checkpointPollMillis;
+    }
+
+    /**
+     * Profile used by the app: WAL with NORMAL sync (durable at checkpoint,
+     * no fsync per commit), 4 MB page cache, 32 MB mmap, in-memory temp tables.
+     * The WAL is checkpointed once it passes 4 MB or after 30 s without writes.
+     */
+    public static StorageProfile defaultProfile() {
+        return new StorageProfile(
+                true,
+                SYNCHRONOUS_NORMAL,
+                4 * 1024,
+                32L * 1024 * 1024,
+                TEMP_STORE_MEMORY,
+                4L * 1024 * 1024,
+                30 * 1000L,
+                10 * 1000L
+        );
+    }
+
+    // Getters
+    public boolean isWalEnabled() { return walEnabled; }
+
+    public String getSynchronous() { return synchronous; }
+
+    public int getCacheSizeKb() { return cacheSizeKb; }
+
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+
+    public String getTempStore() { return tempStore; }
+
+    public long getCheckpointWalSizeBytes() { return checkpointWalSizeBytes; }
+
+    public long getCheckpointIdleMillis() { return checkpointIdleMillis; }
+
+    public long getCheckpointPollMillis() { return checkpointPollMillis; }
+}
@@ -0,0 +1,107 @@
+package com.example.paywise.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import com.example.paywise.utils.Constants;
+import java.util.concurrent.Executor;
+
+/**
+ * Moves old failed and pending transactions from the ledger into
+ * transactions_archive, so the hot table and its indexes only grow with
+ * payments that actually went through.
+ *
+ * Rows are moved in chunks of ARCHIVE_CHUNK_SIZE, one short transaction per
+ * chunk. Run in the background, each chunk is a separate task on the writer
+ * executor, so payments queued meanwhile are never stuck behind a long archive.
+ * Spend totals are unaffected: they only count successful debits.
+ */
+public class TransactionArchiver {
+
+    private static final String TAG = "DB_ARCHIVE";
+
+    // Oldest unsettled rows first, from idx_transaction_unsettled
+    static final String SQL_ARCHIVE_CANDIDATES =
+            "SELECT transaction_id FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE " + Schema.UNSETTLED + " AND transaction_date < ?" +
+                    " ORDER BY transaction_date LIMIT ?";
+
+    private static final String COLUMNS =
+            "transaction_id, vault_id, merchant_name, amount, transaction_type, " +
+                    "description, transaction_date, status";
+
+    private final DatabaseHelper dbHelper;
+
+    public TransactionArchiver(Context context) {
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
+    }
+
+    /**
+     * Archive everything older than the cutoff, one chunk per task on the executor
+     * @param writer Executor serialising database writes
+     * @param cutoff Unsettled transactions dated before this (epoch millis) are moved
+     */
+    public void archiveInBackground(final Executor writer, final long cutoff) {
+        writer.execute(new Runnable() {
+            private long moved;
+
+            @Override
+            public void run() {
+                int chunk;
+                try {
+                    chunk = archiveChunk(cutoff, Constants.ARCHIVE_CHUNK_SIZE);
+                } catch (Exception e) {
+                    Log.w(TAG, "Archiving stopped after " + moved + " transactions", e);
+                    return;
+                }
+
+                moved += chunk;
+                if (chunk == Constants.ARCHIVE_CHUNK_SIZE) {
+                    writer.execute(this);
+                } else if (moved > 0) {
+                    Log.d(TAG, "Archived " + moved + " transactions");
+                }
+            }
+        });
+    }
+
+    /**
+     * Move up to chunkSize of the oldest unsettled transactions before the cutoff
+     * @return number of transactions moved
+     */
+    int archiveChunk(long cutoff, int chunkSize) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int moved = 0;
+
+        db.beginTransactionNonExclusive();
+        try {
+            StringBuilder ids = new StringBuilder();
+            Cursor cursor = db.rawQuery(SQL_ARCHIVE_CANDIDATES,
+                    new String[]{String.valueOf(cutoff), String.valueOf(chunkSize)});
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    if (moved++ > 0) {
+                        ids.append(',');
+                    }
+                    ids.append(cursor.getLong(0));
+                }
+                cursor.close();
+            }
+
+            if (moved > 0) {
+                db.execSQL("INSERT INTO " + Constants.TABLE_TRANSACTIONS_ARCHIVE +
+                                " (" + COLUMNS + ", archived_at) SELECT " + COLUMNS + ", ? FROM " +
+                                Constants.TABLE_TRANSACTIONS + " WHERE transaction_id IN (" + ids + ")",
+                        new Object[]{System.currentTimeMillis()});
+                db.execSQL("DELETE FROM " + Constants.TABLE_TRANSACTIONS +
+                        " WHERE transaction_id IN (" + ids + ")");
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        return moved;
+    }
+}
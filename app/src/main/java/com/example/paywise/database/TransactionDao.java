@@ -6,14 +6,133 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.paywise.models.Transaction;
 import com.example.paywise.utils.Constants;
-import java.util.ArrayList;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
 import java.util.List;
 
 public class TransactionDao {
+
+    // History queries, newest first. The keyset bound "transaction_date <= ?" gives the
+    // index a range to seek to; the first page binds FIRST_PAGE_DATE / FIRST_PAGE_ID.
+    // CROSS JOIN keeps transactions as the outer loop so rows come out of
+    // idx_transaction_date already ordered instead of being sorted per user.
+    static final String SQL_PAGE_BY_USER =
+            "SELECT " + TransactionRowMapper.columns("t") + " FROM " + Constants.TABLE_TRANSACTIONS + " t " +
+                    "CROSS JOIN " + Constants.TABLE_VAULTS + " v ON t.vault_id = v.vault_id " +
+                    "WHERE v.user_id = ? AND t.transaction_date <= ? " +
+                    "AND (t.transaction_date < ? OR t.transaction_id < ?) " +
+                    "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT ?";
+
+    static final String SQL_PAGE_BY_VAULT =
+            "SELECT " + TransactionRowMapper.COLUMNS + " FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = ? AND transaction_date <= ? " +
+                    "AND (transaction_date < ? OR transaction_id < ?) " +
+                    "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?";
+
+    // Full history: the same pages over the ledger and the archive, merged.
+    // Each arm walks its own date index and SQLite merges the two ordered streams.
+    static final String SQL_FULL_PAGE_BY_USER =
+            "SELECT " + TransactionRowMapper.columns("t") + " FROM " + Constants.TABLE_TRANSACTIONS + " t " +
+                    "CROSS JOIN " + Constants.TABLE_VAULTS + " v ON t.vault_id = v.vault_id " +
+                    "WHERE v.user_id = ?1 AND t.transaction_date <= ?2 " +
+                    "AND (t.transaction_date < ?2 OR t.transaction_id < ?3) " +
+                    "UNION ALL " +
+                    "SELECT " + TransactionRowMapper.columns("a") + " FROM " + Constants.TABLE_TRANSACTIONS_ARCHIVE + " a " +
+                    "CROSS JOIN " + Constants.TABLE_VAULTS + " v ON a.vault_id = v.vault_id " +
+                    "WHERE v.user_id = ?1 AND a.transaction_date <= ?2 " +
+                    "AND (a.transaction_date < ?2 OR a.transaction_id < ?3) " +
+                    "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?4";
+
+    static final String SQL_FULL_PAGE_BY_VAULT =
+            "SELECT " + TransactionRowMapper.COLUMNS + " FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = ?1 AND transaction_date <= ?2 " +
+                    "AND (transaction_date < ?2 OR transaction_id < ?3) " +
+                    "UNION ALL " +
+                    "SELECT " + TransactionRowMapper.COLUMNS + " FROM " +
+                    Constants.TABLE_TRANSACTIONS_ARCHIVE +
+                    " WHERE vault_id = ?1 AND transaction_date <= ?2 " +
+                    "AND (transaction_date < ?2 OR transaction_id < ?3) " +
+                    "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?4";
+
+    // Whole ledger of a user, archive included, oldest first. Both arms walk
+    // their date index from the start and are merged, so nothing is sorted and
+    // rows can be streamed from a forward-only cursor.
+    static final String SQL_EXPORT_BY_USER =
+            "SELECT " + TransactionRowMapper.columns("t") + " FROM " + Constants.TABLE_TRANSACTIONS + " t " +
+                    "CROSS JOIN " + Constants.TABLE_VAULTS + " v ON t.vault_id = v.vault_id " +
+                    "WHERE v.user_id = ?1 " +
+                    "UNION ALL " +
+                    "SELECT " + TransactionRowMapper.columns("a") + " FROM " +
+                    Constants.TABLE_TRANSACTIONS_ARCHIVE + " a " +
+                    "CROSS JOIN " + Constants.TABLE_VAULTS + " v ON a.vault_id = v.vault_id " +
+                    "WHERE v.user_id = ?1 " +
+                    "ORDER BY transaction_date, transaction_id";
+
+    // Counted per vault from the (vault_id, transaction_date) indexes
+    static final String SQL_COUNT_ALL_BY_USER =
+            "SELECT (SELECT COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id IN (SELECT vault_id FROM " + Constants.TABLE_VAULTS + " WHERE user_id = ?1))" +
+                    " + (SELECT COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS_ARCHIVE +
+                    " WHERE vault_id IN (SELECT vault_id FROM " + Constants.TABLE_VAULTS + " WHERE user_id = ?1))";
+
+    static final String SQL_BETWEEN =
+            "SELECT " + TransactionRowMapper.COLUMNS + " FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE transaction_date >= ? AND transaction_date < ?" +
+                    " ORDER BY transaction_date, transaction_id";
+
+    static final String SQL_BY_ID =
+            "SELECT " + TransactionRowMapper.COLUMNS + " FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE transaction_id = ?";
+
+    // Payment attempts of a vault since a time, from idx_transaction_vault_date alone
+    static final String SQL_COUNT_SINCE =
+            "SELECT COUNT(*) FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = ? AND transaction_date >= ?";
+
+    // Same payment again, found through idx_transaction_successful_debit
+    static final String SQL_RECENT_DEBIT =
+            "SELECT 1 FROM " + Constants.TABLE_TRANSACTIONS +
+                    " WHERE vault_id = ? AND transaction_date >= ? AND amount = ? AND merchant_name = ?" +
+                    " AND " + Schema.SUCCESSFUL_DEBIT + " LIMIT 1";
+
+    // Keyset of a position before the newest row
+    static final long FIRST_PAGE_DATE = Long.MAX_VALUE;
+    static final int FIRST_PAGE_ID = Integer.MAX_VALUE;
+
+    // LIMIT value meaning no limit
+    private static final int NO_LIMIT = -1;
+
+    // Latency of each public method, see Metrics
+    private static final LatencyHistogram INSERT_TRANSACTION = Metrics.histogram("dao.transaction.insertTransaction");
+    private static final LatencyHistogram GET_TRANSACTIONS_BY_VAULT =
+            Metrics.histogram("dao.transaction.getTransactionsByVault");
+    private static final LatencyHistogram GET_ALL_TRANSACTIONS_BY_USER =
+            Metrics.histogram("dao.transaction.getAllTransactionsByUser");
+    private static final LatencyHistogram GET_TRANSACTIONS_PAGE_BY_USER =
+            Metrics.histogram("dao.transaction.getTransactionsPageByUser");
+    private static final LatencyHistogram GET_TRANSACTIONS_PAGE_BY_VAULT =
+            Metrics.histogram("dao.transaction.getTransactionsPageByVault");
+    private static final LatencyHistogram BETWEEN = Metrics.histogram("dao.transaction.between");
+    private static final LatencyHistogram STREAM_BETWEEN = Metrics.histogram("dao.transaction.streamBetween");
+    private static final LatencyHistogram STREAM_ALL_BY_USER = Metrics.histogram("dao.transaction.streamAllByUser");
+    private static final LatencyHistogram COUNT_ALL_BY_USER = Metrics.histogram("dao.transaction.countAllByUser");
+    private static final LatencyHistogram COUNT_BY_VAULT_SINCE = Metrics.histogram("dao.transaction.countByVaultSince");
+    private static final LatencyHistogram HAS_RECENT_DEBIT = Metrics.histogram("dao.transaction.hasRecentDebit");
+    private static final LatencyHistogram GET_RECENT_TRANSACTIONS =
+            Metrics.histogram("dao.transaction.getRecentTransactions");
+    private static final LatencyHistogram GET_TRANSACTION_BY_ID =
+            Metrics.histogram("dao.transaction.getTransactionById");
+    private static final LatencyHistogram UPDATE_TRANSACTION_STATUS =
+            Metrics.histogram("dao.transaction.updateTransactionStatus");
+    private static final LatencyHistogram GET_TOTAL_SPENT_BY_VAULT =
+            Metrics.histogram("dao.transaction.getTotalSpentByVault");
+
     private DatabaseHelper dbHelper;
+    private SpendTotalsDao spendTotalsDao;
 
     public TransactionDao(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
+        spendTotalsDao = new SpendTotalsDao(context);
     }
 
     /**
@@ -22,19 +141,21 @@ public class TransactionDao {
      * @return transaction ID of inserted transaction, -1 if failed
      */
     public long insertTransaction(Transaction transaction) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put("vault_id", transaction.getVaultId());
-        values.put("merchant_name", transaction.getMerchantName());
-        values.put("amount", transaction.getAmount());
-        values.put("transaction_type", transaction.getTransactionType());
-        values.put("description", transaction.getDescription());
-        values.put("transaction_date", transaction.getTransactionDate());
-        values.put("status", transaction.getStatus());
-
-        long transactionId = db.insert(Constants.TABLE_TRANSACTIONS, null, values);
-        return transactionId;
+        return DaoTimer.timeLong(INSERT_TRANSACTION, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put("vault_id", transaction.getVaultId());
+            values.put("merchant_name", transaction.getMerchantName());
+            values.put("amount", transaction.getAmount());
+            values.put("transaction_type", transaction.getTransactionType());
+            values.put("description", transaction.getDescription());
+            values.put("transaction_date", transaction.getTransactionDate());
+            values.put("status", transaction.getStatus());
+
+            long transactionId = db.insert(Constants.TABLE_TRANSACTIONS, null, values);
+            return transactionId;
+        });
     }
 
     /**
@@ -43,25 +164,9 @@ public class TransactionDao {
      * @return List of transactions
      */
     public List<Transaction> getTransactionsByVault(int vaultId) {
-        List<Transaction> transactionList = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        Cursor cursor = db.query(Constants.TABLE_TRANSACTIONS,
-                null,
-                "vault_id = ?",
-                new String[]{String.valueOf(vaultId)},
-                null, null,
-                "transaction_date DESC");
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Transaction transaction = extractTransactionFromCursor(cursor);
-                transactionList.add(transaction);
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-        return transactionList;
+        return DaoTimer.time(GET_TRANSACTIONS_BY_VAULT, () -> {
+            return getTransactionsPageByVault(vaultId, FIRST_PAGE_DATE, FIRST_PAGE_ID, NO_LIMIT);
+        });
     }
 
     /**
@@ -70,153 +175,246 @@ public class TransactionDao {
      * @return List of transactions
      */
     public List<Transaction> getAllTransactionsByUser(int userId) {
-        List<Transaction> transactionList = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        String query = "SELECT t.* FROM " + Constants.TABLE_TRANSACTIONS + " t " +
-                "INNER JOIN " + Constants.TABLE_VAULTS + " v ON t.vault_id = v.vault_id " +
-                "WHERE v.user_id = ? " +
-                "ORDER BY t.transaction_date DESC";
-
-        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Transaction transaction = extractTransactionFromCursor(cursor);
-                transactionList.add(transaction);
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-        return transactionList;
+        return DaoTimer.time(GET_ALL_TRANSACTIONS_BY_USER, () -> {
+            return getTransactionsPageByUser(userId, FIRST_PAGE_DATE, FIRST_PAGE_ID, NO_LIMIT);
+        });
     }
 
     /**
-     * Get recent transactions (limit)
+     * Get one page of a user's transactions, newest first.
+     * Pages by keyset on (transaction_date, transaction_id) so every page costs
+     * the same regardless of how deep the user has scrolled. Archived
+     * transactions are not included.
      * @param userId User ID
-     * @param limit Number of transactions to fetch
-     * @return List of recent transactions
+     * @param afterDate transaction_date of the last row of the previous page
+     * @param afterId transaction_id of the last row of the previous page, 0 for the first page
+     * @param pageSize Maximum rows to return
+     * @return List of transactions
      */
-    public List<Transaction> getRecentTransactions(int userId, int limit) {
-        List<Transaction> transactionList = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        String query = "SELECT t.* FROM " + Constants.TABLE_TRANSACTIONS + " t " +
-                "INNER JOIN " + Constants.TABLE_VAULTS + " v ON t.vault_id = v.vault_id " +
-                "WHERE v.user_id = ? " +
-                "ORDER BY t.transaction_date DESC LIMIT ?";
-
-        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId), String.valueOf(limit)});
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Transaction transaction = extractTransactionFromCursor(cursor);
-                transactionList.add(transaction);
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-        return transactionList;
+    public List<Transaction> getTransactionsPageByUser(int userId, long afterDate, int afterId, int pageSize) {
+        return getTransactionsPageByUser(userId, afterDate, afterId, pageSize, false);
     }
 
     /**
-     * Get transaction by ID
-     * @param transactionId Transaction ID
-     * @return Transaction object or null
+     * Get one page of a user's transactions, optionally including archived ones
+     * @param includeArchived true for full history, merging in failed and pending
+     *                        transactions moved to the archive by TransactionArchiver
+     * @see #getTransactionsPageByUser(int, long, int, int)
      */
-    public Transaction getTransactionById(int transactionId) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Transaction transaction = null;
+    public List<Transaction> getTransactionsPageByUser(int userId, long afterDate, int afterId, int pageSize,
+                                                       boolean includeArchived) {
+        long fromDate = afterId <= 0 ? FIRST_PAGE_DATE : afterDate;
+        int fromId = afterId <= 0 ? FIRST_PAGE_ID : afterId;
+        return DaoTimer.time(GET_TRANSACTIONS_PAGE_BY_USER, () -> {
+            if (includeArchived) {
+                return queryTransactions(SQL_FULL_PAGE_BY_USER, new String[]{String.valueOf(userId),
+                        String.valueOf(fromDate), String.valueOf(fromId), String.valueOf(pageSize)});
+            }
+            return queryTransactions(SQL_PAGE_BY_USER, new String[]{String.valueOf(userId),
+                    String.valueOf(fromDate), String.valueOf(fromDate),
+                    String.valueOf(fromId), String.valueOf(pageSize)});
+        });
+    }
 
-        Cursor cursor = db.query(Constants.TABLE_TRANSACTIONS,
-                null,
-                "transaction_id = ?",
-                new String[]{String.valueOf(transactionId)},
-                null, null, null);
+    /**
+     * Get one page of a vault's transactions, newest first (keyset paginated)
+     * @param vaultId Vault ID
+     * @param afterDate transaction_date of the last row of the previous page
+     * @param afterId transaction_id of the last row of the previous page, 0 for the first page
+     * @param pageSize Maximum rows to return
+     * @return List of transactions
+     */
+    public List<Transaction> getTransactionsPageByVault(int vaultId, long afterDate, int afterId, int pageSize) {
+        return getTransactionsPageByVault(vaultId, afterDate, afterId, pageSize, false);
+    }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            transaction = extractTransactionFromCursor(cursor);
-            cursor.close();
-        }
+    /**
+     * Get one page of a vault's transactions, optionally including archived ones
+     * @param includeArchived true for full history
+     * @see #getTransactionsPageByVault(int, long, int, int)
+     */
+    public List<Transaction> getTransactionsPageByVault(int vaultId, long afterDate, int afterId, int pageSize,
+                                                        boolean includeArchived) {
+        long fromDate = afterId <= 0 ? FIRST_PAGE_DATE : afterDate;
+        int fromId = afterId <= 0 ? FIRST_PAGE_ID : afterId;
+        return DaoTimer.time(GET_TRANSACTIONS_PAGE_BY_VAULT, () -> {
+            if (includeArchived) {
+                return queryTransactions(SQL_FULL_PAGE_BY_VAULT, new String[]{String.valueOf(vaultId),
+                        String.valueOf(fromDate), String.valueOf(fromId), String.valueOf(pageSize)});
+            }
+            return queryTransactions(SQL_PAGE_BY_VAULT, new String[]{String.valueOf(vaultId),
+                    String.valueOf(fromDate), String.valueOf(fromDate),
+                    String.valueOf(fromId), String.valueOf(pageSize)});
+        });
+    }
 
-        return transaction;
+    /**
+     * Get transactions in a time window, oldest first.
+     * A range scan on idx_transaction_date; use DateUtils.getMonthStart/getWeekStart
+     * and their "next" counterparts for calendar windows.
+     * @param from Start of the window in epoch millis (inclusive)
+     * @param to End of the window in epoch millis (exclusive)
+     * @return List of transactions
+     */
+    public List<Transaction> between(long from, long to) {
+        return DaoTimer.time(BETWEEN, () -> {
+            return queryTransactions(SQL_BETWEEN, new String[]{String.valueOf(from), String.valueOf(to)});
+        });
     }
 
     /**
-     * Update transaction status
-     * @param transactionId Transaction ID
-     * @param status New status
-     * @return number of rows affected
+     * Stream the transactions of a time window, oldest first, without building a list
+     * @param from Start of the window in epoch millis (inclusive)
+     * @param to End of the window in epoch millis (exclusive)
+     * @param consumer Receives each row; the same Transaction object is refilled for every row
+     * @return number of rows streamed
      */
-    public int updateTransactionStatus(int transactionId, String status) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put("status", status);
+    public int streamBetween(long from, long to, RowConsumer<Transaction> consumer) {
+        return DaoTimer.timeInt(STREAM_BETWEEN, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_BETWEEN, new String[]{String.valueOf(from), String.valueOf(to)});
+            return Rows.stream(cursor, TransactionRowMapper.FACTORY, consumer, true);
+        });
+    }
 
-        int rowsAffected = db.update(Constants.TABLE_TRANSACTIONS,
-                values,
-                "transaction_id = ?",
-                new String[]{String.valueOf(transactionId)});
+    /**
+     * Stream every transaction of a user, archived ones included, oldest first.
+     * Rows come straight off a forward-only cursor, so memory use does not depend
+     * on the size of the ledger.
+     * @param userId User ID
+     * @param consumer Receives each row; the same Transaction object is refilled
+     *                 for every row. Return false to stop early.
+     * @return number of rows streamed
+     */
+    public int streamAllByUser(int userId, RowConsumer<Transaction> consumer) {
+        return DaoTimer.timeInt(STREAM_ALL_BY_USER, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_EXPORT_BY_USER, new String[]{String.valueOf(userId)});
+            return Rows.stream(cursor, TransactionRowMapper.FACTORY, consumer, true);
+        });
+    }
 
-        return rowsAffected;
+    /**
+     * Count every transaction of a user, archived ones included
+     * @param userId User ID
+     * @return number of transactions
+     */
+    public long countAllByUser(int userId) {
+        return DaoTimer.timeLong(COUNT_ALL_BY_USER, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_COUNT_ALL_BY_USER, new String[]{String.valueOf(userId)});
+            long count = 0;
+            if (cursor != null) {
+                if (cursor.moveToFirst()) {
+                    count = cursor.getLong(0);
+                }
+                cursor.close();
+            }
+            return count;
+        });
     }
 
     /**
-     * Get total spent for a vault
+     * Count a vault's transactions, successful or not, since a time
      * @param vaultId Vault ID
-     * @return Total spent amount
+     * @param since Epoch millis, inclusive
+     * @return number of transactions
      */
-    public double getTotalSpentByVault(int vaultId) {
-        double totalSpent = 0;
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        Cursor cursor = db.rawQuery(
-                "SELECT SUM(amount) as total FROM " + Constants.TABLE_TRANSACTIONS +
-                        " WHERE vault_id = ? AND transaction_type = ? AND status = ?",
-                new String[]{String.valueOf(vaultId), Constants.TRANSACTION_TYPE_DEBIT, Constants.TRANSACTION_STATUS_SUCCESS});
+    public int countByVaultSince(int vaultId, long since) {
+        return DaoTimer.timeInt(COUNT_BY_VAULT_SINCE, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_COUNT_SINCE,
+                    new String[]{String.valueOf(vaultId), String.valueOf(since)});
+            int count = 0;
+            if (cursor != null) {
+                if (cursor.moveToFirst()) {
+                    count = cursor.getInt(0);
+                }
+                cursor.close();
+            }
+            return count;
+        });
+    }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            totalSpent = cursor.getDouble(0);
-            cursor.close();
-        }
+    /**
+     * Check for a successful debit of the same amount to the same merchant
+     * @param vaultId Vault ID
+     * @param merchantName Merchant name
+     * @param amount Amount in paise
+     * @param since Epoch millis, inclusive
+     * @return true if there is one
+     */
+    public boolean hasRecentDebit(int vaultId, String merchantName, long amount, long since) {
+        return DaoTimer.time(HAS_RECENT_DEBIT, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_RECENT_DEBIT, new String[]{String.valueOf(vaultId),
+                    String.valueOf(since), String.valueOf(amount), merchantName});
+            boolean exists = cursor != null && cursor.moveToFirst();
+            if (cursor != null) cursor.close();
+            return exists;
+        });
+    }
 
-        return totalSpent;
+    private List<Transaction> queryTransactions(String query, String[] args) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        return Rows.toList(db.rawQuery(query, args), TransactionRowMapper.FACTORY);
     }
 
     /**
-     * Extract Transaction object from cursor
+     * Get recent transactions (limit)
+     * @param userId User ID
+     * @param limit Number of transactions to fetch
+     * @return List of recent transactions
      */
-    private Transaction extractTransactionFromCursor(Cursor cursor) {
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(cursor.getInt(cursor.getColumnIndexOrThrow("transaction_id")));
-        transaction.setVaultId(cursor.getInt(cursor.getColumnIndexOrThrow("vault_id")));
-        transaction.setMerchantName(cursor.getString(cursor.getColumnIndexOrThrow("merchant_name")));
-        transaction.setAmount(cursor.getDouble(cursor.getColumnIndexOrThrow("amount")));
-        transaction.setTransactionType(cursor.getString(cursor.getColumnIndexOrThrow("transaction_type")));
-        transaction.setDescription(cursor.getString(cursor.getColumnIndexOrThrow("description")));
-        transaction.setTransactionDate(cursor.getString(cursor.getColumnIndexOrThrow("transaction_date")));
-        transaction.setStatus(cursor.getString(cursor.getColumnIndexOrThrow("status")));
-        return transaction;
+    public List<Transaction> getRecentTransactions(int userId, int limit) {
+        return DaoTimer.time(GET_RECENT_TRANSACTIONS, () -> {
+            return getTransactionsPageByUser(userId, FIRST_PAGE_DATE, FIRST_PAGE_ID, limit);
+        });
     }
 
     /**
-     * Insert service log
-     * @param serviceName Name of the service
-     * @param actionType Type of action performed
-     * @param message Log message
-     * @param timestamp Timestamp
-     * @return log ID or -1 if failed
+     * Get transaction by ID
+     * @param transactionId Transaction ID
+     * @return Transaction object or null
      */
-    public long insertServiceLog(String serviceName, String actionType, String message, String timestamp) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
+    public Transaction getTransactionById(int transactionId) {
+        return DaoTimer.time(GET_TRANSACTION_BY_ID, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_BY_ID, new String[]{String.valueOf(transactionId)});
+            return Rows.first(cursor, TransactionRowMapper.FACTORY);
+        });
+    }
 
-        values.put("service_name", serviceName);
-        values.put("action_type", actionType);
-        values.put("message", message);
-        values.put("timestamp", timestamp);
+    /**
+     * Update transaction status
+     * @param transactionId Transaction ID
+     * @param status New status
+     * @return number of rows affected
+     */
+    public int updateTransactionStatus(int transactionId, String status) {
+        return DaoTimer.timeInt(UPDATE_TRANSACTION_STATUS, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+            values.put("status", status);
+
+            int rowsAffected = db.update(Constants.TABLE_TRANSACTIONS,
+                    values,
+                    "transaction_id = ?",
+                    new String[]{String.valueOf(transactionId)});
+
+            return rowsAffected;
+        });
+    }
 
-        long logId = db.insert(Constants.TABLE_SERVICE_LOGS, null, values);
-        return logId;
+    /**
+     * Get total spent for a vault.
+     * Reads the per-month running totals instead of scanning the ledger.
+     * @param vaultId Vault ID
+     * @return Total spent amount in paise
+     */
+    public long getTotalSpentByVault(int vaultId) {
+        return DaoTimer.timeLong(GET_TOTAL_SPENT_BY_VAULT, () -> {
+            return spendTotalsDao.getTotalSpent(vaultId);
+        });
     }
 }
\ No newline at end of file
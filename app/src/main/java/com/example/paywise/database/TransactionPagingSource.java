@@ -0,0 +1,142 @@
+package com.example.paywise.database;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Incremental source of transaction history pages.
+ * Queries run on the given executor and results are delivered on the main
+ * thread. Each page continues from the (transaction_date, transaction_id) key
+ * of the last row already delivered, so only one page is held per load.
+ */
+public class TransactionPagingSource {
+
+    public interface PageCallback {
+        void onPageLoaded(List<Transaction> page, boolean isFirstPage, boolean endReached);
+    }
+
+    private static final String TAG = "TransactionPaging";
+    private static final LatencyHistogram HISTORY_LOAD = Metrics.histogram("history.loadPage");
+
+    private final TransactionDao transactionDao;
+    private final VaultDao vaultDao;
+    private final int userId;
+    private final int vaultId;
+    private final int pageSize;
+    private final boolean includeArchived;
+    private final Executor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Keyset of the last delivered row; only touched on the main thread
+    private long lastDate;
+    private int lastId;
+    private boolean loading;
+    private boolean endReached;
+    // Bumped by reset() so a page loaded for the old position is dropped
+    private int generation;
+
+    /**
+     * @param transactionDao DAO used for queries
+     * @param vaultDao DAO used to warm the vault name cache
+     * @param userId User whose history is paged
+     * @param vaultId Restrict to one vault, or -1 for all of the user's vaults
+     * @param pageSize Rows per page
+     * @param includeArchived Also page through archived failed and pending transactions
+     * @param executor Executor the queries run on
+     */
+    public TransactionPagingSource(TransactionDao transactionDao, VaultDao vaultDao, int userId,
+                                   int vaultId, int pageSize, boolean includeArchived, Executor executor) {
+        this.transactionDao = transactionDao;
+        this.vaultDao = vaultDao;
+        this.userId = userId;
+        this.vaultId = vaultId;
+        this.pageSize = pageSize;
+        this.includeArchived = includeArchived;
+        this.executor = executor;
+    }
+
+    /**
+     * Load the next page unless a load is in flight or the end was reached.
+     * Must be called on the main thread. If the executor rejects the query,
+     * nothing is loaded and the next call tries again.
+     */
+    public void loadNextPage(final PageCallback callback) {
+        if (loading || endReached) {
+            return;
+        }
+        loading = true;
+
+        final long afterDate = lastDate;
+        final int afterId = lastId;
+        final long started = Metrics.now();
+        final int loadGeneration = generation;
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // Rows are bound with cached vault names, never with a query per row
+                    VaultNameCache.ensureLoaded(vaultDao);
+
+                    final List<Transaction> page = vaultId != -1
+                            ? transactionDao.getTransactionsPageByVault(vaultId, afterDate, afterId, pageSize,
+                            includeArchived)
+                            : transactionDao.getTransactionsPageByUser(userId, afterDate, afterId, pageSize,
+                            includeArchived);
+
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            // Request to rows on the main thread, queueing included
+                            HISTORY_LOAD.recordSince(started);
+                            deliver(page, afterId == 0, loadGeneration, callback);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "History page not loaded, executor is full", e);
+            loading = false;
+        }
+    }
+
+    /**
+     * Forget the current position so the next load starts from the newest row
+     */
+    public void reset() {
+        generation++;
+        loading = false;
+        lastDate = 0;
+        lastId = 0;
+        endReached = false;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    private void deliver(List<Transaction> page, boolean isFirstPage, int loadGeneration,
+                         PageCallback callback) {
+        if (loadGeneration != generation) {
+            // Loaded before a reset(); the load for the new position is separate
+            return;
+        }
+        loading = false;
+        endReached = page.size() < pageSize;
+
+        if (!page.isEmpty()) {
+            Transaction last = page.get(page.size() - 1);
+            lastDate = last.getTransactionDate();
+            lastId = last.getTransactionId();
+        }
+
+        callback.onPageLoaded(page, isFirstPage, endReached);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import com.example.paywise.models.Transaction;
+
+/**
+ * Maps transactions and transactions_archive rows selected with {@link #COLUMNS}
+ */
+final class TransactionRowMapper implements RowMapper<Transaction> {
+
+    static final String COLUMNS = columns(null);
+
+    static final RowMapper.Factory<Transaction> FACTORY = new RowMapper.Factory<Transaction>() {
+        @Override
+        public RowMapper<Transaction> bind(Cursor cursor) {
+            return new TransactionRowMapper(cursor);
+        }
+    };
+
+    private final int transactionId;
+    private final int vaultId;
+    private final int merchantName;
+    private final int amount;
+    private final int transactionType;
+    private final int description;
+    private final int transactionDate;
+    private final int status;
+
+    private TransactionRowMapper(Cursor cursor) {
+        transactionId = cursor.getColumnIndexOrThrow("transaction_id");
+        vaultId = cursor.getColumnIndexOrThrow("vault_id");
+        merchantName = cursor.getColumnIndexOrThrow("merchant_name");
+        amount = cursor.getColumnIndexOrThrow("amount");
+        transactionType = cursor.getColumnIndexOrThrow("transaction_type");
+        description = cursor.getColumnIndexOrThrow("description");
+        transactionDate = cursor.getColumnIndexOrThrow("transaction_date");
+        status = cursor.getColumnIndexOrThrow("status");
+    }
+
+    /**
+     * The mapped columns, qualified by a table name or alias
+     * @param table Qualifier, or null for none
+     */
+    static String columns(String table) {
+        String prefix = table == null ? "" : table + ".";
+        return prefix + "transaction_id, " + prefix + "vault_id, " + prefix + "merchant_name, " +
+                prefix + "amount, " + prefix + "transaction_type, " + prefix + "description, " +
+                prefix + "transaction_date, " + prefix + "status";
+    }
+
+    @Override
+    public Transaction map(Cursor cursor, Transaction reuse) {
+        Transaction transaction = reuse != null ? reuse : new Transaction();
+        transaction.setTransactionId(cursor.getInt(transactionId));
+        transaction.setVaultId(cursor.getInt(vaultId));
+        transaction.setMerchantName(cursor.getString(merchantName));
+        transaction.setAmount(cursor.getLong(amount));
+        transaction.setTransactionType(cursor.getString(transactionType));
+        transaction.setDescription(cursor.getString(description));
+        transaction.setTransactionDate(cursor.getLong(transactionDate));
+        transaction.setStatus(cursor.getString(status));
+        return transaction;
+    }
+}
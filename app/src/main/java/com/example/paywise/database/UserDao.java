@@ -6,12 +6,33 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.paywise.models.User;
 import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
 
 public class UserDao {
+
+    // Both stop at the first row of users instead of counting the table
+    static final String SQL_ANY_USER =
+            "SELECT 1 FROM " + Constants.TABLE_USERS + " LIMIT 1";
+
+    static final String SQL_FIRST_USER =
+            "SELECT " + UserRowMapper.COLUMNS + " FROM " + Constants.TABLE_USERS +
+                    " ORDER BY user_id ASC LIMIT 1";
+
+    static final String SQL_BY_ID =
+            "SELECT " + UserRowMapper.COLUMNS + " FROM " + Constants.TABLE_USERS + " WHERE user_id = ?";
+
+    // Latency of each public method, see Metrics
+    private static final LatencyHistogram INSERT_USER = Metrics.histogram("dao.user.insertUser");
+    private static final LatencyHistogram GET_USER_BY_ID = Metrics.histogram("dao.user.getUserById");
+    private static final LatencyHistogram UPDATE_USER = Metrics.histogram("dao.user.updateUser");
+    private static final LatencyHistogram IS_USER_EXISTS = Metrics.histogram("dao.user.isUserExists");
+    private static final LatencyHistogram GET_FIRST_USER = Metrics.histogram("dao.user.getFirstUser");
+
     private DatabaseHelper dbHelper;
 
     public UserDao(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
     }
 
     /**
@@ -20,18 +41,20 @@ public class UserDao {
      * @return user ID of inserted user, -1 if failed
      */
     public long insertUser(User user) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put("full_name", user.getFullName());
-        values.put("email", user.getEmail());
-        values.put("phone", user.getPhone());
-        values.put("profile_image_path", user.getProfileImagePath());
-        values.put("created_at", user.getCreatedAt());
-        values.put("updated_at", user.getUpdatedAt());
-
-        long userId = db.insert(Constants.TABLE_USERS, null, values);
-        return userId;
+        return DaoTimer.timeLong(INSERT_USER, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put("full_name", user.getFullName());
+            values.put("email", user.getEmail());
+            values.put("phone", user.getPhone());
+            values.put("profile_image_path", user.getProfileImagePath());
+            values.put("created_at", user.getCreatedAt());
+            values.put("updated_at", user.getUpdatedAt());
+
+            long userId = db.insert(Constants.TABLE_USERS, null, values);
+            return userId;
+        });
     }
 
     /**
@@ -40,28 +63,11 @@ public class UserDao {
      * @return User object or null
      */
     public User getUserById(int userId) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        User user = null;
-
-        Cursor cursor = db.query(Constants.TABLE_USERS,
-                null,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)},
-                null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            user = new User();
-            user.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow("user_id")));
-            user.setFullName(cursor.getString(cursor.getColumnIndexOrThrow("full_name")));
-            user.setEmail(cursor.getString(cursor.getColumnIndexOrThrow("email")));
-            user.setPhone(cursor.getString(cursor.getColumnIndexOrThrow("phone")));
-            user.setProfileImagePath(cursor.getString(cursor.getColumnIndexOrThrow("profile_image_path")));
-            user.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow("created_at")));
-            user.setUpdatedAt(cursor.getString(cursor.getColumnIndexOrThrow("updated_at")));
-            cursor.close();
-        }
-
-        return user;
+        return DaoTimer.time(GET_USER_BY_ID, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_BY_ID, new String[]{String.valueOf(userId)});
+            return Rows.first(cursor, UserRowMapper.FACTORY);
+        });
     }
 
     /**
@@ -70,21 +76,23 @@ public class UserDao {
      * @return number of rows affected
      */
     public int updateUser(User user) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put("full_name", user.getFullName());
-        values.put("email", user.getEmail());
-        values.put("phone", user.getPhone());
-        values.put("profile_image_path", user.getProfileImagePath());
-        values.put("updated_at", user.getUpdatedAt());
-
-        int rowsAffected = db.update(Constants.TABLE_USERS,
-                values,
-                "user_id = ?",
-                new String[]{String.valueOf(user.getUserId())});
-
-        return rowsAffected;
+        return DaoTimer.timeInt(UPDATE_USER, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put("full_name", user.getFullName());
+            values.put("email", user.getEmail());
+            values.put("phone", user.getPhone());
+            values.put("profile_image_path", user.getProfileImagePath());
+            values.put("updated_at", user.getUpdatedAt());
+
+            int rowsAffected = db.update(Constants.TABLE_USERS,
+                    values,
+                    "user_id = ?",
+                    new String[]{String.valueOf(user.getUserId())});
+
+            return rowsAffected;
+        });
     }
 
     /**
@@ -92,15 +100,14 @@ public class UserDao {
      * @return true if user exists
      */
     public boolean isUserExists() {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + Constants.TABLE_USERS, null);
-
-        boolean exists = false;
-        if (cursor.moveToFirst()) {
-            exists = cursor.getInt(0) > 0;
-        }
-        cursor.close();
-        return exists;
+        return DaoTimer.time(IS_USER_EXISTS, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_ANY_USER, null);
+
+            boolean exists = cursor.moveToFirst();
+            cursor.close();
+            return exists;
+        });
     }
 
     /**
@@ -108,25 +115,9 @@ public class UserDao {
      * @return User object or null
      */
     public User getFirstUser() {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        User user = null;
-
-        Cursor cursor = db.query(Constants.TABLE_USERS,
-                null, null, null, null, null,
-                "user_id ASC", "1");
-
-        if (cursor != null && cursor.moveToFirst()) {
-            user = new User();
-            user.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow("user_id")));
-            user.setFullName(cursor.getString(cursor.getColumnIndexOrThrow("full_name")));
-            user.setEmail(cursor.getString(cursor.getColumnIndexOrThrow("email")));
-            user.setPhone(cursor.getString(cursor.getColumnIndexOrThrow("phone")));
-            user.setProfileImagePath(cursor.getString(cursor.getColumnIndexOrThrow("profile_image_path")));
-            user.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow("created_at")));
-            user.setUpdatedAt(cursor.getString(cursor.getColumnIndexOrThrow("updated_at")));
-            cursor.close();
-        }
-
-        return user;
+        return DaoTimer.time(GET_FIRST_USER, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            return Rows.first(db.rawQuery(SQL_FIRST_USER, null), UserRowMapper.FACTORY);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import com.example.paywise.models.User;
+
+/**
+ * Maps users rows selected with {@link #COLUMNS}
+ */
+final class UserRowMapper implements RowMapper<User> {
+
+    static final String COLUMNS =
+            "user_id, full_name, email, phone, profile_image_path, created_at, updated_at";
+
+    static final RowMapper.Factory<User> FACTORY = new RowMapper.Factory<User>() {
+        @Override
+        public RowMapper<User> bind(Cursor cursor) {
+            return new UserRowMapper(cursor);
+        }
+    };
+
+    private final int userId;
+    private final int fullName;
+    private final int email;
+    private final int phone;
+    private final int profileImagePath;
+    private final int createdAt;
+    private final int updatedAt;
+
+    private UserRowMapper(Cursor cursor) {
+        userId = cursor.getColumnIndexOrThrow("user_id");
+        fullName = cursor.getColumnIndexOrThrow("full_name");
+        email = cursor.getColumnIndexOrThrow("email");
+        phone = cursor.getColumnIndexOrThrow("phone");
+        profileImagePath = cursor.getColumnIndexOrThrow("profile_image_path");
+        createdAt = cursor.getColumnIndexOrThrow("created_at");
+        updatedAt = cursor.getColumnIndexOrThrow("updated_at");
+    }
+
+    @Override
+    public User map(Cursor cursor, User reuse) {
+        User user = reuse != null ? reuse : new User();
+        user.setUserId(cursor.getInt(userId));
+        user.setFullName(cursor.getString(fullName));
+        user.setEmail(cursor.getString(email));
+        user.setPhone(cursor.getString(phone));
+        user.setProfileImagePath(cursor.getString(profileImagePath));
+        user.setCreatedAt(cursor.getString(createdAt));
+        user.setUpdatedAt(cursor.getString(updatedAt));
+        return user;
+    }
+}
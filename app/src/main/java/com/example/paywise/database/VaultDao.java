@@ -4,16 +4,82 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.SparseArray;
 import com.example.paywise.models.Vault;
 import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class VaultDao {
+
+    // Served by idx_vault_user_active; rows come out in vault_id order from the index
+    static final String SQL_ACTIVE_BY_USER =
+            "SELECT " + VaultRowMapper.COLUMNS + " FROM " + Constants.TABLE_VAULTS +
+                    " WHERE user_id = ? AND is_active = 1 ORDER BY vault_id ASC";
+
+    static final String SQL_BY_ID =
+            "SELECT " + VaultRowMapper.COLUMNS + " FROM " + Constants.TABLE_VAULTS + " WHERE vault_id = ?";
+
+    static final String SQL_AVAILABLE_BALANCE =
+            "SELECT SUM(monthly_limit - current_spent) AS total FROM " + Constants.TABLE_VAULTS +
+                    " WHERE user_id = ? AND is_active = 1";
+
+    // Answered from idx_vault_user_type alone
+    static final String SQL_TYPE_EXISTS =
+            "SELECT 1 FROM " + Constants.TABLE_VAULTS +
+                    " WHERE user_id = ? AND vault_type = ? AND is_active = 1 LIMIT 1";
+
+    // Both served by idx_vault_active_reset
+    static final String SQL_EARLIEST_RESET =
+            "SELECT MIN(reset_date) FROM " + Constants.TABLE_VAULTS + " WHERE is_active = 1";
+
+    static final String SQL_USERS_DUE_FOR_RESET =
+            "SELECT user_id FROM " + Constants.TABLE_VAULTS +
+                    " WHERE is_active = 1 AND reset_date <= ?";
+
+    // Claims the period; ignored if its reset already ran
+    static final String SQL_CLAIM_RESET_RUN =
+            "INSERT OR IGNORE INTO " + Constants.TABLE_RESET_RUNS +
+                    " (user_id, period, completed_at) VALUES (?1, " + Schema.periodOf("?2") + ", ?2)";
+
+    // Vaults left behind by a period that was already reset, e.g. reactivated ones
+    static final String SQL_ADVANCE_STALE_RESETS =
+            "UPDATE " + Constants.TABLE_VAULTS + " SET reset_date = ?" +
+                    " WHERE user_id = ? AND is_active = 1 AND reset_date <= ?";
+
+    static final String SQL_COMPLETE_RESET_RUN =
+            "UPDATE " + Constants.TABLE_RESET_RUNS + " SET vaults_reset = ?" +
+                    " WHERE user_id = ? AND period = " + Schema.periodOf("?");
+
+    // Deliberately a full read: every vault name, for the name cache
+    static final String SQL_ALL_NAMES =
+            "SELECT vault_id, vault_name FROM " + Constants.TABLE_VAULTS;
+
+    // Latency of each public method, see Metrics
+    private static final LatencyHistogram INSERT_VAULT = Metrics.histogram("dao.vault.insertVault");
+    private static final LatencyHistogram GET_ALL_VAULTS_BY_USER = Metrics.histogram("dao.vault.getAllVaultsByUser");
+    private static final LatencyHistogram GET_VAULT_BY_ID = Metrics.histogram("dao.vault.getVaultById");
+    private static final LatencyHistogram UPDATE_VAULT = Metrics.histogram("dao.vault.updateVault");
+    private static final LatencyHistogram UPDATE_VAULT_SPENDING = Metrics.histogram("dao.vault.updateVaultSpending");
+    private static final LatencyHistogram DELETE_VAULT = Metrics.histogram("dao.vault.deleteVault");
+    private static final LatencyHistogram RESET_ALL_VAULTS = Metrics.histogram("dao.vault.resetAllVaults");
+    private static final LatencyHistogram RESET_ALL_VAULTS_ONCE = Metrics.histogram("dao.vault.resetAllVaultsOnce");
+    private static final LatencyHistogram GET_EARLIEST_RESET_DATE = Metrics.histogram("dao.vault.getEarliestResetDate");
+    private static final LatencyHistogram GET_USERS_DUE_FOR_RESET = Metrics.histogram("dao.vault.getUsersDueForReset");
+    private static final LatencyHistogram GET_TOTAL_AVAILABLE_BALANCE =
+            Metrics.histogram("dao.vault.getTotalAvailableBalance");
+    private static final LatencyHistogram VAULT_TYPE_EXISTS = Metrics.histogram("dao.vault.vaultTypeExists");
+    private static final LatencyHistogram GET_ALL_VAULT_NAMES = Metrics.histogram("dao.vault.getAllVaultNames");
+
     private DatabaseHelper dbHelper;
 
     public VaultDao(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbHelper = DatabaseManager.getInstance(context).getHelper();
     }
 
     /**
@@ -22,21 +88,24 @@ public class VaultDao {
      * @return vault ID of inserted vault, -1 if failed
      */
     public long insertVault(Vault vault) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put("user_id", vault.getUserId());
-        values.put("vault_name", vault.getVaultName());
-        values.put("vault_type", vault.getVaultType());
-        values.put("monthly_limit", vault.getMonthlyLimit());
-        values.put("current_spent", vault.getCurrentSpent());
-        values.put("vault_color", vault.getVaultColor());
-        values.put("is_active", vault.isActive() ? 1 : 0);
-        values.put("created_at", vault.getCreatedAt());
-        values.put("reset_date", vault.getResetDate());
-
-        long vaultId = db.insert(Constants.TABLE_VAULTS, null, values);
-        return vaultId;
+        return DaoTimer.timeLong(INSERT_VAULT, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put("user_id", vault.getUserId());
+            values.put("vault_name", vault.getVaultName());
+            values.put("vault_type", vault.getVaultType());
+            values.put("monthly_limit", vault.getMonthlyLimit());
+            values.put("current_spent", vault.getCurrentSpent());
+            values.put("vault_color", vault.getVaultColor());
+            values.put("is_active", vault.isActive() ? 1 : 0);
+            values.put("created_at", vault.getCreatedAt());
+            values.put("reset_date", vault.getResetDate());
+
+            long vaultId = db.insert(Constants.TABLE_VAULTS, null, values);
+            VaultNameCache.invalidate();
+            return vaultId;
+        });
     }
 
     /**
@@ -45,25 +114,11 @@ public class VaultDao {
      * @return List of vaults
      */
     public List<Vault> getAllVaultsByUser(int userId) {
-        List<Vault> vaultList = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        Cursor cursor = db.query(Constants.TABLE_VAULTS,
-                null,
-                "user_id = ? AND is_active = 1",
-                new String[]{String.valueOf(userId)},
-                null, null,
-                "vault_id ASC");
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Vault vault = extractVaultFromCursor(cursor);
-                vaultList.add(vault);
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-        return vaultList;
+        return DaoTimer.time(GET_ALL_VAULTS_BY_USER, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_ACTIVE_BY_USER, new String[]{String.valueOf(userId)});
+            return Rows.toList(cursor, VaultRowMapper.FACTORY);
+        });
     }
 
     /**
@@ -72,21 +127,11 @@ public class VaultDao {
      * @return Vault object or null
      */
     public Vault getVaultById(int vaultId) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Vault vault = null;
-
-        Cursor cursor = db.query(Constants.TABLE_VAULTS,
-                null,
-                "vault_id = ?",
-                new String[]{String.valueOf(vaultId)},
-                null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            vault = extractVaultFromCursor(cursor);
-            cursor.close();
-        }
-
-        return vault;
+        return DaoTimer.time(GET_VAULT_BY_ID, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor cursor = db.rawQuery(SQL_BY_ID, new String[]{String.valueOf(vaultId)});
+            return Rows.first(cursor, VaultRowMapper.FACTORY);
+        });
     }
 
     /**
@@ -95,42 +140,47 @@ public class VaultDao {
      * @return number of rows affected
      */
     public int updateVault(Vault vault) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put("vault_name", vault.getVaultName());
-        values.put("vault_type", vault.getVaultType());
-        values.put("monthly_limit", vault.getMonthlyLimit());
-        values.put("current_spent", vault.getCurrentSpent());
-        values.put("vault_color", vault.getVaultColor());
-        values.put("is_active", vault.isActive() ? 1 : 0);
-        values.put("reset_date", vault.getResetDate());
-
-        int rowsAffected = db.update(Constants.TABLE_VAULTS,
-                values,
-                "vault_id = ?",
-                new String[]{String.valueOf(vault.getVaultId())});
-
-        return rowsAffected;
+        return DaoTimer.timeInt(UPDATE_VAULT, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+
+            values.put("vault_name", vault.getVaultName());
+            values.put("vault_type", vault.getVaultType());
+            values.put("monthly_limit", vault.getMonthlyLimit());
+            values.put("current_spent", vault.getCurrentSpent());
+            values.put("vault_color", vault.getVaultColor());
+            values.put("is_active", vault.isActive() ? 1 : 0);
+            values.put("reset_date", vault.getResetDate());
+
+            int rowsAffected = db.update(Constants.TABLE_VAULTS,
+                    values,
+                    "vault_id = ?",
+                    new String[]{String.valueOf(vault.getVaultId())});
+
+            VaultNameCache.invalidate();
+            return rowsAffected;
+        });
     }
 
     /**
      * Update vault spending
      * @param vaultId Vault ID
-     * @param newSpentAmount New spent amount
+     * @param newSpentAmount New spent amount in paise
      * @return number of rows affected
      */
-    public int updateVaultSpending(int vaultId, double newSpentAmount) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put("current_spent", newSpentAmount);
-
-        int rowsAffected = db.update(Constants.TABLE_VAULTS,
-                values,
-                "vault_id = ?",
-                new String[]{String.valueOf(vaultId)});
-
-        return rowsAffected;
+    public int updateVaultSpending(int vaultId, long newSpentAmount) {
+        return DaoTimer.timeInt(UPDATE_VAULT_SPENDING, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+            values.put("current_spent", newSpentAmount);
+
+            int rowsAffected = db.update(Constants.TABLE_VAULTS,
+                    values,
+                    "vault_id = ?",
+                    new String[]{String.valueOf(vaultId)});
+
+            return rowsAffected;
+        });
     }
 
     /**
@@ -139,58 +189,143 @@ public class VaultDao {
      * @return number of rows affected
      */
     public int deleteVault(int vaultId) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put("is_active", 0);
-
-        int rowsAffected = db.update(Constants.TABLE_VAULTS,
-                values,
-                "vault_id = ?",
-                new String[]{String.valueOf(vaultId)});
-
-        return rowsAffected;
+        return DaoTimer.timeInt(DELETE_VAULT, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+            values.put("is_active", 0);
+
+            int rowsAffected = db.update(Constants.TABLE_VAULTS,
+                    values,
+                    "vault_id = ?",
+                    new String[]{String.valueOf(vaultId)});
+
+            VaultNameCache.invalidate();
+            return rowsAffected;
+        });
     }
 
     /**
      * Reset all vaults for a user (monthly reset)
      * @param userId User ID
-     * @param newResetDate Next reset date
+     * @param newResetDate Next reset date in epoch millis
      * @return number of rows affected
      */
-    public int resetAllVaults(int userId, String newResetDate) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put("current_spent", 0);
-        values.put("reset_date", newResetDate);
-
-        int rowsAffected = db.update(Constants.TABLE_VAULTS,
-                values,
-                "user_id = ? AND is_active = 1",
-                new String[]{String.valueOf(userId)});
-
-        return rowsAffected;
+    public int resetAllVaults(int userId, long newResetDate) {
+        return DaoTimer.timeInt(RESET_ALL_VAULTS, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            ContentValues values = new ContentValues();
+            values.put("current_spent", 0);
+            values.put("reset_date", newResetDate);
+
+            int rowsAffected = db.update(Constants.TABLE_VAULTS,
+                    values,
+                    "user_id = ? AND is_active = 1",
+                    new String[]{String.valueOf(userId)});
+
+            return rowsAffected;
+        });
+    }
+
+    /**
+     * Reset a user's vaults for the period containing now, at most once.
+     * Claiming the period in reset_runs and resetting the vaults happen in one
+     * transaction, so a reset is never applied twice nor recorded without
+     * having been applied. If the period was already reset, vaults still dated
+     * before now only get their next reset date, so none stays due.
+     * @param userId User ID
+     * @param now Current time in epoch millis; picks the period
+     * @param newResetDate Next reset date in epoch millis
+     * @return number of vaults reset, or -1 if this period's reset already ran
+     */
+    public int resetAllVaultsOnce(int userId, long now, long newResetDate) {
+        return DaoTimer.timeInt(RESET_ALL_VAULTS_ONCE, () -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            int rowsAffected = -1;
+
+            db.beginTransactionNonExclusive();
+            SQLiteStatement claim = db.compileStatement(SQL_CLAIM_RESET_RUN);
+            try {
+                claim.bindLong(1, userId);
+                claim.bindLong(2, now);
+                if (claim.executeUpdateDelete() == 1) {
+                    rowsAffected = resetAllVaults(userId, newResetDate);
+                    db.execSQL(SQL_COMPLETE_RESET_RUN, new Object[]{rowsAffected, userId, now});
+                } else {
+                    db.execSQL(SQL_ADVANCE_STALE_RESETS, new Object[]{newResetDate, userId, now});
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                claim.close();
+                db.endTransaction();
+            }
+
+            return rowsAffected;
+        });
+    }
+
+    /**
+     * Earliest reset date among all active vaults
+     * @return epoch millis, or -1 if there are no active vaults
+     */
+    public long getEarliestResetDate() {
+        return DaoTimer.timeLong(GET_EARLIEST_RESET_DATE, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+            Cursor cursor = db.rawQuery(SQL_EARLIEST_RESET, null);
+
+            long earliest = -1;
+            if (cursor != null) {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                    earliest = cursor.getLong(0);
+                }
+                cursor.close();
+            }
+            return earliest;
+        });
+    }
+
+    /**
+     * Users with an active vault whose reset date has passed
+     * @param now Current time in epoch millis
+     * @return user IDs, each once
+     */
+    public List<Integer> getUsersDueForReset(long now) {
+        return DaoTimer.time(GET_USERS_DUE_FOR_RESET, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+            Cursor cursor = db.rawQuery(SQL_USERS_DUE_FOR_RESET, new String[]{String.valueOf(now)});
+
+            // A handful of vaults per user: deduplicating here saves the query a temp B-tree
+            Set<Integer> userIds = new LinkedHashSet<>();
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    userIds.add(cursor.getInt(0));
+                }
+                cursor.close();
+            }
+            return new ArrayList<>(userIds);
+        });
     }
 
     /**
      * Get total available balance across all vaults
      * @param userId User ID
-     * @return Total available balance
+     * @return Total available balance in paise
      */
-    public double getTotalAvailableBalance(int userId) {
-        double totalBalance = 0;
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+    public long getTotalAvailableBalance(int userId) {
+        return DaoTimer.timeLong(GET_TOTAL_AVAILABLE_BALANCE, () -> {
+            long totalBalance = 0;
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        Cursor cursor = db.rawQuery(
-                "SELECT SUM(monthly_limit - current_spent) as total FROM " +
-                        Constants.TABLE_VAULTS + " WHERE user_id = ? AND is_active = 1",
-                new String[]{String.valueOf(userId)});
+            Cursor cursor = db.rawQuery(SQL_AVAILABLE_BALANCE, new String[]{String.valueOf(userId)});
 
-        if (cursor != null && cursor.moveToFirst()) {
-            totalBalance = cursor.getDouble(0);
-            cursor.close();
-        }
+            if (cursor != null && cursor.moveToFirst()) {
+                totalBalance = cursor.getLong(0);
+                cursor.close();
+            }
 
-        return totalBalance;
+            return totalBalance;
+        });
     }
 
     /**
@@ -200,34 +335,39 @@ public class VaultDao {
      * @return true if exists
      */
     public boolean vaultTypeExists(int userId, String vaultType) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        return DaoTimer.time(VAULT_TYPE_EXISTS, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        Cursor cursor = db.query(Constants.TABLE_VAULTS,
-                new String[]{"vault_id"},
-                "user_id = ? AND vault_type = ? AND is_active = 1",
-                new String[]{String.valueOf(userId), vaultType},
-                null, null, null);
+            Cursor cursor = db.rawQuery(SQL_TYPE_EXISTS, new String[]{String.valueOf(userId), vaultType});
 
-        boolean exists = cursor != null && cursor.getCount() > 0;
-        if (cursor != null) cursor.close();
-        return exists;
+            boolean exists = cursor != null && cursor.moveToFirst();
+            if (cursor != null) cursor.close();
+            return exists;
+        });
     }
 
     /**
-     * Extract Vault object from cursor
+     * Get names of all vaults, including inactive ones still referenced by history
+     * @return vault ID to vault name
      */
-    private Vault extractVaultFromCursor(Cursor cursor) {
-        Vault vault = new Vault();
-        vault.setVaultId(cursor.getInt(cursor.getColumnIndexOrThrow("vault_id")));
-        vault.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow("user_id")));
-        vault.setVaultName(cursor.getString(cursor.getColumnIndexOrThrow("vault_name")));
-        vault.setVaultType(cursor.getString(cursor.getColumnIndexOrThrow("vault_type")));
-        vault.setMonthlyLimit(cursor.getDouble(cursor.getColumnIndexOrThrow("monthly_limit")));
-        vault.setCurrentSpent(cursor.getDouble(cursor.getColumnIndexOrThrow("current_spent")));
-        vault.setVaultColor(cursor.getString(cursor.getColumnIndexOrThrow("vault_color")));
-        vault.setActive(cursor.getInt(cursor.getColumnIndexOrThrow("is_active")) == 1);
-        vault.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow("created_at")));
-        vault.setResetDate(cursor.getString(cursor.getColumnIndexOrThrow("reset_date")));
-        return vault;
+    public SparseArray<String> getAllVaultNames() {
+        return DaoTimer.time(GET_ALL_VAULT_NAMES, () -> {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+            Cursor cursor = db.rawQuery(SQL_ALL_NAMES, null);
+
+            SparseArray<String> vaultNames = new SparseArray<>();
+            if (cursor != null) {
+                try {
+                    while (cursor.moveToNext()) {
+                        vaultNames.put(cursor.getInt(0), cursor.getString(1));
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+
+            return vaultNames;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.example.paywise.database;
+
+import android.util.SparseArray;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory vault_id to vault_name lookup used when binding transaction rows.
+ * Loaded once off the main thread with a single query and dropped whenever
+ * VaultDao writes a vault, so list binding never touches SQLite.
+ */
+public class VaultNameCache {
+
+    private static volatile SparseArray<String> vaultNames;
+
+    // Bumped on every invalidation so a load racing with a write is discarded
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Look up a vault name without any I/O
+     * @param vaultId Vault ID
+     * @return vault name, or null if unknown or the cache is not loaded
+     */
+    public static String getVaultName(int vaultId) {
+        SparseArray<String> names = vaultNames;
+        return names != null ? names.get(vaultId) : null;
+    }
+
+    /**
+     * Load the cache if it is empty. Runs a query, so call it off the main thread.
+     * @param vaultDao DAO used to read all vault names
+     */
+    public static void ensureLoaded(VaultDao vaultDao) {
+        if (vaultNames != null) {
+            return;
+        }
+
+        int loadGeneration = generation.get();
+        SparseArray<String> names = vaultDao.getAllVaultNames();
+
+        synchronized (VaultNameCache.class) {
+            if (generation.get() == loadGeneration) {
+                vaultNames = names;
+            }
+        }
+    }
+
+    /**
+     * Drop the cache after a vault was inserted, renamed or deleted
+     */
+    static void invalidate() {
+        synchronized (VaultNameCache.class) {
+            generation.incrementAndGet();
+            vaultNames = null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import com.example.paywise.models.Vault;
+
+/**
+ * Maps vaults rows selected with {@link #COLUMNS}
+ */
+final class VaultRowMapper implements RowMapper<Vault> {
+
+    static final String COLUMNS = "vault_id, user_id, vault_name, vault_type, monthly_limit, " +
+            "current_spent, vault_color, is_active, created_at, reset_date";
+
+    static final RowMapper.Factory<Vault> FACTORY = new RowMapper.Factory<Vault>() {
+        @Override
+        public RowMapper<Vault> bind(Cursor cursor) {
+            return new VaultRowMapper(cursor);
+        }
+    };
+
+    private final int vaultId;
+    private final int userId;
+    private final int vaultName;
+    private final int vaultType;
+    private final int monthlyLimit;
+    private final int currentSpent;
+    private final int vaultColor;
+    private final int isActive;
+    private final int createdAt;
+    private final int resetDate;
+
+    private VaultRowMapper(Cursor cursor) {
+        vaultId = cursor.getColumnIndexOrThrow("vault_id");
+        userId = cursor.getColumnIndexOrThrow("user_id");
+        vaultName = cursor.getColumnIndexOrThrow("vault_name");
+        vaultType = cursor.getColumnIndexOrThrow("vault_type");
+        monthlyLimit = cursor.getColumnIndexOrThrow("monthly_limit");
+        currentSpent = cursor.getColumnIndexOrThrow("current_spent");
+        vaultColor = cursor.getColumnIndexOrThrow("vault_color");
+        isActive = cursor.getColumnIndexOrThrow("is_active");
+        createdAt = cursor.getColumnIndexOrThrow("created_at");
+        resetDate = cursor.getColumnIndexOrThrow("reset_date");
+    }
+
+    @Override
+    public Vault map(Cursor cursor, Vault reuse) {
+        Vault vault = reuse != null ? reuse : new Vault();
+        vault.setVaultId(cursor.getInt(vaultId));
+        vault.setUserId(cursor.getInt(userId));
+        vault.setVaultName(cursor.getString(vaultName));
+        vault.setVaultType(cursor.getString(vaultType));
+        vault.setMonthlyLimit(cursor.getLong(monthlyLimit));
+        vault.setCurrentSpent(cursor.getLong(currentSpent));
+        vault.setVaultColor(cursor.getString(vaultColor));
+        vault.setActive(cursor.getInt(isActive) == 1);
+        vault.setCreatedAt(cursor.getLong(createdAt));
+        vault.setResetDate(cursor.getLong(resetDate));
+        return vault;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.paywise.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background WAL checkpointing for paywise.db.
+ * Polls the size of the -wal file and runs a PASSIVE checkpoint when it grows
+ * past the profile limit, or a TRUNCATE checkpoint once it has stopped growing
+ * for the configured idle time. PASSIVE never blocks readers or the writer.
+ * PASSIVE does not shrink the file either, so when it backfills the whole log
+ * it is followed by a TRUNCATE, which then has nothing left to copy.
+ */
+public class WalCheckpointScheduler {
+
+    private static final String TAG = "DB_CHECK";
+
+    private final DatabaseHelper dbHelper;
+    private final File walFile;
+    private final StorageProfile profile;
+
+    private ScheduledExecutorService executor;
+    private long lastWalSize;
+    private long lastChangeTime;
+
+    public WalCheckpointScheduler(DatabaseHelper dbHelper, File databaseFile, StorageProfile profile) {
+        this.dbHelper = dbHelper;
+        this.walFile = new File(databaseFile.getPath() + "-wal");
+        this.profile = profile;
+    }
+
+    /**
+     * Start polling. Does nothing if WAL is disabled or already started.
+     */
+    public synchronized void start() {
+        if (!profile.isWalEnabled() || executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "paywise-wal-checkpoint");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+
+        lastChangeTime = System.currentTimeMillis();
+        long poll = profile.getCheckpointPollMillis();
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkWal();
+            }
+        }, poll, poll, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling. A final checkpoint is left to SQLite when the database closes.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void checkWal() {
+        try {
+            long walSize = walFile.length();
+            long now = System.currentTimeMillis();
+
+            if (walSize != lastWalSize) {
+                lastWalSize = walSize;
+                lastChangeTime = now;
+            }
+
+            if (walSize == 0) {
+                return;
+            }
+
+            if (walSize >= profile.getCheckpointWalSizeBytes()) {
+                int[] result = runCheckpoint("PASSIVE");
+                if (result[0] == 0 && result[1] == result[2]) {
+                    // Every frame is in the database: reset the file instead of keeping its high-water mark
+                    checkpoint("TRUNCATE");
+                    lastWalSize = walFile.length();
+                }
+            } else if (now - lastChangeTime >= profile.getCheckpointIdleMillis()) {
+                // Idle: reset the WAL so it stops occupying disk
+                checkpoint("TRUNCATE");
+                lastWalSize = walFile.length();
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "WAL checkpoint failed", e);
+        }
+    }
+
+    /**
+     * Run a checkpoint in the given mode (PASSIVE, FULL, RESTART or TRUNCATE)
+     * @param mode Checkpoint mode
+     * @return number of frames checkpointed, -1 if the checkpoint could not run
+     */
+    public int checkpoint(String mode) {
+        int[] result = runCheckpoint(mode);
+        return result[0] == 0 ? result[2] : -1;
+    }
+
+    /**
+     * @return busy flag, frames in the log and frames checkpointed, as reported by SQLite
+     */
+    private int[] runCheckpoint(String mode) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(" + mode + ")", null);
+
+        int[] result = {1, -1, -1};
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                result[0] = cursor.getInt(0);
+                result[1] = cursor.getInt(1);
+                result[2] = cursor.getInt(2);
+            }
+            cursor.close();
+        }
+
+        Log.d(TAG, "wal_checkpoint(" + mode + ") busy=" + result[0] +
+                " log=" + result[1] + " checkpointed=" + result[2]);
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.paywise.managers;
+
+import com.example.paywise.models.BalanceSnapshot;
+import com.example.paywise.models.Vault;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory dashboard totals, kept in step with the database by the code
+ * paths that commit debits and resets.
+ * Reads are a single ConcurrentHashMap lookup returning an immutable
+ * {@link BalanceSnapshot}; writers swap in a new snapshot with compare-and-set.
+ *
+ * Writers bracket the database write with {@link #beginWrite()} and
+ * {@link #endWrite()} and apply the committed change in between. A load is
+ * only installed if no write was in flight or finished while it read the
+ * vaults, so a snapshot never already contains a change that is applied to it.
+ */
+public class BalanceTracker {
+
+    private static final BalanceTracker instance = new BalanceTracker();
+
+    private final Map<Integer, BalanceSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped when a write starts and ends so a load that raced with it is discarded
+    private final AtomicLong version = new AtomicLong();
+
+    // Writes between beginWrite() and endWrite(), guarded by this
+    private int writesInFlight;
+
+    private BalanceTracker() {}
+
+    public static BalanceTracker getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return current totals for the user, or null if not loaded yet
+     */
+    public BalanceSnapshot getSnapshot(int userId) {
+        return snapshots.get(userId);
+    }
+
+    /**
+     * Current version, read before querying vaults for {@link #load}
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Install totals computed from the user's vaults
+     * @param userId User ID
+     * @param vaults Vaults read from the database
+     * @param readVersion {@link #getVersion()} taken before the vaults were read
+     * @return the loaded snapshot (returned to the caller even if it was stale)
+     */
+    public BalanceSnapshot load(int userId, List<Vault> vaults, long readVersion) {
+        BalanceSnapshot snapshot = BalanceSnapshot.fromVaults(userId, vaults);
+        synchronized (this) {
+            if (version.get() == readVersion && writesInFlight == 0) {
+                snapshots.put(userId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Call before writing vault balances to the database, and
+     * {@link #endWrite()} once the write has committed or failed
+     */
+    public void beginWrite() {
+        synchronized (this) {
+            version.incrementAndGet();
+            writesInFlight++;
+        }
+    }
+
+    /**
+     * Close a {@link #beginWrite()}, after any apply call for the committed change
+     */
+    public void endWrite() {
+        synchronized (this) {
+            version.incrementAndGet();
+            writesInFlight--;
+        }
+    }
+
+    /**
+     * Record a committed debit, between {@link #beginWrite()} and {@link #endWrite()}
+     */
+    public void applyDebit(int vaultId, long amount) {
+        for (Map.Entry<Integer, BalanceSnapshot> entry : snapshots.entrySet()) {
+            if (entry.getValue().containsVault(vaultId)) {
+                BalanceSnapshot current;
+                do {
+                    current = snapshots.get(entry.getKey());
+                    if (current == null) {
+                        return;
+                    }
+                } while (!snapshots.replace(entry.getKey(), current, current.withDebit(vaultId, amount)));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Record a committed monthly reset of all the user's vaults,
+     * between {@link #beginWrite()} and {@link #endWrite()}
+     */
+    public void applyReset(int userId) {
+        BalanceSnapshot current;
+        do {
+            current = snapshots.get(userId);
+            if (current == null) {
+                return;
+            }
+        } while (!snapshots.replace(userId, current, current.withReset()));
+    }
+
+    /**
+     * Drop the user's totals after vaults were created, edited or deleted;
+     * they are reloaded on the next read
+     */
+    public void invalidate(int userId) {
+        synchronized (this) {
+            version.incrementAndGet();
+            snapshots.remove(userId);
+        }
+    }
+
+    /**
+     * Drop every user's totals, when a write may have committed without being applied
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            version.incrementAndGet();
+            snapshots.clear();
+        }
+    }
+}
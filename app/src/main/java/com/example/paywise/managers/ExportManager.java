@@ -0,0 +1,279 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import com.example.paywise.database.RowConsumer;
+import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.VaultDao;
+import com.example.paywise.database.VaultNameCache;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.ChannelWriter;
+import com.example.paywise.utils.DateFormatter;
+import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.Money;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a user's whole ledger, archived transactions included, for accounting.
+ * Rows are streamed from the cursor and formatted into a reused buffer that is
+ * written to a FileChannel through {@link ChannelWriter}, so memory use stays
+ * the same from ten rows to millions. Blocking: call it off the main thread.
+ */
+public class ExportManager {
+
+    public enum Format {
+        CSV(".csv"),
+        JSON_LINES(".jsonl");
+
+        public final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Progress of a running export, called on the exporting thread
+     */
+    public interface ProgressListener {
+        void onProgress(long exportedRows, long totalRows);
+    }
+
+    // Rows between progress callbacks
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final String CSV_HEADER =
+            "transaction_id,date,timestamp,vault_id,vault_name,merchant_name,type,status,amount,description\n";
+
+    private TransactionDao transactionDao;
+    private VaultDao vaultDao;
+
+    public ExportManager(Context context) {
+        this.transactionDao = new TransactionDao(context);
+        this.vaultDao = new VaultDao(context);
+    }
+
+    /**
+     * Export all of a user's transactions, oldest first.
+     * The file is written under a temporary name and renamed when complete, so
+     * a cancelled or failed export never leaves a truncated file behind.
+     * @param userId User ID
+     * @param target File to create; ".gz" is not added automatically
+     * @param format CSV or JSON lines
+     * @param gzip Compress the output
+     * @param listener Progress callback, or null
+     * @param cancellationSignal Signal to cancel the export, or null
+     * @return number of transactions exported
+     * @throws IOException if the file cannot be written
+     * @throws OperationCanceledException if the export was cancelled
+     */
+    public long exportTransactions(int userId, File target, Format format, boolean gzip,
+                                   ProgressListener listener, CancellationSignal cancellationSignal)
+            throws IOException {
+        VaultNameCache.ensureLoaded(vaultDao);
+        long totalRows = transactionDao.countAllByUser(userId);
+
+        File partFile = new File(target.getPath() + ".part");
+        boolean complete = false;
+        try {
+            RowWriter rowWriter = new RowWriter(openChannel(partFile, gzip), format,
+                    totalRows, listener, cancellationSignal);
+            try {
+                rowWriter.writeHeader();
+                try {
+                    transactionDao.streamAllByUser(userId, rowWriter);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            } finally {
+                rowWriter.writer.close();
+            }
+
+            if (cancellationSignal != null) {
+                cancellationSignal.throwIfCanceled();
+            }
+            if (listener != null) {
+                listener.onProgress(rowWriter.rows, totalRows);
+            }
+            if (!partFile.renameTo(target)) {
+                throw new IOException("Could not rename " + partFile + " to " + target);
+            }
+            complete = true;
+            return rowWriter.rows;
+        } finally {
+            if (!complete) {
+                partFile.delete();
+            }
+        }
+    }
+
+    private static WritableByteChannel openChannel(File file, boolean gzip) throws IOException {
+        FileChannel fileChannel = new FileOutputStream(file).getChannel();
+        if (!gzip) {
+            return fileChannel;
+        }
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fileChannel),
+                ChannelWriter.DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Formats streamed rows. One row at a time is built in a reused StringBuilder
+     * and copied into the writer's buffer.
+     */
+    private static final class RowWriter implements RowConsumer<Transaction> {
+
+        final ChannelWriter writer;
+        private final Format format;
+        private final long totalRows;
+        private final ProgressListener listener;
+        private final CancellationSignal cancellationSignal;
+        private final DateFormatter dateFormatter = DateUtils.getFormatter();
+        private final StringBuilder line = new StringBuilder(256);
+
+        long rows;
+
+        RowWriter(WritableByteChannel channel, Format format, long totalRows,
+                  ProgressListener listener, CancellationSignal cancellationSignal) {
+            this.writer = new ChannelWriter(channel);
+            this.format = format;
+            this.totalRows = totalRows;
+            this.listener = listener;
+            this.cancellationSignal = cancellationSignal;
+        }
+
+        void writeHeader() throws IOException {
+            if (format == Format.CSV) {
+                writer.append(CSV_HEADER);
+            }
+        }
+
+        @Override
+        public boolean accept(Transaction transaction) {
+            if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+                return false;
+            }
+
+            line.setLength(0);
+            if (format == Format.CSV) {
+                appendCsv(transaction);
+            } else {
+                appendJson(transaction);
+            }
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            rows++;
+            if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(rows, totalRows);
+            }
+            return true;
+        }
+
+        private void appendCsv(Transaction transaction) {
+            line.append(transaction.getTransactionId()).append(',');
+            dateFormatter.appendIsoDateTime(line, transaction.getTransactionDate()).append(',');
+            line.append(transaction.getTransactionDate()).append(',');
+            line.append(transaction.getVaultId()).append(',');
+            appendCsvField(VaultNameCache.getVaultName(transaction.getVaultId())).append(',');
+            appendCsvField(transaction.getMerchantName()).append(',');
+            line.append(transaction.getTransactionType()).append(',');
+            line.append(transaction.getStatus()).append(',');
+            Money.appendPlain(line, transaction.getAmount()).append(',');
+            appendCsvField(transaction.getDescription()).append('\n');
+        }
+
+        private void appendJson(Transaction transaction) {
+            line.append("{\"transaction_id\":").append(transaction.getTransactionId());
+            line.append(",\"date\":\"");
+            dateFormatter.appendIsoDateTime(line, transaction.getTransactionDate());
+            line.append("\",\"timestamp\":").append(transaction.getTransactionDate());
+            line.append(",\"vault_id\":").append(transaction.getVaultId());
+            line.append(",\"vault_name\":");
+            appendJsonString(VaultNameCache.getVaultName(transaction.getVaultId()));
+            line.append(",\"merchant_name\":");
+            appendJsonString(transaction.getMerchantName());
+            line.append(",\"type\":\"").append(transaction.getTransactionType());
+            line.append("\",\"status\":\"").append(transaction.getStatus());
+            line.append("\",\"amount\":\"");
+            Money.appendPlain(line, transaction.getAmount());
+            line.append("\",\"amount_paise\":").append(transaction.getAmount());
+            line.append(",\"description\":");
+            appendJsonString(transaction.getDescription());
+            line.append("}\n");
+        }
+
+        /**
+         * RFC 4180: quote fields containing a separator, quote or line break
+         */
+        private StringBuilder appendCsvField(String value) {
+            if (value == null) {
+                return line;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                return line.append(value);
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            return line.append('"');
+        }
+
+        private void appendJsonString(String value) {
+            if (value == null) {
+                line.append("null");
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        line.append("\\\"");
+                        break;
+                    case '\\':
+                        line.append("\\\\");
+                        break;
+                    case '\n':
+                        line.append("\\n");
+                        break;
+                    case '\r':
+                        line.append("\\r");
+                        break;
+                    case '\t':
+                        line.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                        } else {
+                            line.append(c);
+                        }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import android.util.Log;
+import com.example.paywise.database.ImportWriter;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Imports bank statements (CSV or OFX) into a vault's history.
+ * The statement is parsed as a stream and written in batches through
+ * {@link ImportWriter}. Every row gets a hash of its content; the unique index
+ * on import_hash skips rows imported before, so importing overlapping
+ * statements never duplicates transactions.
+ * Blocking and writing: call it on the writer executor.
+ */
+public class ImportManager {
+
+    private static final String TAG = "IMPORT_MANAGER";
+
+    public enum Format {
+        CSV,
+        OFX
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static final class Result {
+        public final long imported;
+        public final long duplicates;
+        public final long rejected;
+
+        Result(long imported, long duplicates, long rejected) {
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.rejected = rejected;
+        }
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Context context;
+
+    public ImportManager(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Import a statement into a vault. Rows that cannot be parsed are skipped
+     * and counted as rejected; rows imported before are counted as duplicates.
+     * @param input Statement in UTF-8; not closed
+     * @param format Statement format
+     * @param vaultId Vault the statement belongs to
+     * @return counts of imported, duplicate and rejected rows
+     * @throws IOException if reading the statement fails; batches committed
+     *         before the failure stay imported and are skipped on retry
+     */
+    public Result importStatement(InputStream input, Format format, int vaultId) throws IOException {
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        StatementParser parser = StatementParser.create(format, reader);
+        StatementParser.Row row = new StatementParser.Row();
+        Transaction transaction = new Transaction();
+        transaction.setVaultId(vaultId);
+        transaction.setStatus(Constants.TRANSACTION_STATUS_SUCCESS);
+
+        // Identical rows in one statement are real repeats (two coffees at the
+        // same shop): number them so each gets its own hash
+        Map<Long, Integer> occurrences = new HashMap<>();
+        long rejected = 0;
+
+        ImportWriter writer = new ImportWriter(context, Constants.IMPORT_BATCH_SIZE);
+        boolean complete = false;
+        try {
+            while (true) {
+                try {
+                    if (!parser.next(row)) {
+                        break;
+                    }
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    continue;
+                }
+                if (row.amount == 0) {
+                    rejected++;
+                    continue;
+                }
+
+                transaction.setMerchantName(row.merchant);
+                transaction.setAmount(Math.abs(row.amount));
+                transaction.setTransactionType(row.amount < 0
+                        ? Constants.TRANSACTION_TYPE_DEBIT : Constants.TRANSACTION_TYPE_CREDIT);
+                transaction.setDescription(row.description);
+                transaction.setTransactionDate(row.date);
+
+                long contentHash = contentHash(vaultId, row);
+                Integer seen = occurrences.get(contentHash);
+                int occurrence = seen == null ? 0 : seen;
+                occurrences.put(contentHash, occurrence + 1);
+
+                writer.add(transaction, importHash(contentHash, occurrence));
+            }
+            complete = true;
+        } finally {
+            if (complete) {
+                writer.close();
+            } else {
+                writer.rollback();
+                writer.close();
+            }
+        }
+
+        Log.d(TAG, "Imported " + writer.getInserted() + ", duplicates " + writer.getDuplicates()
+                + ", rejected " + rejected);
+        return new Result(writer.getInserted(), writer.getDuplicates(), rejected);
+    }
+
+    /**
+     * FNV-1a over the fields that identify a statement row. With a bank
+     * reference the reference identifies the row; without one the content does.
+     */
+    static long contentHash(int vaultId, StatementParser.Row row) {
+        long hash = FNV_OFFSET;
+        hash = hashLong(hash, vaultId);
+        hash = hashLong(hash, row.amount);
+        if (row.reference != null) {
+            hash = hashString(hash, row.reference);
+        } else {
+            hash = hashLong(hash, row.date);
+            hash = hashString(hash, row.merchant);
+            hash = hashString(hash, row.description);
+        }
+        return hash;
+    }
+
+    /**
+     * Combine a content hash with the row's occurrence number, finished with the
+     * MurmurHash3 mixer so near-identical rows spread over all 64 bits
+     */
+    static long importHash(long contentHash, int occurrence) {
+        long hash = hashLong(contentHash, occurrence);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long hashLong(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hashString(long hash, String value) {
+        if (value == null) {
+            return hashLong(hash, -1);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash ^= c & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= c >>> 8;
+            hash *= FNV_PRIME;
+        }
+        // Field separator, so "ab" + "c" differs from "a" + "bc"
+        hash ^= 0xff;
+        return hash * FNV_PRIME;
+    }
+}
@@ -1,81 +1,124 @@
 package com.example.paywise.managers;
 
 import android.content.Context;
-import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.DebitEngine;
 import com.example.paywise.database.VaultDao;
+import com.example.paywise.models.PaymentRequest;
 import com.example.paywise.models.Transaction;
 import com.example.paywise.models.Vault;
 import com.example.paywise.utils.Constants;
-import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.LatencyHistogram;
+import com.example.paywise.utils.Metrics;
+import com.example.paywise.utils.Money;
+import java.util.List;
 
 public class PaymentManager {
-    private TransactionDao transactionDao;
+
+    // Whole payment commit, and per payment in batches
+    private static final LatencyHistogram COMMIT = Metrics.histogram("payment.commit");
+    private static final LatencyHistogram BATCH_COMMIT = Metrics.histogram("payment.batchCommit");
+    private static final Metrics.Counter SUCCEEDED = Metrics.counter("payment.succeeded");
+    private static final Metrics.Counter FAILED = Metrics.counter("payment.failed");
+
     private VaultDao vaultDao;
+    private DebitEngine debitEngine;
+    private BalanceTracker balanceTracker;
     private Context context;
 
     public PaymentManager(Context context) {
         this.context = context;
-        this.transactionDao = new TransactionDao(context);
         this.vaultDao = new VaultDao(context);
+        this.debitEngine = new DebitEngine(context);
+        this.balanceTracker = BalanceTracker.getInstance();
     }
 
     /**
-     * Process payment
+     * Process payment.
+     * The balance check, vault debit and ledger insert run as one SQLite transaction.
      * @param vaultId Vault ID
      * @param merchantName Merchant name
-     * @param amount Payment amount
+     * @param amount Payment amount in paise
      * @param description Optional description
      * @return Transaction object with status
      */
-    public Transaction processPayment(int vaultId, String merchantName, double amount, String description) {
-        // Get vault details
-        Vault vault = vaultDao.getVaultById(vaultId);
-
-        if (vault == null || !vault.isActive()) {
-            return createFailedTransaction(vaultId, merchantName, amount, description, "Vault not found or inactive");
+    public Transaction processPayment(int vaultId, String merchantName, long amount, String description) {
+        long started = Metrics.now();
+        long currentDateTime = System.currentTimeMillis();
+        Transaction transaction;
+        balanceTracker.beginWrite();
+        try {
+            transaction = debitEngine.debit(vaultId, merchantName, amount, description, currentDateTime);
+            recordDebit(transaction, currentDateTime);
+        } finally {
+            balanceTracker.endWrite();
         }
+        COMMIT.recordSince(started);
+        return transaction;
+    }
 
-        // Check if vault has sufficient balance
-        double remainingBalance = vault.getRemainingBalance();
+    /**
+     * Process a batch of payments (e.g. statement reconciliation)
+     * @param requests Payments to apply, in order
+     * @return One Transaction per request with its status, in the same order
+     */
+    public List<Transaction> processPayments(List<PaymentRequest> requests) {
+        return processPayments(requests, Constants.PAYMENT_BATCH_SIZE);
+    }
 
-        String status;
-        if (remainingBalance >= amount) {
-            // Sufficient balance - process payment
-            status = Constants.TRANSACTION_STATUS_SUCCESS;
+    /**
+     * Process a batch of payments, committing chunkSize payments per SQLite transaction
+     * @param requests Payments to apply, in order
+     * @param chunkSize Number of payments per transaction
+     * @return One Transaction per request with its status, in the same order
+     */
+    public List<Transaction> processPayments(List<PaymentRequest> requests, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        long started = Metrics.now();
+        long currentDateTime = System.currentTimeMillis();
+        List<Transaction> transactions;
+        balanceTracker.beginWrite();
+        try {
+            transactions = debitEngine.debitAll(requests, chunkSize, currentDateTime);
+            for (Transaction transaction : transactions) {
+                recordDebit(transaction, currentDateTime);
+            }
+        } catch (RuntimeException e) {
+            // Chunks before the failing one are committed but were never applied
+            balanceTracker.invalidateAll();
+            throw e;
+        } finally {
+            balanceTracker.endWrite();
+        }
+        if (!transactions.isEmpty()) {
+            BATCH_COMMIT.record((Metrics.now() - started) / transactions.size());
+        }
+        return transactions;
+    }
 
-            // Update vault spending
-            double newSpent = vault.getCurrentSpent() + amount;
-            vaultDao.updateVaultSpending(vaultId, newSpent);
+    /**
+     * Apply a committed debit to the in-memory dashboard totals.
+     * A payment dated in another month did not change current_spent.
+     */
+    private void recordDebit(Transaction transaction, long now) {
+        if (Constants.TRANSACTION_STATUS_SUCCESS.equals(transaction.getStatus())) {
+            if (DebitEngine.chargesVault(transaction.getTransactionDate(), now)) {
+                balanceTracker.applyDebit(transaction.getVaultId(), transaction.getAmount());
+            }
+            SUCCEEDED.increment();
         } else {
-            // Insufficient balance - reject payment
-            status = Constants.TRANSACTION_STATUS_FAILED;
+            FAILED.increment();
         }
-
-        // Create transaction record
-        String currentDateTime = DateUtils.getCurrentDateTime();
-        Transaction transaction = new Transaction(
-                vaultId,
-                merchantName,
-                amount,
-                Constants.TRANSACTION_TYPE_DEBIT,
-                description,
-                currentDateTime,
-                status
-        );
-
-        long transactionId = transactionDao.insertTransaction(transaction);
-        transaction.setTransactionId((int) transactionId);
-
-        return transaction;
     }
 
     /**
      * Validate payment before processing
      * @param vaultId Vault ID
-     * @param amount Payment amount
+     * @param amount Payment amount in paise
      * @return Validation result with message
      */
-    public PaymentValidationResult validatePayment(int vaultId, double amount) {
+    public PaymentValidationResult validatePayment(int vaultId, long amount) {
         Vault vault = vaultDao.getVaultById(vaultId);
 
         if (vault == null) {
@@ -90,38 +133,16 @@ public class PaymentManager {
             return new PaymentValidationResult(false, "Invalid amount");
         }
 
-        double remainingBalance = vault.getRemainingBalance();
+        long remainingBalance = vault.getRemainingBalance();
 
         if (remainingBalance < amount) {
             return new PaymentValidationResult(false,
-                    String.format("Insufficient balance. Available: ₹%.2f", remainingBalance));
+                    "Insufficient balance. Available: " + Money.format(remainingBalance));
         }
 
         return new PaymentValidationResult(true, "Payment can be processed");
     }
 
-    /**
-     * Create a failed transaction record
-     */
-    private Transaction createFailedTransaction(int vaultId, String merchantName,
-                                                double amount, String description, String reason) {
-        String currentDateTime = DateUtils.getCurrentDateTime();
-        Transaction transaction = new Transaction(
-                vaultId,
-                merchantName,
-                amount,
-                Constants.TRANSACTION_TYPE_DEBIT,
-                description != null ? description + " (Failed: " + reason + ")" : "Failed: " + reason,
-                currentDateTime,
-                Constants.TRANSACTION_STATUS_FAILED
-        );
-
-        long transactionId = transactionDao.insertTransaction(transaction);
-        transaction.setTransactionId((int) transactionId);
-
-        return transaction;
-    }
-
     /**
      * Inner class for payment validation result
      */
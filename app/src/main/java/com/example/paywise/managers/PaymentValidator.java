@@ -0,0 +1,236 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import android.util.Log;
+import com.example.paywise.database.TransactionDao;
+import com.example.paywise.models.PaymentRequest;
+import com.example.paywise.utils.AppExecutors;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.Metrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-payment checks run as a pipeline of {@link ValidationRule}s.
+ * All rules start at once on the I/O pool; the result completes with the
+ * first rejection, or with a pass once every rule has passed.
+ *
+ * Each rule has a latency budget. A rule that runs over it, fails or cannot
+ * be scheduled is skipped rather than holding up the payment: these checks
+ * are advisory, and the debit transaction still enforces the vault limit.
+ */
+public class PaymentValidator {
+
+    private static final String TAG = "PAYMENT_VALIDATOR";
+
+    private static final PaymentManager.PaymentValidationResult PASSED =
+            new PaymentManager.PaymentValidationResult(true, "Payment can be processed");
+
+    private static final Metrics.Counter SKIPPED = Metrics.counter("validation.skipped");
+
+    // One daemon thread fires the budget timeouts of all validations
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private final List<ValidationRule> rules;
+    private final Executor executor;
+
+    /**
+     * Validator with the limit, velocity and duplicate rules on the I/O pool
+     */
+    public PaymentValidator(Context context) {
+        this(Arrays.<ValidationRule>asList(
+                new LimitRule(new PaymentManager(context)),
+                new VelocityRule(new TransactionDao(context)),
+                new DuplicateRule(new TransactionDao(context))),
+                AppExecutors.getInstance().diskIO());
+    }
+
+    /**
+     * @param rules Rules to run
+     * @param executor Executor running the rules
+     */
+    public PaymentValidator(List<ValidationRule> rules, Executor executor) {
+        this.rules = new ArrayList<>(rules);
+        this.executor = executor;
+    }
+
+    /**
+     * Validate a payment without blocking the caller
+     * @param request Payment to validate
+     * @return future completing on a background thread with the outcome
+     */
+    public CompletableFuture<PaymentManager.PaymentValidationResult> validate(final PaymentRequest request) {
+        final long now = System.currentTimeMillis();
+        final CompletableFuture<PaymentManager.PaymentValidationResult> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(rules.size());
+        if (rules.isEmpty()) {
+            result.complete(PASSED);
+            return result;
+        }
+
+        for (ValidationRule rule : rules) {
+            runStage(rule, request, now).thenAccept(outcome -> {
+                if (!outcome.isValid()) {
+                    result.complete(outcome);
+                } else if (pending.decrementAndGet() == 0) {
+                    result.complete(PASSED);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Run one rule within its budget
+     * @return future completing with the rule's outcome, or a pass if it was skipped
+     */
+    private CompletableFuture<PaymentManager.PaymentValidationResult> runStage(
+            final ValidationRule rule, final PaymentRequest request, final long now) {
+        final CompletableFuture<PaymentManager.PaymentValidationResult> stage = new CompletableFuture<>();
+        final long budget = rule.getBudgetMillis();
+
+        final ScheduledFuture<?> timeout = TIMER.schedule(() -> {
+            if (stage.complete(PASSED)) {
+                SKIPPED.increment();
+                Log.w(TAG, rule.getName() + " exceeded its " + budget + " ms budget, skipped");
+            }
+        }, budget, TimeUnit.MILLISECONDS);
+
+        try {
+            executor.execute(() -> {
+                if (stage.isDone()) {
+                    return;
+                }
+                try {
+                    stage.complete(rule.check(request, now));
+                } catch (RuntimeException e) {
+                    Log.w(TAG, rule.getName() + " failed, skipped", e);
+                    if (stage.complete(PASSED)) {
+                        SKIPPED.increment();
+                    }
+                } finally {
+                    timeout.cancel(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, rule.getName() + " could not be scheduled, skipped", e);
+            timeout.cancel(false);
+            if (stage.complete(PASSED)) {
+                SKIPPED.increment();
+            }
+        }
+        return stage;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "paywise-validation-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Most budgets are cancelled long before they fire
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * The vault exists, is active and has room for the amount
+     */
+    static final class LimitRule implements ValidationRule {
+        private final PaymentManager paymentManager;
+
+        LimitRule(PaymentManager paymentManager) {
+            this.paymentManager = paymentManager;
+        }
+
+        @Override
+        public String getName() {
+            return "limit";
+        }
+
+        @Override
+        public long getBudgetMillis() {
+            return Constants.VALIDATION_LIMIT_BUDGET_MS;
+        }
+
+        @Override
+        public PaymentManager.PaymentValidationResult check(PaymentRequest request, long now) {
+            return paymentManager.validatePayment(request.getVaultId(), request.getAmount());
+        }
+    }
+
+    /**
+     * At most VELOCITY_MAX_PAYMENTS attempts per vault within VELOCITY_WINDOW_MS
+     */
+    static final class VelocityRule implements ValidationRule {
+        private final TransactionDao transactionDao;
+
+        VelocityRule(TransactionDao transactionDao) {
+            this.transactionDao = transactionDao;
+        }
+
+        @Override
+        public String getName() {
+            return "velocity";
+        }
+
+        @Override
+        public long getBudgetMillis() {
+            return Constants.VALIDATION_HISTORY_BUDGET_MS;
+        }
+
+        @Override
+        public PaymentManager.PaymentValidationResult check(PaymentRequest request, long now) {
+            int recent = transactionDao.countByVaultSince(request.getVaultId(), now - Constants.VELOCITY_WINDOW_MS);
+            if (recent >= Constants.VELOCITY_MAX_PAYMENTS) {
+                return new PaymentManager.PaymentValidationResult(false,
+                        "Too many payments from this vault, try again in a minute");
+            }
+            return PASSED;
+        }
+    }
+
+    /**
+     * No identical successful payment within DUPLICATE_WINDOW_MS
+     */
+    static final class DuplicateRule implements ValidationRule {
+        private final TransactionDao transactionDao;
+
+        DuplicateRule(TransactionDao transactionDao) {
+            this.transactionDao = transactionDao;
+        }
+
+        @Override
+        public String getName() {
+            return "duplicate";
+        }
+
+        @Override
+        public long getBudgetMillis() {
+            return Constants.VALIDATION_HISTORY_BUDGET_MS;
+        }
+
+        @Override
+        public PaymentManager.PaymentValidationResult check(PaymentRequest request, long now) {
+            if (transactionDao.hasRecentDebit(request.getVaultId(), request.getMerchantName(),
+                    request.getAmount(), now - Constants.DUPLICATE_WINDOW_MS)) {
+                return new PaymentManager.PaymentValidationResult(false,
+                        "The same payment was just made to " + request.getMerchantName());
+            }
+            return PASSED;
+        }
+    }
+}
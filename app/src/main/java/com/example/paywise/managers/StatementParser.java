@@ -0,0 +1,603 @@
+package com.example.paywise.managers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Streaming parser for bank statements, one transaction at a time.
+ * Input is read through a fixed-size char buffer and each row is decoded into
+ * a reused {@link Row}, so memory use does not depend on the statement size.
+ */
+abstract class StatementParser {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * One statement row. Reused for every row: copy what has to be kept.
+     */
+    static final class Row {
+        long date;
+        // Signed: negative for money leaving the account
+        long amount;
+        String merchant;
+        String description;
+        // Bank's own id of the row (OFX FITID or a reference column), or null
+        String reference;
+
+        void clear() {
+            date = 0;
+            amount = 0;
+            merchant = null;
+            description = null;
+            reference = null;
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Local time zone for dates without one
+    final Calendar calendar = Calendar.getInstance();
+
+    StatementParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    static StatementParser create(ImportManager.Format format, Reader reader) {
+        return format == ImportManager.Format.OFX ? new Ofx(reader) : new Csv(reader);
+    }
+
+    /**
+     * Decode the next row
+     * @return false at the end of the statement
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the row or the statement is malformed;
+     *         parsing may continue with the next row
+     */
+    abstract boolean next(Row row) throws IOException;
+
+    /**
+     * Next char of the input, or -1 at the end
+     */
+    final int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * CSV with a header row naming the columns. Recognised columns (any case):
+     * date; description, narration, payee or merchant; amount (signed), or
+     * debit/withdrawal and credit/deposit; optional reference and memo/notes.
+     * Fields may be quoted as in RFC 4180.
+     */
+    static final class Csv extends StatementParser {
+
+        private final StringBuilder text = new StringBuilder(256);
+        private final List<int[]> fields = new ArrayList<>();
+        private int fieldCount;
+
+        private int dateColumn = -1;
+        private int merchantColumn = -1;
+        private int amountColumn = -1;
+        private int debitColumn = -1;
+        private int creditColumn = -1;
+        private int referenceColumn = -1;
+        private int memoColumn = -1;
+        private boolean headerRead;
+        private boolean endReached;
+
+        Csv(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        boolean next(Row row) throws IOException {
+            if (!headerRead) {
+                readHeader();
+            }
+            while (readRecord()) {
+                if (fieldCount == 1 && length(0) == 0) {
+                    continue; // blank line
+                }
+                row.clear();
+                row.date = parseDate(text, start(dateColumn), end(dateColumn), calendar);
+                row.merchant = string(merchantColumn);
+                row.reference = referenceColumn != -1 ? string(referenceColumn) : null;
+                row.description = memoColumn != -1 ? string(memoColumn) : null;
+                if (amountColumn != -1) {
+                    row.amount = parseAmount(text, start(amountColumn), end(amountColumn));
+                } else {
+                    row.amount = debitOrCredit();
+                }
+                if (row.merchant == null) {
+                    throw new IllegalArgumentException("Row without description");
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Signed amount from separate debit and credit columns. Many banks write
+         * 0.00 in the unused one, so the non-zero column wins.
+         */
+        private long debitOrCredit() {
+            long debit = length(debitColumn) > 0 ? parseAmount(text, start(debitColumn), end(debitColumn)) : 0;
+            if (debit != 0) {
+                return -Math.abs(debit);
+            }
+            if (length(creditColumn) == 0) {
+                if (length(debitColumn) == 0) {
+                    throw new IllegalArgumentException("Missing amount");
+                }
+                return 0;
+            }
+            return Math.abs(parseAmount(text, start(creditColumn), end(creditColumn)));
+        }
+
+        private void readHeader() throws IOException {
+            headerRead = true;
+            if (!readRecord()) {
+                return;
+            }
+            for (int i = 0; i < fieldCount; i++) {
+                String name = text.substring(start(i), end(i)).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                switch (name) {
+                    case "date":
+                    case "transaction date":
+                    case "value date":
+                        if (dateColumn == -1) dateColumn = i;
+                        break;
+                    case "description":
+                    case "narration":
+                    case "payee":
+                    case "merchant":
+                        merchantColumn = i;
+                        break;
+                    case "amount":
+                        amountColumn = i;
+                        break;
+                    case "debit":
+                    case "withdrawal":
+                        debitColumn = i;
+                        break;
+                    case "credit":
+                    case "deposit":
+                        creditColumn = i;
+                        break;
+                    case "reference":
+                    case "ref":
+                    case "id":
+                        referenceColumn = i;
+                        break;
+                    case "memo":
+                    case "notes":
+                        memoColumn = i;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (dateColumn == -1 || merchantColumn == -1
+                    || (amountColumn == -1 && (debitColumn == -1 || creditColumn == -1))) {
+                endReached = true;
+                throw new IOException("CSV header needs date, description and amount columns");
+            }
+        }
+
+        /**
+         * Read one record into text, recording field boundaries
+         * @return false at the end of the input
+         */
+        private boolean readRecord() throws IOException {
+            if (endReached) {
+                return false;
+            }
+            text.setLength(0);
+            fieldCount = 0;
+            int fieldStart = 0;
+            boolean quoted = false;
+            boolean any = false;
+
+            int c;
+            while ((c = read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            text.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            if (c == -1) {
+                                break;
+                            }
+                        }
+                    } else {
+                        text.append((char) c);
+                        continue;
+                    }
+                    if (quoted) {
+                        continue;
+                    }
+                }
+                if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    addField(fieldStart);
+                    fieldStart = text.length();
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    text.append((char) c);
+                }
+            }
+
+            if (c == -1) {
+                endReached = true;
+                if (!any) {
+                    return false;
+                }
+            }
+            addField(fieldStart);
+            return true;
+        }
+
+        private void addField(int fieldStart) {
+            if (fields.size() == fieldCount) {
+                fields.add(new int[2]);
+            }
+            int[] bounds = fields.get(fieldCount++);
+            bounds[0] = fieldStart;
+            bounds[1] = text.length();
+        }
+
+        private int start(int column) {
+            if (column >= fieldCount) {
+                throw new IllegalArgumentException("Row has " + fieldCount + " fields");
+            }
+            return fields.get(column)[0];
+        }
+
+        private int end(int column) {
+            return fields.get(column)[1];
+        }
+
+        private int length(int column) {
+            return column < fieldCount ? end(column) - start(column) : 0;
+        }
+
+        private String string(int column) {
+            String value = text.substring(start(column), end(column)).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * OFX statements, SGML (1.x) or XML (2.x). Only STMTTRN aggregates are read:
+     * DTPOSTED, TRNAMT, FITID, NAME (or PAYEE) and MEMO.
+     */
+    static final class Ofx extends StatementParser {
+
+        private final StringBuilder tag = new StringBuilder(16);
+        private final StringBuilder value = new StringBuilder(64);
+        private int pending = -1;
+
+        Ofx(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        boolean next(Row row) throws IOException {
+            boolean inTransaction = false;
+            boolean hasDate = false;
+            boolean hasAmount = false;
+
+            while (readTag()) {
+                if (is("STMTTRN")) {
+                    row.clear();
+                    inTransaction = true;
+                    hasDate = false;
+                    hasAmount = false;
+                } else if (is("/STMTTRN") && inTransaction) {
+                    if (!hasDate || !hasAmount) {
+                        throw new IllegalArgumentException("STMTTRN without DTPOSTED or TRNAMT");
+                    }
+                    if (row.merchant == null) {
+                        row.merchant = row.description != null ? row.description : "Unknown";
+                    }
+                    return true;
+                } else if (inTransaction) {
+                    readValue();
+                    if (is("DTPOSTED")) {
+                        row.date = parseDate(value, 0, value.length(), calendar);
+                        hasDate = true;
+                    } else if (is("TRNAMT")) {
+                        row.amount = parseAmount(value, 0, value.length());
+                        hasAmount = true;
+                    } else if (is("FITID")) {
+                        row.reference = valueString();
+                    } else if (is("NAME") || (is("PAYEE") && row.merchant == null)) {
+                        row.merchant = valueString();
+                    } else if (is("MEMO")) {
+                        row.description = valueString();
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Advance past the next '<' and read the tag name
+         * @return false at the end of the input
+         */
+        private boolean readTag() throws IOException {
+            int c = pending != -1 ? pending : read();
+            pending = -1;
+            while (c != '<') {
+                if (c == -1) {
+                    return false;
+                }
+                c = read();
+            }
+            tag.setLength(0);
+            while ((c = read()) != -1 && c != '>') {
+                tag.append((char) c);
+            }
+            return c != -1;
+        }
+
+        /**
+         * Read the text after a tag up to the next '<', trimmed and with the
+         * basic entities decoded
+         */
+        private void readValue() throws IOException {
+            value.setLength(0);
+            int c;
+            while ((c = read()) != -1 && c != '<') {
+                value.append((char) c);
+            }
+            pending = c;
+            trim(value);
+            decodeEntities(value);
+        }
+
+        private boolean is(String name) {
+            int length = tag.length();
+            if (length != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (Character.toUpperCase(tag.charAt(i)) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String valueString() {
+            return value.length() == 0 ? null : value.toString();
+        }
+
+        private static void trim(StringBuilder sb) {
+            int end = sb.length();
+            while (end > 0 && sb.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            sb.setLength(end);
+            int start = 0;
+            while (start < end && sb.charAt(start) <= ' ') {
+                start++;
+            }
+            sb.delete(0, start);
+        }
+
+        private static void decodeEntities(StringBuilder sb) {
+            for (int i = sb.indexOf("&"); i != -1; i = sb.indexOf("&", i + 1)) {
+                if (startsWith(sb, i, "&amp;")) {
+                    sb.replace(i, i + 5, "&");
+                } else if (startsWith(sb, i, "&lt;")) {
+                    sb.replace(i, i + 4, "<");
+                } else if (startsWith(sb, i, "&gt;")) {
+                    sb.replace(i, i + 4, ">");
+                }
+            }
+        }
+
+        private static boolean startsWith(StringBuilder sb, int offset, String prefix) {
+            return sb.length() - offset >= prefix.length()
+                    && sb.substring(offset, offset + prefix.length()).equals(prefix);
+        }
+    }
+
+    /**
+     * Parse an amount in rupees, e.g. "1,234.50", "-12", "(80.00)" or "₹ 99.9",
+     * rounding half-up to whole paise
+     * @return signed amount in paise
+     * @throws IllegalArgumentException if the text is not an amount
+     */
+    static long parseAmount(CharSequence text, int start, int end) {
+        boolean negative = false;
+        boolean digits = false;
+        int decimals = -1;
+        long paise = 0;
+        int roundingDigit = -1;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (decimals == -1 || decimals < 2) {
+                    paise = paise * 10 + (c - '0');
+                    if (paise > Long.MAX_VALUE / 1000) {
+                        throw new IllegalArgumentException("Amount out of range");
+                    }
+                    if (decimals != -1) {
+                        decimals++;
+                    }
+                } else if (roundingDigit == -1) {
+                    roundingDigit = c - '0';
+                }
+            } else if (c == '.') {
+                if (decimals != -1) {
+                    throw new IllegalArgumentException("Malformed amount");
+                }
+                decimals = 0;
+            } else if (c == '-' || c == '(') {
+                negative = true;
+            } else if (c != ',' && c != '+' && c != ')' && c != ' ' && c != '₹') {
+                throw new IllegalArgumentException("Malformed amount");
+            }
+        }
+        if (!digits) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            paise *= 10;
+        }
+        if (roundingDigit >= 5) {
+            paise++;
+        }
+        return negative ? -paise : paise;
+    }
+
+    /**
+     * Parse a statement date: yyyy-MM-dd, dd/MM/yyyy or dd-MM-yyyy, each with an
+     * optional " HH:mm[:ss]" or "THH:mm[:ss]", or OFX yyyyMMdd[HHmmss[.XXX]][[offset:TZ]].
+     * Dates without an offset are in the local time zone.
+     * @return epoch millis
+     * @throws IllegalArgumentException if the text is not a date
+     */
+    static long parseDate(CharSequence text, int start, int end, Calendar local) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        int[] numbers = new int[6];
+        int count = 0;
+        int digitsInFirst = 0;
+        int i = start;
+        int offsetStart = -1;
+
+        // OFX: a run of 8 or more digits
+        int run = 0;
+        while (start + run < end && Character.isDigit(text.charAt(start + run))) run++;
+        if (run >= 8) {
+            numbers[0] = digits(text, start, 4);
+            numbers[1] = digits(text, start + 4, 2);
+            numbers[2] = digits(text, start + 6, 2);
+            if (run >= 12) numbers[3] = digits(text, start + 8, 2);
+            if (run >= 12) numbers[4] = digits(text, start + 10, 2);
+            if (run >= 14) numbers[5] = digits(text, start + 12, 2);
+            for (int j = start + run; j < end; j++) {
+                if (text.charAt(j) == '[') {
+                    offsetStart = j + 1;
+                    break;
+                }
+            }
+            return toMillis(numbers[0], numbers[1], numbers[2], numbers[3], numbers[4], numbers[5],
+                    offsetStart == -1 ? null : parseOffsetMinutes(text, offsetStart, end), local);
+        }
+
+        while (i < end && count < 6) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) {
+                int value = 0;
+                int length = 0;
+                while (i < end && Character.isDigit(text.charAt(i))) {
+                    value = value * 10 + (text.charAt(i++) - '0');
+                    length++;
+                }
+                if (count == 0) {
+                    digitsInFirst = length;
+                }
+                numbers[count++] = value;
+            } else {
+                i++;
+            }
+        }
+        if (count < 3) {
+            throw new IllegalArgumentException("Malformed date");
+        }
+        if (digitsInFirst == 4) {
+            return toMillis(numbers[0], numbers[1], numbers[2], numbers[3], numbers[4], numbers[5], null, local);
+        }
+        // Day first, as Indian bank statements are
+        return toMillis(numbers[2], numbers[1], numbers[0], numbers[3], numbers[4], numbers[5], null, local);
+    }
+
+    private static long toMillis(int year, int month, int day, int hour, int minute, int second,
+                                 Integer offsetMinutes, Calendar local) {
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 60) {
+            throw new IllegalArgumentException("Date out of range");
+        }
+        Calendar calendar = local;
+        if (offsetMinutes != null) {
+            calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        }
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        long millis = calendar.getTimeInMillis();
+        return offsetMinutes != null ? millis - offsetMinutes * 60_000L : millis;
+    }
+
+    /**
+     * Parse an OFX offset such as "-5:EST", "+5.5:IST" or "+5.30:IST"
+     */
+    private static Integer parseOffsetMinutes(CharSequence text, int start, int end) {
+        boolean negative = false;
+        int hours = 0;
+        int fraction = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '-') {
+                negative = true;
+            } else if (c == '.') {
+                inFraction = true;
+            } else if (Character.isDigit(c)) {
+                if (inFraction) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else {
+                    hours = hours * 10 + (c - '0');
+                }
+            } else if (c != '+') {
+                break;
+            }
+        }
+        int minutes = hours * 60;
+        if (fractionDigits == 1) {
+            // Decimal hours: 5.5 is 5:30
+            minutes += fraction * 6;
+        } else if (fractionDigits == 2) {
+            // Banks write 5.30 for 5:30
+            minutes += fraction;
+        }
+        return negative ? -minutes : minutes;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
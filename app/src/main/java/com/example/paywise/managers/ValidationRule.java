@@ -0,0 +1,28 @@
+package com.example.paywise.managers;
+
+import com.example.paywise.models.PaymentRequest;
+
+/**
+ * One stage of the {@link PaymentValidator} pipeline.
+ * Rules run concurrently on a background thread and must not write.
+ */
+public interface ValidationRule {
+
+    /**
+     * Short name for logs
+     */
+    String getName();
+
+    /**
+     * How long the rule may take before the pipeline stops waiting for it
+     */
+    long getBudgetMillis();
+
+    /**
+     * Check a payment
+     * @param request Payment to check
+     * @param now Time of the check in epoch millis
+     * @return whether the payment passes, with a message for the user if not
+     */
+    PaymentManager.PaymentValidationResult check(PaymentRequest request, long now);
+}
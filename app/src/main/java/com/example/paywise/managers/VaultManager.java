@@ -2,17 +2,21 @@ package com.example.paywise.managers;
 
 import android.content.Context;
 import com.example.paywise.database.VaultDao;
+import com.example.paywise.models.BalanceSnapshot;
 import com.example.paywise.models.Vault;
+import com.example.paywise.utils.Constants;
 import com.example.paywise.utils.DateUtils;
 import java.util.List;
 
 public class VaultManager {
     private VaultDao vaultDao;
+    private BalanceTracker balanceTracker;
     private Context context;
 
     public VaultManager(Context context) {
         this.context = context;
         this.vaultDao = new VaultDao(context);
+        this.balanceTracker = BalanceTracker.getInstance();
     }
 
     /**
@@ -20,21 +24,27 @@ public class VaultManager {
      * @param userId User ID
      * @param vaultName Vault name
      * @param vaultType Vault type
-     * @param monthlyLimit Monthly spending limit
+     * @param monthlyLimit Monthly spending limit in paise
      * @param vaultColor Vault color
      * @return Vault ID or -1 if failed
      */
-    public long createVault(int userId, String vaultName, String vaultType, double monthlyLimit, String vaultColor) {
+    public long createVault(int userId, String vaultName, String vaultType, long monthlyLimit, String vaultColor) {
         // Check if vault type already exists
         if (vaultDao.vaultTypeExists(userId, vaultType)) {
             return -2; // Special code for duplicate vault type
         }
 
-        String currentDate = DateUtils.getCurrentDateTime();
-        String resetDate = DateUtils.getNextMonthResetDate();
+        long currentDate = System.currentTimeMillis();
+        long resetDate = DateUtils.getNextMonthResetDate();
 
         Vault vault = new Vault(userId, vaultName, vaultType, monthlyLimit, vaultColor, currentDate, resetDate);
-        return vaultDao.insertVault(vault);
+        long vaultId = vaultDao.insertVault(vault);
+        balanceTracker.invalidate(userId);
+        if (vaultId > 0) {
+            // The first vault is what gives the reset job something to wait for
+            VaultResetScheduler.schedule(context);
+        }
+        return vaultId;
     }
 
     /**
@@ -54,11 +64,20 @@ public class VaultManager {
     /**
      * Update vault spending
      */
-    public boolean updateVaultSpending(int vaultId, double amount) {
+    public boolean updateVaultSpending(int vaultId, long amount) {
         Vault vault = vaultDao.getVaultById(vaultId);
         if (vault != null) {
-            double newSpent = vault.getCurrentSpent() + amount;
-            return vaultDao.updateVaultSpending(vaultId, newSpent) > 0;
+            long newSpent = vault.getCurrentSpent() + amount;
+            balanceTracker.beginWrite();
+            try {
+                boolean updated = vaultDao.updateVaultSpending(vaultId, newSpent) > 0;
+                if (updated) {
+                    balanceTracker.applyDebit(vaultId, amount);
+                }
+                return updated;
+            } finally {
+                balanceTracker.endWrite();
+            }
         }
         return false;
     }
@@ -66,55 +85,72 @@ public class VaultManager {
     /**
      * Check if payment can be made from vault
      */
-    public boolean canMakePayment(int vaultId, double amount) {
+    public boolean canMakePayment(int vaultId, long amount) {
         Vault vault = vaultDao.getVaultById(vaultId);
         if (vault != null && vault.isActive()) {
-            double remainingBalance = vault.getRemainingBalance();
+            long remainingBalance = vault.getRemainingBalance();
             return remainingBalance >= amount;
         }
         return false;
     }
 
     /**
-     * Get total available balance
+     * Get total available balance in paise
      */
-    public double getTotalBalance(int userId) {
-        return vaultDao.getTotalAvailableBalance(userId);
+    public long getTotalBalance(int userId) {
+        return getBalanceSnapshot(userId).getAvailableBalance();
     }
 
     /**
-     * Update vault details
+     * Get dashboard totals, loading them from the vaults table only the first time
      */
-    public boolean updateVault(Vault vault) {
-        return vaultDao.updateVault(vault) > 0;
+    public BalanceSnapshot getBalanceSnapshot(int userId) {
+        BalanceSnapshot snapshot = balanceTracker.getSnapshot(userId);
+        if (snapshot == null) {
+            long readVersion = balanceTracker.getVersion();
+            snapshot = balanceTracker.load(userId, vaultDao.getAllVaultsByUser(userId), readVersion);
+        }
+        return snapshot;
     }
 
     /**
-     * Delete vault
+     * Update vault details
      */
-    public boolean deleteVault(int vaultId) {
-        return vaultDao.deleteVault(vaultId) > 0;
+    public boolean updateVault(Vault vault) {
+        boolean updated = vaultDao.updateVault(vault) > 0;
+        balanceTracker.invalidate(vault.getUserId());
+        return updated;
     }
 
     /**
-     * Reset all vaults for monthly cycle
+     * Delete vault
      */
-    public boolean resetMonthlyVaults(int userId) {
-        String nextResetDate = DateUtils.getNextMonthResetDate();
-        return vaultDao.resetAllVaults(userId, nextResetDate) > 0;
+    public boolean deleteVault(int vaultId) {
+        Vault vault = vaultDao.getVaultById(vaultId);
+        boolean deleted = vaultDao.deleteVault(vaultId) > 0;
+        if (vault != null) {
+            balanceTracker.invalidate(vault.getUserId());
+        }
+        return deleted;
     }
 
     /**
-     * Check if any vault needs reset
+     * Run the monthly reset of a user's vaults for the period containing now.
+     * Idempotent: a period already reset is left alone.
+     * @return number of vaults reset, or -1 if this period's reset already ran
      */
-    public boolean needsReset(int userId) {
-        List<Vault> vaults = vaultDao.getAllVaultsByUser(userId);
-        for (Vault vault : vaults) {
-            if (DateUtils.isResetDatePassed(vault.getResetDate())) {
-                return true;
+    public int resetMonthlyVaults(int userId, long now) {
+        long nextResetDate = DateUtils.getNextMonthStart(now);
+        balanceTracker.beginWrite();
+        try {
+            int reset = vaultDao.resetAllVaultsOnce(userId, now, nextResetDate);
+            if (reset > 0) {
+                balanceTracker.applyReset(userId);
             }
+            return reset;
+        } finally {
+            balanceTracker.endWrite();
         }
-        return false;
     }
 
     /**
@@ -123,8 +159,8 @@ public class VaultManager {
     public boolean isLowBalance(int vaultId) {
         Vault vault = vaultDao.getVaultById(vaultId);
         if (vault != null) {
-            double remainingBalance = vault.getRemainingBalance();
-            double threshold = vault.getMonthlyLimit() * 0.2;
+            long remainingBalance = vault.getRemainingBalance();
+            long threshold = (long) (vault.getMonthlyLimit() * Constants.LOW_BALANCE_THRESHOLD);
             return remainingBalance <= threshold && remainingBalance > 0;
         }
         return false;
@@ -0,0 +1,58 @@
+package com.example.paywise.managers;
+
+import android.content.Context;
+import androidx.work.BackoffPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.paywise.database.VaultDao;
+import com.example.paywise.services.VaultResetWorker;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules {@link VaultResetWorker} for the earliest reset date of any active
+ * vault, as one-off unique work. Nothing runs in between: the job wakes only
+ * when a reset is due, then schedules its own next run.
+ * Reads the database: call off the main thread.
+ */
+public final class VaultResetScheduler {
+
+    static final String WORK_NAME = "vault_reset";
+
+    private static final long BACKOFF_MINUTES = 15;
+
+    private VaultResetScheduler() {}
+
+    /**
+     * Make sure the reset job is scheduled, keeping an already pending run
+     * @param context Context
+     */
+    public static void schedule(Context context) {
+        enqueue(context, ExistingWorkPolicy.KEEP);
+    }
+
+    /**
+     * Schedule the run after the current one. Called by the running job itself:
+     * appending makes the next run wait for the current one to finish instead
+     * of cancelling it.
+     * @param context Context
+     */
+    public static void scheduleNext(Context context) {
+        enqueue(context, ExistingWorkPolicy.APPEND_OR_REPLACE);
+    }
+
+    private static void enqueue(Context context, ExistingWorkPolicy policy) {
+        long earliestResetDate = new VaultDao(context).getEarliestResetDate();
+        if (earliestResetDate == -1) {
+            // No active vaults; creating one schedules the job
+            return;
+        }
+
+        long delay = Math.max(0, earliestResetDate - System.currentTimeMillis());
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(VaultResetWorker.class)
+                .setInitialDelay(delay, TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_MINUTES, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.paywise.models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable per-user balance totals across active vaults.
+ * Updates return a new snapshot, so readers never see a half-applied change.
+ */
+public class BalanceSnapshot {
+
+    /**
+     * Limit and spent (in paise) for one vault type
+     */
+    public static class Totals {
+        private final long limit;
+        private final long spent;
+
+        public Totals(long limit, long spent) {
+            this.limit = limit;
+            this.spent = spent;
+        }
+
+        public long getLimit() { return limit; }
+
+        public long getSpent() { return spent; }
+
+        public long getAvailable() { return limit - spent; }
+    }
+
+    private final int userId;
+    private final long totalLimit;
+    private final long totalSpent;
+    private final Map<String, Totals> totalsByType;
+    private final Map<Integer, String> vaultTypes; // vault ID -> vault type
+
+    private BalanceSnapshot(int userId, long totalLimit, long totalSpent,
+                            Map<String, Totals> totalsByType, Map<Integer, String> vaultTypes) {
+        this.userId = userId;
+        this.totalLimit = totalLimit;
+        this.totalSpent = totalSpent;
+        this.totalsByType = Collections.unmodifiableMap(totalsByType);
+        this.vaultTypes = Collections.unmodifiableMap(vaultTypes);
+    }
+
+    /**
+     * Build a snapshot from the user's active vaults
+     */
+    public static BalanceSnapshot fromVaults(int userId, List<Vault> vaults) {
+        long totalLimit = 0;
+        long totalSpent = 0;
+        Map<String, Totals> totalsByType = new HashMap<>();
+        Map<Integer, String> vaultTypes = new HashMap<>();
+
+        for (Vault vault : vaults) {
+            if (!vault.isActive()) {
+                continue;
+            }
+            totalLimit += vault.getMonthlyLimit();
+            totalSpent += vault.getCurrentSpent();
+            vaultTypes.put(vault.getVaultId(), vault.getVaultType());
+
+            Totals current = totalsByType.get(vault.getVaultType());
+            long limit = vault.getMonthlyLimit() + (current != null ? current.getLimit() : 0);
+            long spent = vault.getCurrentSpent() + (current != null ? current.getSpent() : 0);
+            totalsByType.put(vault.getVaultType(), new Totals(limit, spent));
+        }
+
+        return new BalanceSnapshot(userId, totalLimit, totalSpent, totalsByType, vaultTypes);
+    }
+
+    /**
+     * @return a copy with amount added to the spend of the given vault,
+     *         or this snapshot if the vault is not one of the user's active vaults
+     */
+    public BalanceSnapshot withDebit(int vaultId, long amount) {
+        String vaultType = vaultTypes.get(vaultId);
+        if (vaultType == null) {
+            return this;
+        }
+
+        Map<String, Totals> newTotals = new HashMap<>(totalsByType);
+        Totals current = totalsByType.get(vaultType);
+        newTotals.put(vaultType, new Totals(current.getLimit(), current.getSpent() + amount));
+
+        return new BalanceSnapshot(userId, totalLimit, totalSpent + amount, newTotals, vaultTypes);
+    }
+
+    /**
+     * @return a copy with every vault's spend back at zero (monthly reset)
+     */
+    public BalanceSnapshot withReset() {
+        Map<String, Totals> newTotals = new HashMap<>();
+        for (Map.Entry<String, Totals> entry : totalsByType.entrySet()) {
+            newTotals.put(entry.getKey(), new Totals(entry.getValue().getLimit(), 0));
+        }
+        return new BalanceSnapshot(userId, totalLimit, 0, newTotals, vaultTypes);
+    }
+
+    public boolean containsVault(int vaultId) {
+        return vaultTypes.containsKey(vaultId);
+    }
+
+    // Getters
+    public int getUserId() { return userId; }
+
+    public long getTotalLimit() { return totalLimit; }
+
+    public long getTotalSpent() { return totalSpent; }
+
+    public long getAvailableBalance() { return totalLimit - totalSpent; }
+
+    /**
+     * @return totals for a vault type, or null if the user has no active vault of that type
+     */
+    public Totals getTotalsByType(String vaultType) {
+        return totalsByType.get(vaultType);
+    }
+
+    public Map<String, Totals> getTotalsByType() {
+        return totalsByType;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.paywise.models;
+
+public class PaymentRequest {
+    private int vaultId;
+    private String merchantName;
+    private long amount; // paise
+    private String description;
+    private long transactionDate; // epoch millis, 0 = processing time
+
+    // Constructors
+    public PaymentRequest() {}
+
+    public PaymentRequest(int vaultId, String merchantName, long amount,
+                          String description, long transactionDate) {
+        this.vaultId = vaultId;
+        this.merchantName = merchantName;
+        this.amount = amount;
+        this.description = description;
+        this.transactionDate = transactionDate;
+    }
+
+    // Getters and Setters
+    public int getVaultId() { return vaultId; }
+    public void setVaultId(int vaultId) { this.vaultId = vaultId; }
+
+    public String getMerchantName() { return merchantName; }
+    public void setMerchantName(String merchantName) { this.merchantName = merchantName; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public long getTransactionDate() { return transactionDate; }
+    public void setTransactionDate(long transactionDate) { this.transactionDate = transactionDate; }
+}
@@ -4,17 +4,17 @@ public class Transaction {
     private int transactionId;
     private int vaultId;
     private String merchantName;
-    private double amount;
+    private long amount; // paise
     private String transactionType; // debit or credit
     private String description;
-    private String transactionDate;
+    private long transactionDate; // epoch millis
     private String status; // success, failed, pending
 
     // Constructors
     public Transaction() {}
 
-    public Transaction(int vaultId, String merchantName, double amount, String transactionType,
-                       String description, String transactionDate, String status) {
+    public Transaction(int vaultId, String merchantName, long amount, String transactionType,
+                       String description, long transactionDate, String status) {
         this.vaultId = vaultId;
         this.merchantName = merchantName;
         this.amount = amount;
@@ -34,8 +34,8 @@ public class Transaction {
     public String getMerchantName() { return merchantName; }
     public void setMerchantName(String merchantName) { this.merchantName = merchantName; }
 
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
 
     public String getTransactionType() { return transactionType; }
     public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
@@ -43,8 +43,8 @@ public class Transaction {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public String getTransactionDate() { return transactionDate; }
-    public void setTransactionDate(String transactionDate) { this.transactionDate = transactionDate; }
+    public long getTransactionDate() { return transactionDate; }
+    public void setTransactionDate(long transactionDate) { this.transactionDate = transactionDate; }
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
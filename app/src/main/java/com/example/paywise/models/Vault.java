@@ -5,23 +5,23 @@ public class Vault {
     private int userId;
     private String vaultName;
     private String vaultType; // Food, Travel, Lifestyle, Business, Emergency
-    private double monthlyLimit;
-    private double currentSpent;
+    private long monthlyLimit; // paise
+    private long currentSpent; // paise
     private String vaultColor;
     private boolean isActive;
-    private String createdAt;
-    private String resetDate;
+    private long createdAt; // epoch millis
+    private long resetDate; // epoch millis
 
     // Constructors
     public Vault() {}
 
-    public Vault(int userId, String vaultName, String vaultType, double monthlyLimit,
-                 String vaultColor, String createdAt, String resetDate) {
+    public Vault(int userId, String vaultName, String vaultType, long monthlyLimit,
+                 String vaultColor, long createdAt, long resetDate) {
         this.userId = userId;
         this.vaultName = vaultName;
         this.vaultType = vaultType;
         this.monthlyLimit = monthlyLimit;
-        this.currentSpent = 0.0;
+        this.currentSpent = 0;
         this.vaultColor = vaultColor;
         this.isActive = true;
         this.createdAt = createdAt;
@@ -41,11 +41,11 @@ public class Vault {
     public String getVaultType() { return vaultType; }
     public void setVaultType(String vaultType) { this.vaultType = vaultType; }
 
-    public double getMonthlyLimit() { return monthlyLimit; }
-    public void setMonthlyLimit(double monthlyLimit) { this.monthlyLimit = monthlyLimit; }
+    public long getMonthlyLimit() { return monthlyLimit; }
+    public void setMonthlyLimit(long monthlyLimit) { this.monthlyLimit = monthlyLimit; }
 
-    public double getCurrentSpent() { return currentSpent; }
-    public void setCurrentSpent(double currentSpent) { this.currentSpent = currentSpent; }
+    public long getCurrentSpent() { return currentSpent; }
+    public void setCurrentSpent(long currentSpent) { this.currentSpent = currentSpent; }
 
     public String getVaultColor() { return vaultColor; }
     public void setVaultColor(String vaultColor) { this.vaultColor = vaultColor; }
@@ -53,21 +53,21 @@ public class Vault {
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
 
-    public String getCreatedAt() { return createdAt; }
-    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
 
-    public String getResetDate() { return resetDate; }
-    public void setResetDate(String resetDate) { this.resetDate = resetDate; }
+    public long getResetDate() { return resetDate; }
+    public void setResetDate(long resetDate) { this.resetDate = resetDate; }
 
     // Helper method to get remaining balance
-    public double getRemainingBalance() {
+    public long getRemainingBalance() {
         return monthlyLimit - currentSpent;
     }
 
     // Helper method to get spending percentage
     public int getSpendingPercentage() {
         if (monthlyLimit == 0) return 0;
-        return (int) ((currentSpent / monthlyLimit) * 100);
+        return (int) (currentSpent * 100 / monthlyLimit);
     }
 
     // Helper method to check if limit is exceeded
@@ -11,9 +11,9 @@ import android.os.Build;
 import androidx.core.app.NotificationCompat;
 import com.example.paywise.R;
 import com.example.paywise.activities.MainActivity;
-import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.DatabaseManager;
 import com.example.paywise.utils.Constants;
-import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.Money;
 
 /**
  * Broadcast receiver for payment alerts and low balance notifications
@@ -48,10 +48,10 @@ public class PaymentAlertReceiver extends BroadcastReceiver {
 
     private void handleLowBalance(Context context, Intent intent) {
         String vaultName = intent.getStringExtra("vault_name");
-        double remainingBalance = intent.getDoubleExtra("remaining_balance", 0.0);
+        long remainingBalance = intent.getLongExtra("remaining_balance", 0);
 
-        String message = String.format("Your %s vault balance is low: ₹%.2f remaining",
-                vaultName, remainingBalance);
+        String message = "Your " + vaultName + " vault balance is low: " +
+                Money.format(remainingBalance) + " remaining";
 
         showNotification(
                 context,
@@ -131,9 +131,7 @@ public class PaymentAlertReceiver extends BroadcastReceiver {
     }
 
     private void logBroadcastAction(Context context, String action) {
-        TransactionDao transactionDao = new TransactionDao(context);
-        String timestamp = DateUtils.getCurrentDateTime();
-        transactionDao.insertServiceLog("PaymentAlertReceiver", "BROADCAST",
-                "Received broadcast: " + action, timestamp);
+        DatabaseManager.getInstance(context).getServiceLogWriter()
+                .log("PaymentAlertReceiver", "BROADCAST", "Received broadcast: " + action);
     }
 }
\ No newline at end of file
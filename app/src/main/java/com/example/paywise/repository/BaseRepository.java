@@ -0,0 +1,65 @@
+package com.example.paywise.repository;
+
+import android.util.Log;
+import com.example.paywise.utils.AppExecutors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs data-layer work off the main thread and hands results back on it.
+ * Reads go to the bounded I/O pool, writes to the single writer thread.
+ * Failures, including a read rejected by a full pool, reach the callback's onError.
+ */
+abstract class BaseRepository {
+
+    private static final String TAG = "Repository";
+
+    protected final AppExecutors executors;
+
+    BaseRepository() {
+        this.executors = AppExecutors.getInstance();
+    }
+
+    /**
+     * Run a query on the I/O pool
+     */
+    protected <T> void read(Supplier<T> task, RepositoryCallback<T> callback) {
+        run(executors.diskIO(), task, callback);
+    }
+
+    /**
+     * Run a mutation on the writer thread
+     */
+    protected <T> void write(Supplier<T> task, RepositoryCallback<T> callback) {
+        run(executors.writeIO(), task, callback);
+    }
+
+    private <T> void run(Executor executor, final Supplier<T> task, final RepositoryCallback<T> callback) {
+        try {
+            executor.execute(() -> {
+                final T result;
+                try {
+                    result = task.get();
+                } catch (RuntimeException e) {
+                    fail(callback, e);
+                    return;
+                }
+                if (callback != null) {
+                    executors.mainThread().execute(() -> callback.onResult(result));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The I/O pool's queue is full; report it rather than throw on the caller's thread
+            fail(callback, e);
+        }
+    }
+
+    private <T> void fail(final RepositoryCallback<T> callback, final Exception error) {
+        if (callback != null) {
+            executors.mainThread().execute(() -> callback.onError(error));
+        } else {
+            Log.w(TAG, "Repository call failed", error);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.paywise.repository;
+
+import android.content.Context;
+import com.example.paywise.managers.PaymentManager;
+import com.example.paywise.managers.PaymentValidator;
+import com.example.paywise.models.PaymentRequest;
+import com.example.paywise.models.Transaction;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous payment processing for the UI. Payments run on the writer thread.
+ */
+public class PaymentRepository extends BaseRepository {
+    private PaymentManager paymentManager;
+    private PaymentValidator paymentValidator;
+
+    public PaymentRepository(Context context) {
+        this.paymentManager = new PaymentManager(context);
+        this.paymentValidator = new PaymentValidator(context);
+    }
+
+    /**
+     * Run the pre-payment checks
+     * @return future completing off the main thread; continue on
+     *         AppExecutors.mainThread() to touch the UI
+     */
+    public CompletableFuture<PaymentManager.PaymentValidationResult> validatePayment(
+            final int vaultId, final String merchantName, final long amount) {
+        return paymentValidator.validate(new PaymentRequest(vaultId, merchantName, amount, null, 0));
+    }
+
+    /**
+     * Process a single payment
+     */
+    public void processPayment(final int vaultId, final String merchantName, final long amount,
+                               final String description, RepositoryCallback<Transaction> callback) {
+        write(() -> paymentManager.processPayment(vaultId, merchantName, amount, description), callback);
+    }
+
+    /**
+     * Process a batch of payments
+     */
+    public void processPayments(final List<PaymentRequest> requests, RepositoryCallback<List<Transaction>> callback) {
+        write(() -> paymentManager.processPayments(requests), callback);
+    }
+}
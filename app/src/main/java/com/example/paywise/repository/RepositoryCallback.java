@@ -0,0 +1,18 @@
+package com.example.paywise.repository;
+
+import android.util.Log;
+
+/**
+ * Receives the result of a repository call on the main thread
+ */
+public interface RepositoryCallback<T> {
+    void onResult(T result);
+
+    /**
+     * Called instead of {@link #onResult} when the call failed or could not be scheduled.
+     * Callers that hold UI state across the call (disabled buttons, progress) must override it.
+     */
+    default void onError(Exception error) {
+        Log.w("Repository", "Repository call failed", error);
+    }
+}
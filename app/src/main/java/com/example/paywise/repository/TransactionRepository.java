@@ -0,0 +1,41 @@
+package com.example.paywise.repository;
+
+import android.content.Context;
+import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.TransactionPagingSource;
+import com.example.paywise.database.VaultDao;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import java.util.List;
+
+/**
+ * Asynchronous access to the transaction ledger for the UI
+ */
+public class TransactionRepository extends BaseRepository {
+    private TransactionDao transactionDao;
+    private VaultDao vaultDao;
+
+    public TransactionRepository(Context context) {
+        this.transactionDao = new TransactionDao(context);
+        this.vaultDao = new VaultDao(context);
+    }
+
+    /**
+     * Create a paging source for transaction history, backed by the I/O pool
+     * @param userId User ID
+     * @param vaultId Vault ID, or -1 for all of the user's vaults
+     * @param includeArchived true for full history including archived failed and pending payments
+     */
+    public TransactionPagingSource createPagingSource(int userId, int vaultId, boolean includeArchived) {
+        return new TransactionPagingSource(transactionDao, vaultDao, userId, vaultId,
+                Constants.TRANSACTION_PAGE_SIZE, includeArchived, executors.diskIO());
+    }
+
+    /**
+     * Get the most recent transactions for a user
+     */
+    public void getRecentTransactions(final int userId, final int limit,
+                                      RepositoryCallback<List<Transaction>> callback) {
+        read(() -> transactionDao.getRecentTransactions(userId, limit), callback);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.paywise.repository;
+
+import android.content.Context;
+import com.example.paywise.database.UserDao;
+import com.example.paywise.models.User;
+
+/**
+ * Asynchronous access to the user profile for the UI
+ */
+public class UserRepository extends BaseRepository {
+    private UserDao userDao;
+
+    public UserRepository(Context context) {
+        this.userDao = new UserDao(context);
+    }
+
+    /**
+     * Insert a new user
+     * @return through the callback: user ID, -1 if failed
+     */
+    public void insertUser(final User user, RepositoryCallback<Long> callback) {
+        write(() -> userDao.insertUser(user), callback);
+    }
+
+    /**
+     * Update user information
+     */
+    public void updateUser(final User user, RepositoryCallback<Boolean> callback) {
+        write(() -> userDao.updateUser(user) > 0, callback);
+    }
+
+    /**
+     * Get user by ID
+     */
+    public void getUser(final int userId, RepositoryCallback<User> callback) {
+        read(() -> userDao.getUserById(userId), callback);
+    }
+}
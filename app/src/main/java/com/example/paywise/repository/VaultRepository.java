@@ -0,0 +1,55 @@
+package com.example.paywise.repository;
+
+import android.content.Context;
+import com.example.paywise.managers.VaultManager;
+import com.example.paywise.models.Vault;
+import java.util.List;
+
+/**
+ * Asynchronous access to vaults for the UI
+ */
+public class VaultRepository extends BaseRepository {
+    private VaultManager vaultManager;
+
+    public VaultRepository(Context context) {
+        this.vaultManager = new VaultManager(context);
+    }
+
+    /**
+     * Get all active vaults for a user
+     */
+    public void getUserVaults(final int userId, RepositoryCallback<List<Vault>> callback) {
+        read(() -> vaultManager.getUserVaults(userId), callback);
+    }
+
+    /**
+     * Get total available balance in paise
+     */
+    public void getTotalBalance(final int userId, RepositoryCallback<Long> callback) {
+        read(() -> vaultManager.getTotalBalance(userId), callback);
+    }
+
+    /**
+     * Create a new vault
+     * @return through the callback: vault ID, -1 if failed, -2 if the type already exists
+     */
+    public void createVault(final int userId, final String vaultName, final String vaultType,
+                            final long monthlyLimit, final String vaultColor,
+                            RepositoryCallback<Long> callback) {
+        write(() -> vaultManager.createVault(userId, vaultName, vaultType, monthlyLimit, vaultColor), callback);
+    }
+
+    /**
+     * Update vault details
+     */
+    public void updateVault(final Vault vault, RepositoryCallback<Boolean> callback) {
+        write(() -> vaultManager.updateVault(vault), callback);
+    }
+
+    /**
+     * Delete vault
+     */
+    public void deleteVault(final int vaultId, RepositoryCallback<Boolean> callback) {
+        write(() -> vaultManager.deleteVault(vaultId), callback);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.paywise.services;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.ServiceLogRetention;
+import com.example.paywise.database.ServiceLogWriter;
+import com.example.paywise.database.SpendTotalsDao;
+import com.example.paywise.managers.BalanceTracker;
+import com.example.paywise.utils.AppExecutors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily database maintenance, run by WorkManager while the battery is not
+ * low. Deletes old and excess service_logs rows and compacts the file, then
+ * verifies the spend totals and vaults.current_spent against the ledger.
+ * What was reclaimed or corrected is recorded in the log itself.
+ */
+public class LogRetentionWorker extends Worker {
+
+    private static final String TAG = "LogRetentionWorker";
+    private static final String WORK_NAME = "service_log_retention";
+
+    public LogRetentionWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    /**
+     * Schedule the daily run, keeping an existing schedule
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(LogRetentionWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        ServiceLogRetention.Report report;
+        try {
+            // Each delete chunk and vacuum step is a separate task on the writer thread
+            report = new ServiceLogRetention(context, AppExecutors.getInstance().writeIO())
+                    .run(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Log retention failed", e);
+            return Result.retry();
+        }
+
+        ServiceLogWriter serviceLogWriter = DatabaseManager.getInstance(context).getServiceLogWriter();
+        if (report.rowsDeleted > 0 || report.bytesReclaimed > 0) {
+            serviceLogWriter.log(TAG, "COMPACT", report.toString());
+        }
+
+        final SpendTotalsDao spendTotalsDao = new SpendTotalsDao(context);
+        final long now = System.currentTimeMillis();
+        FutureTask<int[]> reconcile = new FutureTask<>(new Callable<int[]>() {
+            @Override
+            public int[] call() {
+                return new int[]{spendTotalsDao.verify(), spendTotalsDao.reconcileCurrentSpent(now)};
+            }
+        });
+        AppExecutors.getInstance().writeIO().execute(reconcile);
+
+        int[] corrected;
+        try {
+            corrected = reconcile.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Ledger reconciliation failed", e.getCause());
+            return Result.retry();
+        }
+
+        if (corrected[1] > 0) {
+            // Dashboard totals were derived from the old current_spent values
+            BalanceTracker.getInstance().invalidateAll();
+        }
+        if (corrected[0] > 0 || corrected[1] > 0) {
+            serviceLogWriter.log(TAG, "RECONCILE", "Corrected " + corrected[0] + " spend total groups and " +
+                    corrected[1] + " vault balances");
+        }
+        return Result.success();
+    }
+}
@@ -12,52 +12,45 @@ import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 import com.example.paywise.R;
 import com.example.paywise.activities.MainActivity;
-import com.example.paywise.database.TransactionDao;
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.ServiceLogWriter;
 import com.example.paywise.utils.Constants;
-import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.Money;
 
 /**
  * Foreground service that runs during payment processing
- * Shows notification to user that payment is being validated
+ * Shows notification to user that payment is being validated, from the start
+ * of validation until the payment is settled
  */
 public class PaymentValidationService extends Service {
 
-    private TransactionDao transactionDao;
+    private ServiceLogWriter serviceLogWriter;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        transactionDao = new TransactionDao(this);
+        serviceLogWriter = DatabaseManager.getInstance(this).getServiceLogWriter();
         createNotificationChannel();
     }
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         String merchantName = intent.getStringExtra("merchant_name");
-        double amount = intent.getDoubleExtra("amount", 0.0);
+        long amount = intent.getLongExtra("amount", 0);
 
         // Start foreground service with notification
         startForeground(Constants.NOTIFICATION_ID_PAYMENT, createNotification(merchantName, amount));
 
         // Log service action
         logServiceAction("PaymentValidationService", "VALIDATE",
-                "Validating payment to " + merchantName + " for ₹" + amount);
-
-        // Simulate payment validation (in real app, this would do actual validation)
-        try {
-            Thread.sleep(2000); // 2 seconds validation
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        // Stop foreground service
-        stopForeground(true);
-        stopSelf();
+                "Validating payment to " + merchantName + " for " + Money.format(amount));
 
+        // Validation itself runs in PaymentValidator; the caller stops this service
+        // once the payment is settled, which also removes the notification
         return START_NOT_STICKY;
     }
 
-    private Notification createNotification(String merchantName, double amount) {
+    private Notification createNotification(String merchantName, long amount) {
         Intent notificationIntent = new Intent(this, MainActivity.class);
         PendingIntent pendingIntent = PendingIntent.getActivity(
                 this,
@@ -68,7 +61,7 @@ public class PaymentValidationService extends Service {
 
         NotificationCompat.Builder builder = new NotificationCompat.Builder(this, Constants.CHANNEL_ID)
                 .setContentTitle(getString(R.string.notif_payment_validation))
-                .setContentText("Processing payment to " + merchantName + " for ₹" + String.format("%.2f", amount))
+                .setContentText("Processing payment to " + merchantName + " for " + Money.format(amount))
                 .setSmallIcon(R.drawable.ic_vault_business)
                 .setContentIntent(pendingIntent)
                 .setPriority(NotificationCompat.PRIORITY_HIGH)
@@ -94,8 +87,7 @@ public class PaymentValidationService extends Service {
     }
 
     private void logServiceAction(String serviceName, String actionType, String message) {
-        String timestamp = DateUtils.getCurrentDateTime();
-        transactionDao.insertServiceLog(serviceName, actionType, message, timestamp);
+        serviceLogWriter.log(serviceName, actionType, message);
     }
 
     @Nullable
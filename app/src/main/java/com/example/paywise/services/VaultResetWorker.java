@@ -0,0 +1,89 @@
+package com.example.paywise.services;
+
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.ServiceLogWriter;
+import com.example.paywise.database.VaultDao;
+import com.example.paywise.managers.VaultManager;
+import com.example.paywise.managers.VaultResetScheduler;
+import com.example.paywise.utils.AppExecutors;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Monthly vault reset, run by WorkManager when the earliest vault reset date
+ * is reached (see {@link VaultResetScheduler}). Resets every user whose vaults
+ * are due, at most once per period thanks to the reset_runs ledger, then
+ * schedules the next run.
+ */
+public class VaultResetWorker extends Worker {
+
+    private static final String TAG = "VaultResetWorker";
+
+    public VaultResetWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        final Context context = getApplicationContext();
+        final long now = System.currentTimeMillis();
+
+        // Writes go through the writer thread like every other mutation
+        FutureTask<Integer> reset = new FutureTask<>(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return resetDueUsers(context, now);
+            }
+        });
+        AppExecutors.getInstance().writeIO().execute(reset);
+
+        int usersReset;
+        try {
+            usersReset = reset.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Monthly reset failed", e.getCause());
+            return Result.retry();
+        }
+
+        if (usersReset > 0) {
+            Intent broadcastIntent = new Intent("com.example.paywise.VAULT_RESET");
+            broadcastIntent.setPackage(context.getPackageName());
+            context.sendBroadcast(broadcastIntent);
+        }
+
+        VaultResetScheduler.scheduleNext(context);
+        return Result.success();
+    }
+
+    /**
+     * @return number of users whose vaults were reset
+     */
+    private static int resetDueUsers(Context context, long now) {
+        VaultManager vaultManager = new VaultManager(context);
+        ServiceLogWriter serviceLogWriter = DatabaseManager.getInstance(context).getServiceLogWriter();
+        List<Integer> userIds = new VaultDao(context).getUsersDueForReset(now);
+
+        int usersReset = 0;
+        for (int userId : userIds) {
+            int vaultsReset = vaultManager.resetMonthlyVaults(userId, now);
+            if (vaultsReset > 0) {
+                usersReset++;
+                serviceLogWriter.log(TAG, "RESET",
+                        "Monthly reset of " + vaultsReset + " vaults for user " + userId, now);
+            }
+        }
+        return usersReset;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.paywise.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide executors for database work.
+ * Reads run on a small bounded pool so they can use SQLite's reader connections
+ * in parallel; all mutations go through a single writer thread, matching the
+ * single writer connection of the database.
+ */
+public class AppExecutors {
+
+    private static final int DISK_IO_THREADS = 4;
+    private static final int DISK_IO_QUEUE_CAPACITY = 256;
+
+    private static AppExecutors instance;
+
+    private final ThreadPoolExecutor diskIO;
+    private final ExecutorService writeIO;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        diskIO = new ThreadPoolExecutor(
+                DISK_IO_THREADS,
+                DISK_IO_THREADS,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(DISK_IO_QUEUE_CAPACITY),
+                namedThreadFactory("paywise-io"),
+                // Fail fast when full: running the task on the caller would put queries back on the UI thread
+                new ThreadPoolExecutor.AbortPolicy());
+        diskIO.allowCoreThreadTimeOut(true);
+        Metrics.gauge("executor.io.queued", new Metrics.Gauge() {
+            @Override
+            public long getValue() {
+                return diskIO.getQueue().size();
+            }
+        });
+        Metrics.gauge("executor.io.active", new Metrics.Gauge() {
+            @Override
+            public long getValue() {
+                return diskIO.getActiveCount();
+            }
+        });
+
+        writeIO = Executors.newSingleThreadExecutor(namedThreadFactory("paywise-write"));
+
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mainHandler.post(command);
+            }
+        };
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * Bounded pool for reads. Throws RejectedExecutionException when its queue is full.
+     */
+    public Executor diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * Single thread that serialises all database writes
+     */
+    public Executor writeIO() {
+        return writeIO;
+    }
+
+    /**
+     * Posts to the main (UI) thread
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    private static ThreadFactory namedThreadFactory(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.paywise.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 text writer over a byte channel for large outputs such as exports.
+ * Text is copied into one CharBuffer, encoded into one ByteBuffer, and written
+ * to the channel whenever the buffer fills. Both buffers are reused for the
+ * whole output, so memory use does not grow with the amount written.
+ * Not thread-safe.
+ */
+public final class ChannelWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private long bytesWritten;
+
+    public ChannelWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel Channel to write to; closed by {@link #close()}
+     * @param bufferSize Capacity of the char buffer in chars
+     */
+    public ChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.chars = CharBuffer.allocate(bufferSize);
+        // Worst case UTF-8 is 3 bytes per char of the BMP
+        this.bytes = ByteBuffer.allocateDirect(bufferSize * 3);
+    }
+
+    public ChannelWriter append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            drain(false);
+        }
+        chars.put(c);
+        return this;
+    }
+
+    /**
+     * Append text. StringBuilders and Strings are bulk-copied without allocating.
+     */
+    public ChannelWriter append(CharSequence text) throws IOException {
+        int length = text.length();
+        int offset = 0;
+        while (offset < length) {
+            if (!chars.hasRemaining()) {
+                drain(false);
+            }
+            int count = Math.min(length - offset, chars.remaining());
+            int position = chars.position();
+            if (text instanceof StringBuilder) {
+                ((StringBuilder) text).getChars(offset, offset + count, chars.array(), chars.arrayOffset() + position);
+            } else if (text instanceof String) {
+                ((String) text).getChars(offset, offset + count, chars.array(), chars.arrayOffset() + position);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    chars.array()[chars.arrayOffset() + position + i] = text.charAt(offset + i);
+                }
+            }
+            chars.position(position + count);
+            offset += count;
+        }
+        return this;
+    }
+
+    /**
+     * Bytes handed to the channel so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Encode and write everything buffered so far
+     */
+    public void flush() throws IOException {
+        drain(false);
+    }
+
+    /**
+     * Flush the remaining text, finish encoding and close the channel
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            writeBytes();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+        }
+        // Keeps a dangling high surrogate for the next round
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -3,13 +3,20 @@ package com.example.paywise.utils;
 public class Constants {
     // Database
     public static final String DATABASE_NAME = "paywise.db";
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 9;
 
     // Table Names
     public static final String TABLE_USERS = "users";
     public static final String TABLE_VAULTS = "vaults";
     public static final String TABLE_TRANSACTIONS = "transactions";
+    public static final String TABLE_TRANSACTIONS_ARCHIVE = "transactions_archive";
     public static final String TABLE_SERVICE_LOGS = "service_logs";
+    public static final String TABLE_VAULT_SPEND_TOTALS = "vault_spend_totals";
+    public static final String TABLE_LEDGER_CHECKPOINTS = "ledger_checkpoints";
+    public static final String TABLE_RESET_RUNS = "reset_runs";
+
+    // Ledger checkpoints
+    public static final String CHECKPOINT_SPEND_TOTALS = "spend_totals";
 
     // Vault Types
     public static final String VAULT_TYPE_FOOD = "Food";
@@ -27,6 +34,39 @@ public class Constants {
     public static final String TRANSACTION_STATUS_FAILED = "failed";
     public static final String TRANSACTION_STATUS_PENDING = "pending";
 
+    // Batch payments per SQLite transaction
+    public static final int PAYMENT_BATCH_SIZE = 500;
+
+    // Payment validation: latency budget per rule, and the velocity and duplicate windows
+    public static final long VALIDATION_LIMIT_BUDGET_MS = 200;
+    public static final long VALIDATION_HISTORY_BUDGET_MS = 300;
+    public static final long VELOCITY_WINDOW_MS = 60 * 1000;
+    public static final int VELOCITY_MAX_PAYMENTS = 5;
+    public static final long DUPLICATE_WINDOW_MS = 2 * 60 * 1000;
+
+    // Service logs: queue bound, entries per flush, and longest wait before a flush
+    public static final int SERVICE_LOG_CAPACITY = 1024;
+    public static final int SERVICE_LOG_BATCH_SIZE = 64;
+    public static final long SERVICE_LOG_FLUSH_MS = 2000;
+
+    // Service log retention: rows and age kept per service, rows deleted per
+    // write transaction, and pages returned per incremental_vacuum step
+    public static final int SERVICE_LOG_MAX_ROWS = 10000;
+    public static final int SERVICE_LOG_MAX_AGE_DAYS = 90;
+    public static final int SERVICE_LOG_RETENTION_CHUNK = 500;
+    public static final int INCREMENTAL_VACUUM_PAGES = 256;
+
+    // Imported statement rows per SQLite transaction
+    public static final int IMPORT_BATCH_SIZE = 2000;
+
+    // Transaction history paging
+    public static final int TRANSACTION_PAGE_SIZE = 30;
+    public static final int TRANSACTION_PREFETCH_DISTANCE = 10;
+
+    // Failed and pending transactions older than this move to the archive table
+    public static final int ARCHIVE_AFTER_DAYS = 30;
+    public static final int ARCHIVE_CHUNK_SIZE = 500;
+
     // SharedPreferences
     public static final String PREF_NAME = "PayWisePrefs";
     public static final String PREF_USER_ID = "user_id";
@@ -44,6 +84,7 @@ public class Constants {
     // Intent Extras
     public static final String EXTRA_VAULT_ID = "vault_id";
     public static final String EXTRA_TRANSACTION_ID = "transaction_id";
+    public static final String EXTRA_FULL_HISTORY = "full_history";
 
     // Image
     public static final int MAX_IMAGE_SIZE = 1024; // pixels
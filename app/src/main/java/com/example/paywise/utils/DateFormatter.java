@@ -0,0 +1,236 @@
+package com.example.paywise.utils;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Allocation-free formatting of epoch-millis timestamps for one locale and time zone.
+ *
+ * Dates are reduced to a local day number with plain arithmetic (no Calendar or
+ * SimpleDateFormat), and the formatted text of each day is cached by that number,
+ * so formatting a date that was seen before returns a cached String. Relative labels
+ * ("Today", "Yesterday", "MMM dd") for the most recent days come from a table that is
+ * rebuilt once per day.
+ *
+ * Instances are immutable apart from the caches, which are safe to share between
+ * threads: entries are immutable and are published by a single reference write.
+ */
+public final class DateFormatter {
+
+    static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // Days covered by the relative label table, including today
+    static final int RECENT_DAYS = 30;
+
+    private static final int CACHE_SIZE = 512; // power of two
+    private static final String TODAY = "Today";
+    private static final String YESTERDAY = "Yesterday";
+
+    private final Locale locale;
+    private final TimeZone timeZone;
+    private final String[] shortMonths;
+    private final String[] months;
+    private final String[] amPm;
+
+    private final DayText[] dateCache = new DayText[CACHE_SIZE];
+    private volatile RecentTable recentTable;
+
+    public DateFormatter(Locale locale, TimeZone timeZone) {
+        this.locale = locale;
+        this.timeZone = timeZone;
+
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        this.shortMonths = symbols.getShortMonths();
+        this.months = symbols.getMonths();
+        this.amPm = symbols.getAmPmStrings();
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Format as "MMM dd, yyyy". Cached per local day.
+     * @param timestamp Epoch millis
+     * @return Formatted date
+     */
+    public String formatDate(long timestamp) {
+        long day = localDay(timestamp);
+        int slot = (int) (day & (CACHE_SIZE - 1));
+
+        DayText cached = dateCache[slot];
+        if (cached != null && cached.day == day) {
+            return cached.text;
+        }
+
+        StringBuilder sb = new StringBuilder(12);
+        appendDate(sb, day, true);
+        String text = sb.toString();
+        dateCache[slot] = new DayText(day, text);
+        return text;
+    }
+
+    /**
+     * Format as "Today", "Yesterday" or "MMM dd" for the last RECENT_DAYS days,
+     * otherwise as "MMM dd, yyyy"
+     * @param timestamp Epoch millis
+     * @param now Current time in epoch millis
+     * @return Formatted label
+     */
+    public String formatRelative(long timestamp, long now) {
+        long day = localDay(timestamp);
+        RecentTable table = recentTable(localDay(now));
+
+        long age = table.today - day;
+        if (age >= 0 && age < RECENT_DAYS) {
+            return table.labels[(int) age];
+        }
+        return formatDate(timestamp);
+    }
+
+    /**
+     * Append "MMM dd, yyyy hh:mm a" to a builder
+     * @param sb Builder to append to
+     * @param timestamp Epoch millis
+     * @return The same builder
+     */
+    public StringBuilder appendDateTime(StringBuilder sb, long timestamp) {
+        long local = timestamp + timeZone.getOffset(timestamp);
+        int minuteOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 60000);
+        int hour = minuteOfDay / 60;
+        int hour12 = hour % 12 == 0 ? 12 : hour % 12;
+
+        sb.append(formatDate(timestamp)).append(' ');
+        appendTwoDigits(sb, hour12).append(':');
+        appendTwoDigits(sb, minuteOfDay % 60).append(' ');
+        return sb.append(amPm[hour < 12 ? 0 : 1]);
+    }
+
+    /**
+     * Append "yyyy-MM-dd HH:mm:ss" (local time) to a builder
+     */
+    public StringBuilder appendIsoDateTime(StringBuilder sb, long timestamp) {
+        long local = timestamp + timeZone.getOffset(timestamp);
+        long day = Math.floorDiv(local, MILLIS_PER_DAY);
+        int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+
+        appendIsoDay(sb, day).append(' ');
+        appendTwoDigits(sb, secondOfDay / 3600).append(':');
+        appendTwoDigits(sb, secondOfDay / 60 % 60).append(':');
+        return appendTwoDigits(sb, secondOfDay % 60);
+    }
+
+    /**
+     * Append "yyyy-MM-dd" (local date) to a builder
+     */
+    public StringBuilder appendIsoDate(StringBuilder sb, long timestamp) {
+        return appendIsoDay(sb, localDay(timestamp));
+    }
+
+    /**
+     * Day of month (1-31) of a timestamp in local time
+     */
+    public int getDayOfMonth(long timestamp) {
+        return (int) (civilFromDays(localDay(timestamp)) & 0xFF);
+    }
+
+    /**
+     * Full month name (e.g. "January") of a timestamp in local time
+     */
+    public String getMonthName(long timestamp) {
+        return months[(int) (civilFromDays(localDay(timestamp)) >> 8 & 0xFF) - 1];
+    }
+
+    /**
+     * Days since 1970-01-01 in this formatter's time zone
+     */
+    long localDay(long timestamp) {
+        return Math.floorDiv(timestamp + timeZone.getOffset(timestamp), MILLIS_PER_DAY);
+    }
+
+    private RecentTable recentTable(long today) {
+        RecentTable table = recentTable;
+        if (table == null || table.today != today) {
+            table = new RecentTable(today, buildRecentLabels(today));
+            recentTable = table;
+        }
+        return table;
+    }
+
+    private String[] buildRecentLabels(long today) {
+        String[] labels = new String[RECENT_DAYS];
+        labels[0] = TODAY;
+        labels[1] = YESTERDAY;
+        StringBuilder sb = new StringBuilder(8);
+        for (int i = 2; i < RECENT_DAYS; i++) {
+            sb.setLength(0);
+            appendDate(sb, today - i, false);
+            labels[i] = sb.toString();
+        }
+        return labels;
+    }
+
+    private StringBuilder appendDate(StringBuilder sb, long day, boolean withYear) {
+        long civil = civilFromDays(day);
+        int month = (int) (civil >> 8 & 0xFF);
+        sb.append(shortMonths[month - 1]).append(' ');
+        appendTwoDigits(sb, (int) (civil & 0xFF));
+        if (withYear) {
+            sb.append(", ").append(civil >> 16);
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendIsoDay(StringBuilder sb, long day) {
+        long civil = civilFromDays(day);
+        sb.append(civil >> 16).append('-');
+        appendTwoDigits(sb, (int) (civil >> 8 & 0xFF)).append('-');
+        return appendTwoDigits(sb, (int) (civil & 0xFF));
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Proleptic Gregorian date of a day number, packed as year << 16 | month << 8 | day
+     * so no object is needed to return it
+     */
+    static long civilFromDays(long days) {
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long d = doy - (153 * mp + 2) / 5 + 1;
+        long m = mp < 10 ? mp + 3 : mp - 9;
+        long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return y << 16 | m << 8 | d;
+    }
+
+    private static final class DayText {
+        final long day;
+        final String text;
+
+        DayText(long day, String text) {
+            this.day = day;
+            this.text = text;
+        }
+    }
+
+    private static final class RecentTable {
+        final long today;
+        final String[] labels;
+
+        RecentTable(long today, String[] labels) {
+            this.today = today;
+            this.labels = labels;
+        }
+    }
+}
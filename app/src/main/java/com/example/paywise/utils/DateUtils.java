@@ -1,81 +1,119 @@
 package com.example.paywise.utils;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 public class DateUtils {
 
+    // Shared formatter for the default locale and time zone; see resetFormatter()
+    private static volatile DateFormatter formatter;
+
+    /**
+     * Formatter for the current default locale and time zone.
+     * Rebuilt when the default locale changes; PayWiseApplication calls
+     * resetFormatter() when the time zone changes.
+     */
+    public static DateFormatter getFormatter() {
+        DateFormatter current = formatter;
+        if (current == null || current.getLocale() != Locale.getDefault()) {
+            current = new DateFormatter(Locale.getDefault(), TimeZone.getDefault());
+            formatter = current;
+        }
+        return current;
+    }
+
+    // Drop the shared formatter so the next call picks up locale / time zone changes
+    public static void resetFormatter() {
+        formatter = null;
+    }
+
     // Get current date and time in ISO format
     public static String getCurrentDateTime() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-        return sdf.format(new Date());
+        return getFormatter().appendIsoDateTime(new StringBuilder(19), System.currentTimeMillis()).toString();
     }
 
     // Get current date
     public static String getCurrentDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return sdf.format(new Date());
-    }
-
-    // Format date for display
-    public static String formatDateForDisplay(String dateString) {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-            SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-            Date date = inputFormat.parse(dateString);
-            return outputFormat.format(date);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return dateString;
-        }
+        return getFormatter().appendIsoDate(new StringBuilder(10), System.currentTimeMillis()).toString();
     }
 
-    // Format date and time for display
-    public static String formatDateTimeForDisplay(String dateString) {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-            SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy hh:mm a", Locale.getDefault());
-            Date date = inputFormat.parse(dateString);
-            return outputFormat.format(date);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return dateString;
-        }
+    // Format an epoch-millis timestamp for display
+    public static String formatDateForDisplay(long timestamp) {
+        return getFormatter().formatDate(timestamp);
+    }
+
+    // Format an epoch-millis timestamp as "Today", "Yesterday", "MMM dd" or "MMM dd, yyyy"
+    public static String formatRelativeDateForDisplay(long timestamp) {
+        return getFormatter().formatRelative(timestamp, System.currentTimeMillis());
+    }
+
+    // Format an epoch-millis timestamp with time for display
+    public static String formatDateTimeForDisplay(long timestamp) {
+        return getFormatter().appendDateTime(new StringBuilder(24), timestamp).toString();
+    }
+
+    // Get next month's reset date (local midnight on the 1st) as epoch millis
+    public static long getNextMonthResetDate() {
+        return getNextMonthStart(System.currentTimeMillis());
+    }
+
+    // Check if reset date (epoch millis) has passed
+    public static boolean isResetDatePassed(long resetDate) {
+        return System.currentTimeMillis() > resetDate;
     }
 
-    // Get next month's reset date
-    public static String getNextMonthResetDate() {
+    // Local midnight on the 1st of the month containing the timestamp
+    public static long getMonthStart(long timestamp) {
         Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.MONTH, 1);
+        calendar.setTimeInMillis(timestamp);
         calendar.set(Calendar.DAY_OF_MONTH, 1);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return sdf.format(calendar.getTime());
-    }
-
-    // Check if reset date has passed
-    public static boolean isResetDatePassed(String resetDate) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            Date reset = sdf.parse(resetDate);
-            Date current = new Date();
-            return current.after(reset);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+        clearTime(calendar);
+        return calendar.getTimeInMillis();
+    }
+
+    // Local midnight on the 1st of the month after the one containing the timestamp
+    public static long getNextMonthStart(long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(getMonthStart(timestamp));
+        calendar.add(Calendar.MONTH, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    // Local midnight on the first day of the week containing the timestamp
+    public static long getWeekStart(long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timestamp);
+        calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+        clearTime(calendar);
+        if (calendar.getTimeInMillis() > timestamp) {
+            calendar.add(Calendar.WEEK_OF_YEAR, -1);
         }
+        return calendar.getTimeInMillis();
+    }
+
+    // Local midnight on the first day of the week after the one containing the timestamp
+    public static long getNextWeekStart(long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(getWeekStart(timestamp));
+        calendar.add(Calendar.WEEK_OF_YEAR, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    private static void clearTime(Calendar calendar) {
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
     }
 
     // Get day of month
     public static int getDayOfMonth() {
-        Calendar calendar = Calendar.getInstance();
-        return calendar.get(Calendar.DAY_OF_MONTH);
+        return getFormatter().getDayOfMonth(System.currentTimeMillis());
     }
 
     // Get month name
     public static String getCurrentMonthName() {
-        SimpleDateFormat sdf = new SimpleDateFormat("MMMM", Locale.getDefault());
-        return sdf.format(new Date());
+        return getFormatter().getMonthName(System.currentTimeMillis());
     }
 }
\ No newline at end of file
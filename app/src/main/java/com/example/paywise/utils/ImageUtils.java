@@ -14,6 +14,8 @@ import java.io.InputStream;
 
 public class ImageUtils {
 
+    private static final LatencyHistogram LOAD_BITMAP = Metrics.histogram("image.loadBitmap");
+
     /**
      * Compress and save image to internal storage
      * @param context Application context
@@ -80,6 +82,7 @@ public class ImageUtils {
      * @return Bitmap or null if failed
      */
     public static Bitmap loadBitmapFromPath(String imagePath) {
+        long started = Metrics.now();
         try {
             File imageFile = new File(imagePath);
             if (imageFile.exists()) {
@@ -87,6 +90,8 @@ public class ImageUtils {
             }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            LOAD_BITMAP.recordSince(started);
         }
         return null;
     }
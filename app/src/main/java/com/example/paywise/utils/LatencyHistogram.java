@@ -0,0 +1,154 @@
+package com.example.paywise.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * Each power of two is split into 32 linear buckets, so any recorded value is
+ * known to within about 3%, from 1 ns up to MAX_VALUE (~68 s) in 1024 longs.
+ *
+ * Recording is lock-free and does not allocate: one atomic increment of a
+ * bucket plus the running sum, and a CAS only when a new maximum is seen.
+ * Snapshots read the buckets without stopping writers, so a snapshot taken
+ * during recording may be off by the few values in flight.
+ */
+public final class LatencyHistogram {
+
+    // Values below 2^SUB_BUCKET_BITS get a bucket each
+    static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+    private static final int MAX_EXPONENT = 35;
+
+    /** Largest value kept as is; longer latencies are recorded as this */
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 3) * HALF_SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record the time since a {@link Metrics#now()} reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record one latency
+     * @param nanos Latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        sum.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Copy the current state
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(name, copy, count, sum.get(), max.get());
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        // Top SUB_BUCKET_BITS bits of the value, of which the highest is always set
+        return (exponent - SUB_BUCKET_BITS + 2) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / HALF_SUB_BUCKETS + SUB_BUCKET_BITS - 2;
+        long mantissa = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return mantissa << (exponent - SUB_BUCKET_BITS + 1);
+    }
+
+    static long highestValueAt(int index) {
+        return index + 1 < BUCKETS ? lowestValueAt(index + 1) - 1 : MAX_VALUE;
+    }
+
+    /**
+     * Point-in-time copy of a histogram; values are in nanoseconds
+     */
+    public static final class Snapshot {
+        public final String name;
+        public final long count;
+        public final long sum;
+        public final long max;
+        private final long[] counts;
+
+        Snapshot(String name, long[] counts, long count, long sum, long max) {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Value at a percentile, as the upper bound of its bucket
+         * @param percentile 0 to 100
+         * @return latency in nanoseconds, 0 if nothing was recorded
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
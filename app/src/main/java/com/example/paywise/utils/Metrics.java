@@ -0,0 +1,187 @@
+package com.example.paywise.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms.
+ * Instruments are looked up by name once, typically into a static final
+ * field, and then recorded without locks or allocation:
+ *
+ * <pre>
+ * private static final LatencyHistogram COMMIT = Metrics.histogram("payment.commit");
+ * ...
+ * long start = Metrics.now();
+ * try { ... } finally { COMMIT.recordSince(start); }
+ * </pre>
+ *
+ * Names are dotted, area first ("dao.vault.getById"), so reports group by area.
+ */
+public final class Metrics {
+
+    /**
+     * Value read when a report is taken
+     */
+    public interface Gauge {
+        long getValue();
+    }
+
+    /**
+     * Monotonic count of events
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        Counter() {}
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    /**
+     * Start time for {@link LatencyHistogram#recordSince(long)}
+     */
+    public static long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Counter with this name, created on first use
+     */
+    public static Counter counter(String name) {
+        Counter counter = COUNTERS.get(name);
+        if (counter == null) {
+            Counter created = new Counter();
+            counter = COUNTERS.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Latency histogram with this name, created on first use
+     */
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram(name);
+            histogram = HISTOGRAMS.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Register a gauge, replacing any gauge of the same name
+     * @param gauge Read on the reporting thread; must be cheap and thread-safe
+     */
+    public static void gauge(String name, Gauge gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Counter values by name, sorted
+     */
+    public static Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : COUNTERS.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+    /**
+     * Gauge values by name, sorted
+     */
+    public static Map<String, Long> gauges() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Gauge> entry : GAUGES.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Snapshots of every histogram that has recorded something, sorted by name
+     */
+    public static List<LatencyHistogram.Snapshot> histograms() {
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>();
+        for (String name : new TreeMap<>(HISTOGRAMS).keySet()) {
+            LatencyHistogram.Snapshot snapshot = HISTOGRAMS.get(name).snapshot();
+            if (snapshot.count > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Zero every counter and histogram; gauges are left alone
+     */
+    public static void reset() {
+        for (Counter counter : COUNTERS.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Plain-text report for the debug screen and logs, latencies in milliseconds
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "%-36s %7s %8s %8s %8s %8s%n",
+                "latency (ms)", "count", "p50", "p90", "p99", "max"));
+        for (LatencyHistogram.Snapshot snapshot : histograms()) {
+            out.append(String.format(Locale.US, "%-36s %7d %8.2f %8.2f %8.2f %8.2f%n",
+                    snapshot.name, snapshot.count,
+                    toMillis(snapshot.percentile(50)), toMillis(snapshot.percentile(90)),
+                    toMillis(snapshot.percentile(99)), toMillis(snapshot.max)));
+        }
+        out.append(String.format(Locale.US, "%n%-36s %7s%n", "counters", "value"));
+        for (Map.Entry<String, Long> entry : counters().entrySet()) {
+            out.append(String.format(Locale.US, "%-36s %7d%n", entry.getKey(), entry.getValue()));
+        }
+        out.append(String.format(Locale.US, "%n%-36s %7s%n", "gauges", "value"));
+        for (Map.Entry<String, Long> entry : gauges().entrySet()) {
+            out.append(String.format(Locale.US, "%-36s %7d%n", entry.getKey(), entry.getValue()));
+        }
+        return out.toString();
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
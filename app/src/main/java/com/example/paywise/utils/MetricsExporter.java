@@ -0,0 +1,87 @@
+package com.example.paywise.utils;
+
+import android.content.Context;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dumps the {@link Metrics} registry to a JSON file under files/metrics, to be
+ * pulled with adb or attached to a bug report. Latencies are in microseconds.
+ * Blocking: call it off the main thread.
+ */
+public final class MetricsExporter {
+
+    private static final String DIRECTORY = "metrics";
+
+    private MetricsExporter() {}
+
+    /**
+     * Write the current metrics to a new timestamped file
+     * @return the file written
+     * @throws IOException if the file cannot be written
+     */
+    public static File dump(Context context) throws IOException {
+        File directory = new File(context.getFilesDir(), DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        long now = System.currentTimeMillis();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date(now));
+        File file = new File(directory, "metrics-" + stamp + ".json");
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            write(out, now);
+        }
+        return file;
+    }
+
+    static void write(Writer out, long timestamp) throws IOException {
+        out.write("{\"timestamp\":" + timestamp + ",\"histograms\":{");
+        boolean first = true;
+        for (LatencyHistogram.Snapshot snapshot : Metrics.histograms()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write("\n\"" + snapshot.name + "\":{\"count\":" + snapshot.count +
+                    ",\"mean_us\":" + micros(snapshot.mean()) +
+                    ",\"p50_us\":" + micros(snapshot.percentile(50)) +
+                    ",\"p90_us\":" + micros(snapshot.percentile(90)) +
+                    ",\"p99_us\":" + micros(snapshot.percentile(99)) +
+                    ",\"p999_us\":" + micros(snapshot.percentile(99.9)) +
+                    ",\"max_us\":" + micros(snapshot.max) + "}");
+        }
+        out.write("},\n\"counters\":");
+        writeValues(out, Metrics.counters());
+        out.write(",\n\"gauges\":");
+        writeValues(out, Metrics.gauges());
+        out.write("}\n");
+    }
+
+    private static void writeValues(Writer out, Map<String, Long> values) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write("\"" + entry.getKey() + "\":" + entry.getValue());
+        }
+        out.write('}');
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.paywise.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is handled as a long count of paise (1/100 rupee) everywhere in the
+ * app: models, database columns and arithmetic. These helpers convert at the
+ * edges only — parsing user input and formatting for display.
+ */
+public final class Money {
+
+    public static final long PAISE_PER_RUPEE = 100;
+
+    private static final String CURRENCY_SYMBOL = "₹";
+
+    private Money() {}
+
+    /**
+     * Parse a rupee amount typed by the user, e.g. "120.5"
+     * @param text Amount in rupees
+     * @return Amount in paise, rounded half-up to the nearest paisa
+     * @throws NumberFormatException if the text is not a valid amount
+     */
+    public static long parse(String text) {
+        try {
+            return new BigDecimal(text.trim())
+                    .movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Convert a rupee value to paise, rounding to the nearest paisa
+     */
+    public static long fromRupees(double rupees) {
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    /**
+     * Convert paise to rupees (for display or interop only, never for arithmetic)
+     */
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    /**
+     * Format as "₹1234.50" (or "-₹1234.50")
+     */
+    public static String format(long paise) {
+        StringBuilder sb = new StringBuilder(16);
+        appendAmount(sb, paise);
+        return sb.toString();
+    }
+
+    /**
+     * Format rounded to whole rupees, e.g. "₹1235"
+     */
+    public static String formatWhole(long paise) {
+        long abs = Math.abs(paise);
+        long rupees = (abs + PAISE_PER_RUPEE / 2) / PAISE_PER_RUPEE;
+
+        StringBuilder sb = new StringBuilder(12);
+        if (paise < 0 && rupees != 0) {
+            sb.append('-');
+        }
+        sb.append(CURRENCY_SYMBOL).append(rupees);
+        return sb.toString();
+    }
+
+    /**
+     * Append "₹rupees.paise" to an existing builder
+     */
+    public static StringBuilder appendAmount(StringBuilder sb, long paise) {
+        return appendDecimal(sb, paise, CURRENCY_SYMBOL);
+    }
+
+    /**
+     * Append "rupees.paise" with no currency symbol, e.g. "-1234.50" (for exports)
+     */
+    public static StringBuilder appendPlain(StringBuilder sb, long paise) {
+        return appendDecimal(sb, paise, "");
+    }
+
+    private static StringBuilder appendDecimal(StringBuilder sb, long paise, String symbol) {
+        long abs = Math.abs(paise);
+        long rupees = abs / PAISE_PER_RUPEE;
+        long fraction = abs % PAISE_PER_RUPEE;
+
+        if (paise < 0) {
+            sb.append('-');
+        }
+        sb.append(symbol).append(rupees).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.paywise.managers;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The row hashes ImportManager stores in import_hash, whose unique index
+ * makes re-importing a statement a no-op. Runs as a local unit test on the host JVM.
+ */
+public class ImportHashTest {
+
+    private static final String STATEMENT =
+            "Date,Description,Amount,Notes\n" +
+                    "2024-01-01 10:00,Coffee,-50.00,\n" +
+                    "2024-01-01 10:00,Coffee,-50.00,\n" +
+                    "2024-01-02,Books,-450.00,gift\n" +
+                    "2024-01-03,Salary,90000,\n";
+
+    @Test
+    public void reimport_producesTheSameHashes() throws IOException {
+        List<Long> first = hashes(STATEMENT, 1);
+        assertEquals(first, hashes(STATEMENT, 1));
+        // Repeated rows within one statement are kept apart
+        assertEquals(first.size(), new HashSet<>(first).size());
+    }
+
+    @Test
+    public void overlappingStatement_sharesHashesOnlyForSharedRows() throws IOException {
+        String later = STATEMENT.substring(STATEMENT.indexOf("2024-01-02")) + "2024-01-04,Rent,-20000,\n";
+        Set<Long> earlier = new HashSet<>(hashes(STATEMENT, 1));
+        List<Long> overlapping = hashes("Date,Description,Amount,Notes\n" + later, 1);
+
+        assertEquals(3, overlapping.size());
+        assertTrue(earlier.contains(overlapping.get(0)));
+        assertTrue(earlier.contains(overlapping.get(1)));
+        assertFalse(earlier.contains(overlapping.get(2)));
+    }
+
+    @Test
+    public void contentHash_dependsOnVaultAndFields() {
+        StatementParser.Row row = row(1_000, -500, "Shop", null, null);
+        long hash = ImportManager.contentHash(1, row);
+
+        assertNotEquals(hash, ImportManager.contentHash(2, row));
+        assertNotEquals(hash, ImportManager.contentHash(1, row(1_001, -500, "Shop", null, null)));
+        assertNotEquals(hash, ImportManager.contentHash(1, row(1_000, 500, "Shop", null, null)));
+        assertNotEquals(hash, ImportManager.contentHash(1, row(1_000, -500, "Shop", "memo", null)));
+        // Field boundaries count: "ab" + "c" is not "a" + "bc"
+        assertNotEquals(ImportManager.contentHash(1, row(1_000, -500, "ab", "c", null)),
+                ImportManager.contentHash(1, row(1_000, -500, "a", "bc", null)));
+    }
+
+    @Test
+    public void contentHash_usesTheBankReferenceWhenPresent() {
+        long hash = ImportManager.contentHash(1, row(1_000, -500, "Shop", null, "FIT-1"));
+        // Banks reword descriptions between downloads; the reference still matches
+        assertEquals(hash, ImportManager.contentHash(1, row(2_000, -500, "SHOP LTD", "memo", "FIT-1")));
+        assertNotEquals(hash, ImportManager.contentHash(1, row(1_000, -500, "Shop", null, "FIT-2")));
+    }
+
+    @Test
+    public void importHash_separatesOccurrences() {
+        long content = ImportManager.contentHash(1, row(1_000, -500, "Shop", null, null));
+        assertNotEquals(ImportManager.importHash(content, 0), ImportManager.importHash(content, 1));
+        assertEquals(ImportManager.importHash(content, 1), ImportManager.importHash(content, 1));
+    }
+
+    /**
+     * Import hashes in statement order, numbered per content hash as ImportManager does
+     */
+    private static List<Long> hashes(String csv, int vaultId) throws IOException {
+        StatementParser parser = StatementParser.create(ImportManager.Format.CSV, new StringReader(csv));
+        StatementParser.Row row = new StatementParser.Row();
+        Map<Long, Integer> occurrences = new HashMap<>();
+        List<Long> hashes = new ArrayList<>();
+        while (parser.next(row)) {
+            long content = ImportManager.contentHash(vaultId, row);
+            Integer seen = occurrences.get(content);
+            int occurrence = seen == null ? 0 : seen;
+            occurrences.put(content, occurrence + 1);
+            hashes.add(ImportManager.importHash(content, occurrence));
+        }
+        return hashes;
+    }
+
+    private static StatementParser.Row row(long date, long amount, String merchant, String description,
+                                           String reference) {
+        StatementParser.Row row = new StatementParser.Row();
+        row.date = date;
+        row.amount = amount;
+        row.merchant = merchant;
+        row.description = description;
+        row.reference = reference;
+        return row;
+    }
+}
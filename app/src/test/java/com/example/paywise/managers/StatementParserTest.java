@@ -0,0 +1,196 @@
+package com.example.paywise.managers;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * CSV quoting and column handling, OFX aggregates, and the amount and date
+ * formats accepted by StatementParser. Runs as a local unit test on the host JVM.
+ */
+public class StatementParserTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    @Test
+    public void csv_quotedFieldsKeepCommasQuotesAndNewlines() throws IOException {
+        List<StatementParser.Row> rows = parseAll(ImportManager.Format.CSV,
+                "﻿Date,Description,Amount,Notes\r\n" +
+                        "2024-01-05,\"Shop, \"\"Big\"\" Bazaar\",-1.50,\"two\nlines\"\r\n" +
+                        "\r\n" +
+                        "2024-01-06,Plain,20,");
+
+        assertEquals(2, rows.size());
+        assertEquals("Shop, \"Big\" Bazaar", rows.get(0).merchant);
+        assertEquals(-150, rows.get(0).amount);
+        assertEquals("two\nlines", rows.get(0).description);
+        assertEquals("Plain", rows.get(1).merchant);
+        assertEquals(2000, rows.get(1).amount);
+        assertNull(rows.get(1).description);
+        assertEquals(local(2024, 1, 6, 0, 0, 0), rows.get(1).date);
+    }
+
+    @Test
+    public void csv_debitAndCreditColumns_takeTheNonZeroOne() throws IOException {
+        List<StatementParser.Row> rows = parseAll(ImportManager.Format.CSV,
+                "Value Date,Narration,Withdrawal,Deposit,Ref\n" +
+                        "05/01/2024,ATM,500.00,0.00,R1\n" +
+                        "06/01/2024,Salary,0.00,\"1,000.00\",R2\n" +
+                        "07/01/2024,Refund,,250,R3\n" +
+                        "08/01/2024,Nothing,,,R4\n" +
+                        "09/01/2024,Fee,12.5,,R5\n");
+
+        // The row with neither amount is rejected and parsing goes on
+        assertEquals(4, rows.size());
+        assertEquals(-50_000, rows.get(0).amount);
+        assertEquals("R1", rows.get(0).reference);
+        assertEquals(100_000, rows.get(1).amount);
+        assertEquals(25_000, rows.get(2).amount);
+        assertEquals(-1_250, rows.get(3).amount);
+        assertEquals(local(2024, 1, 5, 0, 0, 0), rows.get(0).date);
+    }
+
+    @Test(expected = IOException.class)
+    public void csv_withoutAmountColumns_isRejected() throws IOException {
+        parseAll(ImportManager.Format.CSV, "Date,Description,Balance\n2024-01-05,Shop,10\n");
+    }
+
+    @Test
+    public void ofx_readsSgmlAndXmlTransactions() throws IOException {
+        List<StatementParser.Row> rows = parseAll(ImportManager.Format.OFX,
+                "OFXHEADER:100\nDATA:OFXSGML\n<OFX><BANKTRANLIST>\n" +
+                        "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240105120000.000[+5.30:IST]<TRNAMT>-1,234.5" +
+                        "<FITID>A1<NAME>Tom &amp; Co<MEMO>lunch\n</STMTTRN>\n" +
+                        "<STMTTRN>\n<DTPOSTED>20240106</DTPOSTED>\n<TRNAMT>99.999</TRNAMT>\n" +
+                        "<PAYEE>Payee</PAYEE><MEMO>refund</MEMO>\n</STMTTRN>\n" +
+                        "<STMTTRN><DTPOSTED>20240107<NAME>No amount</STMTTRN>\n" +
+                        "</BANKTRANLIST></OFX>");
+
+        assertEquals(2, rows.size());
+        StatementParser.Row first = rows.get(0);
+        assertEquals("Tom & Co", first.merchant);
+        assertEquals("lunch", first.description);
+        assertEquals("A1", first.reference);
+        assertEquals(-123_450, first.amount);
+        assertEquals(utc(2024, 1, 5, 6, 30, 0), first.date);
+
+        StatementParser.Row second = rows.get(1);
+        assertEquals("Payee", second.merchant);
+        assertNull(second.reference);
+        assertEquals(10_000, second.amount);
+        assertEquals(local(2024, 1, 6, 0, 0, 0), second.date);
+    }
+
+    @Test
+    public void parseAmount_acceptsBankFormats() {
+        assertEquals(123_450, amount("1,234.50"));
+        assertEquals(-1_200, amount("-12"));
+        assertEquals(-8_000, amount("(80.00)"));
+        assertEquals(9_990, amount("₹ 99.9"));
+        assertEquals(1_000, amount("+10"));
+        assertEquals(1, amount("0.005"));
+        assertEquals(0, amount("0.004"));
+        assertEquals(0, amount("0.00"));
+
+        for (String malformed : new String[]{"", " ", "12a", "1.2.3", "--"}) {
+            try {
+                amount(malformed);
+                fail("accepted \"" + malformed + "\"");
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void parseDate_acceptsStatementFormats() {
+        long day = utc(2024, 3, 15, 0, 0, 0);
+        assertEquals(day, date("2024-03-15"));
+        assertEquals(day, date(" 15/03/2024 "));
+        assertEquals(day, date("15-03-2024"));
+        assertEquals(day, date("20240315"));
+        assertEquals(utc(2024, 3, 15, 14, 30, 0), date("15/03/2024 14:30"));
+        assertEquals(utc(2024, 3, 15, 14, 30, 45), date("2024-03-15T14:30:45"));
+        assertEquals(utc(2024, 3, 15, 14, 30, 45), date("20240315143045"));
+
+        for (String malformed : new String[]{"", "yesterday", "2024-13-01", "32/01/2024", "2024-03"}) {
+            try {
+                date(malformed);
+                fail("accepted \"" + malformed + "\"");
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void parseDate_appliesOfxOffsets() {
+        long utc = utc(2024, 3, 15, 9, 0, 45);
+        assertEquals(utc, date("20240315143045.000[+5.30:IST]"));
+        assertEquals(utc, date("20240315143045[+5.5:IST]"));
+        assertEquals(utc(2024, 3, 15, 19, 30, 45), date("20240315143045.000[-5:EST]"));
+        assertEquals(utc(2024, 3, 15, 14, 30, 45), date("20240315143045[0:GMT]"));
+    }
+
+    @Test
+    public void rowsAreReused() throws IOException {
+        StatementParser parser = StatementParser.create(ImportManager.Format.CSV,
+                new StringReader("Date,Payee,Amount,Memo\n2024-01-05,A,1,first\n2024-01-06,B,2,\n"));
+        StatementParser.Row row = new StatementParser.Row();
+        assertTrue(parser.next(row));
+        assertEquals("first", row.description);
+        assertTrue(parser.next(row));
+        assertNull(row.description);
+        assertFalse(parser.next(row));
+    }
+
+    private static List<StatementParser.Row> parseAll(ImportManager.Format format, String input)
+            throws IOException {
+        StatementParser parser = StatementParser.create(format, new StringReader(input));
+        List<StatementParser.Row> rows = new ArrayList<>();
+        while (true) {
+            StatementParser.Row row = new StatementParser.Row();
+            try {
+                if (!parser.next(row)) {
+                    return rows;
+                }
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            rows.add(row);
+        }
+    }
+
+    private static long amount(String text) {
+        return StatementParser.parseAmount(text, 0, text.length());
+    }
+
+    private static long date(String text) {
+        return StatementParser.parseDate(text, 0, text.length(), Calendar.getInstance(UTC));
+    }
+
+    private static long utc(int year, int month, int day, int hour, int minute, int second) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        return calendar.getTimeInMillis();
+    }
+
+    private static long local(int year, int month, int day, int hour, int minute, int second) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        return calendar.getTimeInMillis();
+    }
+}
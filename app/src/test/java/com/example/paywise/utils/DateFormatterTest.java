@@ -0,0 +1,66 @@
+package com.example.paywise.utils;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * DateFormatter output against the SimpleDateFormat patterns it replaced.
+ * Runs as a local unit test on the host JVM; timings are in the benchmark
+ * module's FormatBenchmark.
+ */
+public class DateFormatterTest {
+
+    private static final Locale LOCALE = Locale.US;
+    private static final TimeZone ZONE = TimeZone.getTimeZone("Asia/Kolkata");
+    private static final long NOW = 1767225600000L; // 2026-01-01T00:00:00Z
+
+    @Test
+    public void formatDate_matchesSimpleDateFormat() {
+        DateFormatter formatter = new DateFormatter(LOCALE, ZONE);
+        SimpleDateFormat expected = new SimpleDateFormat("MMM dd, yyyy", LOCALE);
+        expected.setTimeZone(ZONE);
+
+        // Every day from 1970 to 2100, at a time near either end of the local day
+        for (long day = 0; day < 47_500; day++) {
+            long start = day * DateFormatter.MILLIS_PER_DAY - ZONE.getOffset(day * DateFormatter.MILLIS_PER_DAY);
+            long end = start + DateFormatter.MILLIS_PER_DAY - 1;
+            assertEquals(expected.format(new Date(start)), formatter.formatDate(start));
+            assertEquals(expected.format(new Date(end)), formatter.formatDate(end));
+        }
+    }
+
+    @Test
+    public void formatDateTime_matchesSimpleDateFormat() {
+        DateFormatter formatter = new DateFormatter(LOCALE, ZONE);
+        SimpleDateFormat expected = new SimpleDateFormat("MMM dd, yyyy hh:mm a", LOCALE);
+        expected.setTimeZone(ZONE);
+        SimpleDateFormat expectedIso = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", LOCALE);
+        expectedIso.setTimeZone(ZONE);
+
+        for (long t = NOW - 400L * DateFormatter.MILLIS_PER_DAY; t < NOW; t += 7_777_777L) {
+            assertEquals(expected.format(new Date(t)),
+                    formatter.appendDateTime(new StringBuilder(), t).toString());
+            assertEquals(expectedIso.format(new Date(t)),
+                    formatter.appendIsoDateTime(new StringBuilder(), t).toString());
+        }
+    }
+
+    @Test
+    public void formatRelative_usesBuckets() {
+        DateFormatter formatter = new DateFormatter(LOCALE, ZONE);
+        long day = DateFormatter.MILLIS_PER_DAY;
+
+        assertEquals("Today", formatter.formatRelative(NOW, NOW));
+        assertEquals("Yesterday", formatter.formatRelative(NOW - day, NOW));
+        assertEquals("Dec 30", formatter.formatRelative(NOW - 2 * day, NOW));
+        assertEquals("Nov 01, 2025", formatter.formatRelative(NOW - 61 * day, NOW));
+        // Dates in the future are never "Today"
+        assertEquals("Jan 02, 2026", formatter.formatRelative(NOW + day, NOW));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.paywise.utils;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bucket layout, percentile accuracy and the allocation-free recording path
+ * of LatencyHistogram. Runs as a local unit test on the host JVM.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets_coverEveryValueContiguously() {
+        assertEquals(0, LatencyHistogram.indexOf(0));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE));
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long low = LatencyHistogram.lowestValueAt(i);
+            long high = LatencyHistogram.highestValueAt(i);
+            assertEquals(i, LatencyHistogram.indexOf(low));
+            assertEquals(i, LatencyHistogram.indexOf(high));
+            if (i > 0) {
+                assertEquals(LatencyHistogram.highestValueAt(i - 1) + 1, low);
+            }
+            // Bucket width is at most ~3% of its values
+            assertTrue("bucket " + i + " is " + low + ".." + high, high - low <= Math.max(0, low / 32));
+        }
+    }
+
+    @Test
+    public void percentiles_matchExactValuesWithinBucketPrecision() {
+        Random random = new Random(42);
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal-ish latencies around 1 ms with a long tail
+            values[i] = (long) (1_000_000 * Math.exp(random.nextGaussian()));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.count);
+        assertEquals(values[values.length - 1], snapshot.max);
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = snapshot.percentile(percentile);
+            assertTrue("p" + percentile + " " + estimate + " vs " + exact,
+                    estimate >= exact && estimate <= exact + exact / 32 + 1);
+        }
+    }
+
+    @Test
+    public void record_clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count);
+        assertEquals(0, snapshot.percentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.max);
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count);
+        assertEquals(0, histogram.snapshot().percentile(99));
+    }
+
+    @Test
+    public void record_isThreadSafe() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram("test");
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100_000; i++) {
+                        histogram.record(offset * 1000 + i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(800_000, snapshot.count);
+        assertEquals(7 * 1000 + 99_999, snapshot.max);
+    }
+
+    @Test
+    public void record_doesNotAllocate() {
+        LatencyHistogram histogram = Metrics.histogram("test.allocation");
+        Metrics.Counter counter = Metrics.counter("test.allocation");
+        for (int i = 0; i < 200_000; i++) {
+            histogram.recordSince(Metrics.now() - i);
+            counter.increment();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            histogram.recordSince(Metrics.now() - i);
+            counter.increment();
+        }
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        assertTrue("recording allocated " + bytes + " B", bytes < 1024);
+        assertEquals(1_200_000, counter.get());
+    }
+}
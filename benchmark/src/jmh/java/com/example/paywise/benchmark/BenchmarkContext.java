@@ -0,0 +1,31 @@
+package com.example.paywise.benchmark;
+
+import android.content.Context;
+import java.io.File;
+
+/**
+ * Context whose databases and files live in one directory on the host
+ */
+final class BenchmarkContext extends Context {
+
+    private final File directory;
+
+    BenchmarkContext(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    @Override
+    public File getDatabasePath(String name) {
+        return new File(directory, name);
+    }
+
+    @Override
+    public File getFilesDir() {
+        return new File(directory, "files");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.paywise.benchmark;
+
+import com.example.paywise.utils.DateUtils;
+import com.example.paywise.utils.Money;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date and money formatting as done once per row when binding lists.
+ * Inputs cycle through a fixed table so no call can be constant-folded.
+ * simpleDateFormatPerCall is the per-row SimpleDateFormat that DateFormatter
+ * replaced; run with -Pjmh.profilers=gc to compare bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private final long[] timestamps = new long[INPUTS];
+    private final long[] amounts = new long[INPUTS];
+    private final String[] amountTexts = new String[INPUTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < INPUTS; i++) {
+            // Spread over the last year, with some today and yesterday for the relative format
+            timestamps[i] = now - (i % 4 == 0 ? i * 60_000L : i * 8_640_000L * 4);
+            amounts[i] = i * 7_919L + i % 100;
+            amountTexts[i] = Money.appendPlain(new StringBuilder(), amounts[i]).toString();
+        }
+    }
+
+    private int nextIndex() {
+        return next++ & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public String formatDateForDisplay() {
+        return DateUtils.formatDateForDisplay(timestamps[nextIndex()]);
+    }
+
+    @Benchmark
+    public String formatRelativeDateForDisplay() {
+        return DateUtils.formatRelativeDateForDisplay(timestamps[nextIndex()]);
+    }
+
+    @Benchmark
+    public String simpleDateFormatPerCall() {
+        SimpleDateFormat format = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        return format.format(new Date(timestamps[nextIndex()]));
+    }
+
+    @Benchmark
+    public String formatMoney() {
+        return Money.format(amounts[nextIndex()]);
+    }
+
+    @Benchmark
+    public long parseMoney() {
+        return Money.parse(amountTexts[nextIndex()]);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.paywise.benchmark;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import com.example.paywise.database.DatabaseManager;
+import com.example.paywise.database.UserDao;
+import com.example.paywise.database.VaultDao;
+import com.example.paywise.models.User;
+import com.example.paywise.models.Vault;
+import com.example.paywise.utils.Constants;
+import com.example.paywise.utils.DateUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A database holding one user, five vaults and a ledger of {@code rows}
+ * transactions spread over the last two years.
+ *
+ * Seeding a million rows takes a while, so each ledger is built once into
+ * paywise.benchmark.dir/seed-ROWS.db and copied into a fresh working
+ * directory for every trial; benchmarks that write never see each other's rows.
+ *
+ * DatabaseManager is a process-wide singleton bound to the first context it
+ * sees. That is safe here because JMH forks a new JVM for every parameter
+ * value, so each JVM only ever opens one ledger.
+ */
+@State(Scope.Benchmark)
+public class LedgerState {
+
+    static final String SQL_INSERT_TRANSACTION =
+            "INSERT INTO " + Constants.TABLE_TRANSACTIONS +
+                    " (vault_id, merchant_name, amount, transaction_type, description, transaction_date, status)" +
+                    " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] VAULT_TYPES = {
+            Constants.VAULT_TYPE_FOOD, Constants.VAULT_TYPE_TRAVEL, Constants.VAULT_TYPE_LIFESTYLE,
+            Constants.VAULT_TYPE_BUSINESS, Constants.VAULT_TYPE_EMERGENCY
+    };
+    private static final String[] MERCHANTS = {
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "IRCTC", "Myntra", "Zepto"
+    };
+    private static final long LEDGER_SPAN_MILLIS = TimeUnit.DAYS.toMillis(730);
+    // Large enough that benchmark payments never run a vault dry
+    private static final long MONTHLY_LIMIT = Long.MAX_VALUE / 4;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    public BenchmarkContext context;
+    public int userId;
+    public int[] vaultIds;
+
+    private DatabaseManager databaseManager;
+
+    @Setup
+    public void setUp() throws IOException {
+        File root = new File(System.getProperty("paywise.benchmark.dir", "build/ledgers"));
+        File seed = new File(root, "seed-" + rows + ".db");
+        File work = Files.createTempDirectory(mkdirs(root).toPath(), "trial-").toFile();
+        context = new BenchmarkContext(work);
+
+        File database = context.getDatabasePath(Constants.DATABASE_NAME);
+        if (seed.isFile()) {
+            Files.copy(seed.toPath(), database.toPath());
+        }
+
+        databaseManager = DatabaseManager.getInstance(context);
+        SQLiteDatabase db = databaseManager.open();
+        if (!seed.isFile()) {
+            seed(db);
+            // Closing checkpoints the WAL, leaving a self-contained file to copy
+            databaseManager.close();
+            Files.copy(database.toPath(), seed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            databaseManager.open();
+        }
+
+        userId = new UserDao(context).getFirstUser().getUserId();
+        List<Vault> vaults = new VaultDao(context).getAllVaultsByUser(userId);
+        vaultIds = new int[vaults.size()];
+        for (int i = 0; i < vaultIds.length; i++) {
+            vaultIds[i] = vaults.get(i).getVaultId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        databaseManager.close();
+        File[] files = context.getDatabasePath(Constants.DATABASE_NAME).getParentFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        context.getDatabasePath(Constants.DATABASE_NAME).getParentFile().delete();
+    }
+
+    private void seed(SQLiteDatabase db) {
+        long now = System.currentTimeMillis();
+        String createdAt = DateUtils.getCurrentDateTime();
+        User user = new User("Benchmark User", "bench@paywise.test", "9999999999", null, createdAt, createdAt);
+        int seededUserId = (int) new UserDao(context).insertUser(user);
+
+        VaultDao vaultDao = new VaultDao(context);
+        int[] seededVaultIds = new int[VAULT_TYPES.length];
+        for (int i = 0; i < VAULT_TYPES.length; i++) {
+            Vault vault = new Vault(seededUserId, VAULT_TYPES[i] + " vault", VAULT_TYPES[i],
+                    MONTHLY_LIMIT, "#4CAF50", now, DateUtils.getNextMonthResetDate());
+            seededVaultIds[i] = (int) vaultDao.insertVault(vault);
+        }
+
+        // One transaction and one compiled statement; the DAO path would take minutes at 1M rows
+        Random random = new Random(rows);
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT_TRANSACTION);
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < rows; i++) {
+                insert.clearBindings();
+                insert.bindLong(1, seededVaultIds[random.nextInt(seededVaultIds.length)]);
+                insert.bindString(2, MERCHANTS[random.nextInt(MERCHANTS.length)]);
+                insert.bindLong(3, 100 + random.nextInt(500_000));
+                insert.bindString(4, Constants.TRANSACTION_TYPE_DEBIT);
+                insert.bindString(5, "Seeded payment " + i);
+                insert.bindLong(6, now - (long) (random.nextDouble() * LEDGER_SPAN_MILLIS));
+                insert.bindString(7, random.nextInt(50) == 0
+                        ? Constants.TRANSACTION_STATUS_FAILED : Constants.TRANSACTION_STATUS_SUCCESS);
+                insert.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            insert.close();
+        }
+    }
+
+    private static File mkdirs(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.paywise.benchmark;
+
+import com.example.paywise.managers.PaymentManager;
+import com.example.paywise.models.Transaction;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One payment end to end: balance check, vault debit and ledger insert in a
+ * single SQLite transaction, plus the spend-totals triggers on the ledger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaymentManagerBenchmark {
+
+    private PaymentManager paymentManager;
+    private int paymentCount;
+
+    @Setup
+    public void setUp(LedgerState ledger) {
+        paymentManager = new PaymentManager(ledger.context);
+    }
+
+    @Benchmark
+    public Transaction processPayment(LedgerState ledger) {
+        int vaultId = ledger.vaultIds[paymentCount++ % ledger.vaultIds.length];
+        return paymentManager.processPayment(vaultId, "Benchmark", 4_999, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.paywise.benchmark;
+
+import com.example.paywise.database.TransactionDao;
+import com.example.paywise.models.Transaction;
+import com.example.paywise.utils.Constants;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * TransactionDao against ledgers of 1k, 100k and 1M rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionDaoBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private TransactionDao transactionDao;
+    private int insertCount;
+
+    @Setup
+    public void setUp(LedgerState ledger) {
+        transactionDao = new TransactionDao(ledger.context);
+    }
+
+    /**
+     * Single autocommitted insert, the cost of one un-batched write
+     */
+    @Benchmark
+    public long insertTransaction(LedgerState ledger) {
+        int vaultId = ledger.vaultIds[insertCount++ % ledger.vaultIds.length];
+        Transaction transaction = new Transaction(vaultId, "Benchmark", 4_999, Constants.TRANSACTION_TYPE_DEBIT,
+                null, System.currentTimeMillis(), Constants.TRANSACTION_STATUS_SUCCESS);
+        return transactionDao.insertTransaction(transaction);
+    }
+
+    /**
+     * Full history load; grows with the ledger and shows what paging saves
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Transaction> getAllTransactionsByUser(LedgerState ledger) {
+        return transactionDao.getAllTransactionsByUser(ledger.userId);
+    }
+
+    /**
+     * First page of history, what the history screen actually loads
+     */
+    @Benchmark
+    public List<Transaction> getFirstPageByUser(LedgerState ledger) {
+        return transactionDao.getTransactionsPageByUser(ledger.userId, Long.MAX_VALUE, Integer.MAX_VALUE, PAGE_SIZE);
+    }
+}
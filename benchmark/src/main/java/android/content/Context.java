@@ -0,0 +1,15 @@
+package android.content;
+
+import java.io.File;
+
+/**
+ * JVM stand-in for the parts of android.content.Context the data layer uses
+ */
+public abstract class Context {
+
+    public abstract Context getApplicationContext();
+
+    public abstract File getDatabasePath(String name);
+
+    public abstract File getFilesDir();
+}
@@ -0,0 +1,54 @@
+package android.database;
+
+import java.io.Closeable;
+
+/**
+ * JVM stand-in for the read side of android.database.Cursor
+ */
+public interface Cursor extends Closeable {
+
+    int FIELD_TYPE_NULL = 0;
+    int FIELD_TYPE_INTEGER = 1;
+    int FIELD_TYPE_FLOAT = 2;
+    int FIELD_TYPE_STRING = 3;
+    int FIELD_TYPE_BLOB = 4;
+
+    int getCount();
+
+    int getPosition();
+
+    boolean moveToFirst();
+
+    boolean moveToNext();
+
+    boolean moveToPosition(int position);
+
+    int getColumnCount();
+
+    int getColumnIndex(String columnName);
+
+    int getColumnIndexOrThrow(String columnName) throws IllegalArgumentException;
+
+    String getColumnName(int columnIndex);
+
+    String[] getColumnNames();
+
+    int getType(int columnIndex);
+
+    boolean isNull(int columnIndex);
+
+    int getInt(int columnIndex);
+
+    long getLong(int columnIndex);
+
+    double getDouble(int columnIndex);
+
+    String getString(int columnIndex);
+
+    byte[] getBlob(int columnIndex);
+
+    @Override
+    void close();
+
+    boolean isClosed();
+}
@@ -0,0 +1,229 @@
+package android.database.sqlite;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * JVM stand-in for android.database.sqlite.SQLiteDatabase on one sqlite-jdbc
+ * connection. Implements what the data layer calls, with the device's
+ * semantics for nested transactions: the outermost endTransaction commits
+ * only if every level was marked successful.
+ */
+public final class SQLiteDatabase implements Closeable {
+
+    /**
+     * Unused; present for the SQLiteOpenHelper constructor signature
+     */
+    public interface CursorFactory {
+    }
+
+    private final String path;
+    private final Connection connection;
+    // One entry per open transaction level: whether it was marked successful
+    private final Deque<boolean[]> transactions = new ArrayDeque<>();
+    private boolean innerLevelFailed;
+
+    SQLiteDatabase(String path) {
+        this.path = path;
+        try {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + path);
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    static SQLiteException wrap(SQLException e) {
+        return new SQLiteException(e.getMessage(), e);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public synchronized void execSQL(String sql) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    public synchronized void execSQL(String sql, Object[] bindArgs) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, bindArgs);
+            statement.execute();
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    public synchronized Cursor rawQuery(String sql, String[] selectionArgs) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, selectionArgs);
+            if (!statement.execute()) {
+                return ResultSetCursor.empty();
+            }
+            try (ResultSet resultSet = statement.getResultSet()) {
+                return ResultSetCursor.read(resultSet);
+            }
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    public SQLiteStatement compileStatement(String sql) {
+        try {
+            return new SQLiteStatement(this, connection.prepareStatement(sql));
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    /**
+     * @return rowid of the new row, or -1 on error
+     */
+    public synchronized long insert(String table, String nullColumnHack, ContentValues values) {
+        List<String> columns = new ArrayList<>(values.keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < columns.size(); i++) {
+                statement.setObject(i + 1, values.get(columns.get(i)));
+            }
+            return statement.executeUpdate() == 0 ? -1 : lastInsertRowId();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    public synchronized int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
+        List<String> columns = new ArrayList<>(values.keySet());
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(columns.get(i)).append(" = ?");
+        }
+        if (whereClause != null) {
+            sql.append(" WHERE ").append(whereClause);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (String column : columns) {
+                statement.setObject(index++, values.get(column));
+            }
+            if (whereArgs != null) {
+                for (String arg : whereArgs) {
+                    statement.setString(index++, arg);
+                }
+            }
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    public void beginTransaction() {
+        begin("BEGIN EXCLUSIVE");
+    }
+
+    public void beginTransactionNonExclusive() {
+        begin("BEGIN IMMEDIATE");
+    }
+
+    public synchronized void setTransactionSuccessful() {
+        if (transactions.isEmpty()) {
+            throw new IllegalStateException("no transaction pending");
+        }
+        transactions.peek()[0] = true;
+    }
+
+    public synchronized void endTransaction() {
+        if (transactions.isEmpty()) {
+            throw new IllegalStateException("no transaction pending");
+        }
+        if (!transactions.pop()[0]) {
+            innerLevelFailed = true;
+        }
+        if (transactions.isEmpty()) {
+            execSQL(innerLevelFailed ? "ROLLBACK" : "COMMIT");
+        }
+    }
+
+    public synchronized boolean inTransaction() {
+        return !transactions.isEmpty();
+    }
+
+    public void setForeignKeyConstraintsEnabled(boolean enable) {
+        execSQL("PRAGMA foreign_keys = " + (enable ? "ON" : "OFF"));
+    }
+
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    public int getVersion() {
+        Cursor cursor = rawQuery("PRAGMA user_version", null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    public void setVersion(int version) {
+        execSQL("PRAGMA user_version = " + version);
+    }
+
+    public boolean isOpen() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    long lastInsertRowId() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT last_insert_rowid()")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private synchronized void begin(String sql) {
+        if (transactions.isEmpty()) {
+            execSQL(sql);
+            innerLevelFailed = false;
+        }
+        transactions.push(new boolean[]{false});
+    }
+
+    private static void bind(PreparedStatement statement, Object[] args) throws SQLException {
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package android.database.sqlite;
+
+/**
+ * JVM stand-in for android.database.sqlite.SQLiteException
+ */
+public class SQLiteException extends RuntimeException {
+
+    public SQLiteException(String message) {
+        super(message);
+    }
+
+    public SQLiteException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,92 @@
+package android.database.sqlite;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for android.database.sqlite.SQLiteOpenHelper: opens one
+ * connection and runs onConfigure, onCreate/onUpgrade in a transaction and
+ * onOpen in the same order as the device
+ */
+public abstract class SQLiteOpenHelper implements AutoCloseable {
+
+    private final Context context;
+    private final String name;
+    private final int version;
+    private boolean writeAheadLogging;
+    private SQLiteDatabase database;
+
+    public SQLiteOpenHelper(Context context, String name, SQLiteDatabase.CursorFactory factory, int version) {
+        this.context = context;
+        this.name = name;
+        this.version = version;
+    }
+
+    public void onConfigure(SQLiteDatabase db) {
+    }
+
+    public abstract void onCreate(SQLiteDatabase db);
+
+    public abstract void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion);
+
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        throw new SQLiteException("Can't downgrade database from version " + oldVersion + " to " + newVersion);
+    }
+
+    public void onOpen(SQLiteDatabase db) {
+    }
+
+    public String getDatabaseName() {
+        return name;
+    }
+
+    public synchronized void setWriteAheadLoggingEnabled(boolean enabled) {
+        writeAheadLogging = enabled;
+    }
+
+    public synchronized SQLiteDatabase getWritableDatabase() {
+        if (database != null) {
+            return database;
+        }
+        SQLiteDatabase db = new SQLiteDatabase(name == null ? ":memory:" : context.getDatabasePath(name).getPath());
+        if (writeAheadLogging) {
+            db.rawQuery("PRAGMA journal_mode = WAL", null).close();
+        }
+        onConfigure(db);
+
+        int currentVersion = db.getVersion();
+        if (currentVersion != version) {
+            db.beginTransaction();
+            try {
+                if (currentVersion == 0) {
+                    onCreate(db);
+                } else if (currentVersion > version) {
+                    onDowngrade(db, currentVersion, version);
+                } else {
+                    onUpgrade(db, currentVersion, version);
+                }
+                db.setVersion(version);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        onOpen(db);
+        database = db;
+        return db;
+    }
+
+    /**
+     * One connection serves reads and writes
+     */
+    public SQLiteDatabase getReadableDatabase() {
+        return getWritableDatabase();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (database != null) {
+            database.close();
+            database = null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package android.database.sqlite;
+
+import java.io.Closeable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * JVM stand-in for android.database.sqlite.SQLiteStatement over a JDBC
+ * prepared statement
+ */
+public final class SQLiteStatement implements Closeable {
+
+    private final SQLiteDatabase database;
+    private final PreparedStatement statement;
+
+    SQLiteStatement(SQLiteDatabase database, PreparedStatement statement) {
+        this.database = database;
+        this.statement = statement;
+    }
+
+    public void bindLong(int index, long value) {
+        try {
+            statement.setLong(index, value);
+        } catch (SQLException e) {
+            throw SQLiteDatabase.wrap(e);
+        }
+    }
+
+    public void bindDouble(int index, double value) {
+        try {
+            statement.setDouble(index, value);
+        } catch (SQLException e) {
+            throw SQLiteDatabase.wrap(e);
+        }
+    }
+
+    public void bindString(int index, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("the bind value at index " + index + " is null");
+        }
+        try {
+            statement.setString(index, value);
+        } catch (SQLException e) {
+            throw SQLiteDatabase.wrap(e);
+        }
+    }
+
+    public void bindNull(int index) {
+        try {
+            statement.setNull(index, Types.NULL);
+        } catch (SQLException e) {
+            throw SQLiteDatabase.wrap(e);
+        }
+    }
+
+    public void clearBindings() {
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            throw SQLiteDatabase.wrap(e);
+        }
+    }
+
+    public void execute() {
+        synchronized (database) {
+            try {
+                statement.execute();
+            } catch (SQLException e) {
+                throw SQLiteDatabase.wrap(e);
+            }
+        }
+    }
+
+    /**
+     * @return rowid of the inserted row, or -1 if nothing was inserted
+     */
+    public long executeInsert() {
+        synchronized (database) {
+            try {
+                return statement.executeUpdate() == 0 ? -1 : database.lastInsertRowId();
+            } catch (SQLException e) {
+                throw SQLiteDatabase.wrap(e);
+            }
+        }
+    }
+
+    public int executeUpdateDelete() {
+        synchronized (database) {
+            try {
+                return statement.executeUpdate();
+            } catch (SQLException e) {
+                throw SQLiteDatabase.wrap(e);
+            }
+        }
+    }
+
+    public long simpleQueryForLong() {
+        synchronized (database) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLiteException("query returned no rows");
+                }
+                return resultSet.getLong(1);
+            } catch (SQLException e) {
+                throw SQLiteDatabase.wrap(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Already closed with its connection
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Handler. Posted work runs on the posting
+ * thread, so results handed to the "main thread" arrive synchronously.
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public boolean post(Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+}
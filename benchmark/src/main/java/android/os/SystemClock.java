@@ -0,0 +1,17 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.SystemClock, on the monotonic JVM clock
+ */
+public final class SystemClock {
+
+    private SystemClock() {}
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,51 @@
+package android.util;
+
+/**
+ * JVM stand-in for android.util.Log. Messages are dropped so logging does not
+ * distort measurements; run with -Dpaywise.log=true to print them.
+ */
+public final class Log {
+
+    private static final boolean ENABLED = Boolean.getBoolean("paywise.log");
+
+    private Log() {}
+
+    public static int v(String tag, String message) {
+        return print("V", tag, message, null);
+    }
+
+    public static int d(String tag, String message) {
+        return print("D", tag, message, null);
+    }
+
+    public static int i(String tag, String message) {
+        return print("I", tag, message, null);
+    }
+
+    public static int w(String tag, String message) {
+        return print("W", tag, message, null);
+    }
+
+    public static int w(String tag, String message, Throwable error) {
+        return print("W", tag, message, error);
+    }
+
+    public static int e(String tag, String message) {
+        return print("E", tag, message, null);
+    }
+
+    public static int e(String tag, String message, Throwable error) {
+        return print("E", tag, message, error);
+    }
+
+    private static int print(String level, String tag, String message, Throwable error) {
+        if (!ENABLED) {
+            return 0;
+        }
+        System.err.println(level + "/" + tag + ": " + message);
+        if (error != null) {
+            error.printStackTrace();
+        }
+        return 0;
+    }
+}